@@ -28,6 +28,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.StreamingOutput;
 
 import static io.apicurio.registry.ccompat.rest.ContentTypes.*;
 
@@ -58,10 +59,11 @@ public interface SubjectsResource {
      *
      *     500 Internal Server Error –
      *         Error code 50001 – Error in the backend datastore
+     *
+     * The subjects are streamed (as a JSON array of strings) page by page, so the full list is never held in memory.
      */
-    // TODO Possibly costly operation
     @GET
-    List<String> listSubjects();
+    StreamingOutput listSubjects();
 
 
     // ----- Path: /subjects/{subject} -----
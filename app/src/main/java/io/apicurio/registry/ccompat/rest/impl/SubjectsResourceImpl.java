@@ -16,6 +16,8 @@
 
 package io.apicurio.registry.ccompat.rest.impl;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.apicurio.registry.ccompat.dto.SchemaContent;
 import io.apicurio.registry.ccompat.dto.Schema;
 import io.apicurio.registry.ccompat.rest.SubjectsResource;
@@ -23,12 +25,16 @@ import io.apicurio.registry.logging.Logged;
 import io.apicurio.registry.metrics.ResponseErrorLivenessCheck;
 import io.apicurio.registry.metrics.ResponseTimeoutReadinessCheck;
 import io.apicurio.registry.metrics.RestMetricsApply;
+import io.apicurio.registry.mt.TenantContext;
+import io.apicurio.registry.types.Current;
 import org.eclipse.microprofile.metrics.annotation.ConcurrentGauge;
 import org.eclipse.microprofile.metrics.annotation.Counted;
 import org.eclipse.microprofile.metrics.annotation.Timed;
 
 import java.util.List;
+import javax.inject.Inject;
 import javax.interceptor.Interceptors;
+import javax.ws.rs.core.StreamingOutput;
 
 import static io.apicurio.registry.metrics.MetricIDs.*;
 import static org.eclipse.microprofile.metrics.MetricUnits.MILLISECONDS;
@@ -46,9 +52,53 @@ import static org.eclipse.microprofile.metrics.MetricUnits.MILLISECONDS;
 public class SubjectsResourceImpl extends AbstractResource implements SubjectsResource {
 
 
+    private static final int SUBJECTS_PAGE_SIZE = 1000;
+
+    // AUTO_CLOSE_JSON_CONTENT is disabled, so the array is left open if streaming fails half-way, and the
+    // client can't mistake a truncated listing for the complete one
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+    @Inject
+    @Current
+    TenantContext tenantContext;
+
+    /**
+     * The first page is fetched up-front, so storage errors are still reported as a proper error response,
+     * and the (most common) listings fitting in a single page are served entirely within the REST
+     * interceptors and metrics.  The following pages are fetched while the response is written, i.e. after
+     * the status has been sent, for the tenant of this request; a failure then aborts the response.
+     */
     @Override
-    public List<String> listSubjects() {
-        return facade.getSubjects();
+    public StreamingOutput listSubjects() {
+        List<String> first = facade.getSubjects(null, SUBJECTS_PAGE_SIZE);
+        String tenantId = tenantContext.tenantId();
+        return output -> {
+            // the response may be written by another thread than the one serving the request
+            String previousTenantId = tenantContext.tenantId();
+            tenantContext.tenantId(tenantId);
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(output)) {
+                generator.writeStartArray();
+                List<String> page = first;
+                while (true) {
+                    for (String subject : page) {
+                        generator.writeString(subject);
+                    }
+                    if (page.size() < SUBJECTS_PAGE_SIZE) {
+                        break;
+                    }
+                    generator.flush();
+                    page = facade.getSubjects(page.get(page.size() - 1), SUBJECTS_PAGE_SIZE);
+                }
+                generator.writeEndArray();
+            } catch (RuntimeException e) {
+                log.error("Failed to list the subjects, the response is incomplete.", e);
+                throw e;
+            } finally {
+                tenantContext.tenantId(previousTenantId);
+            }
+        };
     }
 
     @Override
@@ -39,7 +39,12 @@ import java.util.function.Function;
  */
 public interface RegistryStorageFacade {
 
-    List<String> getSubjects();
+    /**
+     * Returns a page of the subjects, in order, following the given one.
+     * @param after the last subject of the previous page, or null for the first page
+     * @param limit the page size
+     */
+    List<String> getSubjects(String after, int limit);
 
     List<SubjectVersion> getSubjectVersions(int globalId);
 
@@ -43,7 +43,6 @@ import io.apicurio.registry.types.RuleType;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.concurrent.CompletableFuture;
@@ -65,9 +64,8 @@ public class RegistryStorageFacadeImpl implements RegistryStorageFacade {
     @Inject
     RulesService rulesService;
 
-    public List<String> getSubjects() {
-        // TODO maybe not necessary...
-        return new ArrayList<>(storage.getArtifactIds(null));
+    public List<String> getSubjects(String after, int limit) {
+        return storage.getArtifactIds(after, limit);
     }
 
     @Override
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.content.canon;
+
+import static io.apicurio.registry.metrics.MetricIDs.CANONICAL_CACHE_HIT_COUNT;
+import static io.apicurio.registry.metrics.MetricIDs.CANONICAL_CACHE_HIT_COUNT_DESC;
+import static io.apicurio.registry.metrics.MetricIDs.CANONICAL_CACHE_MISS_COUNT;
+import static io.apicurio.registry.metrics.MetricIDs.CANONICAL_CACHE_MISS_COUNT_DESC;
+import static io.apicurio.registry.metrics.MetricIDs.CONTENT_GROUP_TAG;
+import static org.eclipse.microprofile.metrics.MetricRegistry.Type.APPLICATION;
+import static org.eclipse.microprofile.metrics.MetricType.COUNTER;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.types.ArtifactType;
+
+/**
+ * Bounded (LRU) cache of canonicalized content, keyed by the artifact type and the SHA-256
+ * of the raw content.  It is shared by all the storages (through the
+ * {@link io.apicurio.registry.types.provider.ArtifactTypeUtilProviderFactory}), so registering
+ * or looking up the same content again only costs a hash.
+ */
+@ApplicationScoped
+public class CanonicalContentCache {
+
+    @Inject
+    @ConfigProperty(name = "registry.content.canonical.cache.size", defaultValue = "1000")
+    int maxSize;
+
+    @Inject
+    @RegistryType(type = APPLICATION)
+    MetricRegistry metricRegistry;
+
+    private Map<String, ContentHandle> cache;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        cache = new LinkedHashMap<String, ContentHandle>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ContentHandle> eldest) {
+                return size() > maxSize;
+            }
+        };
+        hits = counter(CANONICAL_CACHE_HIT_COUNT, CANONICAL_CACHE_HIT_COUNT_DESC);
+        misses = counter(CANONICAL_CACHE_MISS_COUNT, CANONICAL_CACHE_MISS_COUNT_DESC);
+    }
+
+    private Counter counter(String name, String description) {
+        Metadata metadata = Metadata.builder().withName(name).withDescription(description).withType(COUNTER).build();
+        return metricRegistry.counter(metadata, new Tag("group", CONTENT_GROUP_TAG), new Tag("metric", name));
+    }
+
+    /**
+     * Returns the canonical form of the content, canonicalizing (and caching) it if needed.
+     * @param type the artifact type of the content
+     * @param content the raw content
+     * @param canonicalizer used on a cache miss
+     */
+    public ContentHandle canonicalize(ArtifactType type, ContentHandle content, ContentCanonicalizer canonicalizer) {
+        if (maxSize <= 0) {
+            return canonicalizer.canonicalize(content);
+        }
+        String key = type + ":" + DigestUtils.sha256Hex(content.bytes());
+        synchronized (cache) {
+            ContentHandle canonical = cache.get(key);
+            if (canonical != null) {
+                hits.inc();
+                return canonical;
+            }
+        }
+        misses.inc();
+        // copy into a bytes handle, so the cached content can be read more than once
+        ContentHandle canonical = ContentHandle.create(canonicalizer.canonicalize(content).bytes());
+        synchronized (cache) {
+            cache.put(key, canonical);
+        }
+        return canonical;
+    }
+
+}
@@ -114,6 +114,11 @@ public class EventSourcedRegistryStorage implements RegistryStorage {
         return storage.getArtifactIds(limit);
     }
 
+    @Override
+    public List<String> getArtifactIds(String after, int limit) {
+        return storage.getArtifactIds(after, limit);
+    }
+
     @Override
     public ArtifactSearchResults searchArtifacts(String search, int offset, int limit, SearchOver searchOver, SortOrder sortOrder) {
         return storage.searchArtifacts(search, offset, limit, searchOver, sortOrder);
@@ -21,9 +21,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
@@ -292,11 +290,11 @@ public class ApiServiceImpl implements ApiService {
     @Override
     public List<SchemaListItem> apiSchemasGet(int page, int perPage)
     throws ArtifactNotFoundException {
-        // best guess ... order set, and then limit things via stream
-        Set<String> ids = new TreeSet<>(storage.getArtifactIds(null));
-        return ids.stream()
-                  .skip(page * perPage)
-                  .limit(perPage)
+        // a single (ordered) page, up to the end of the requested one
+        int offset = (int) Math.min(Integer.MAX_VALUE, (long) page * perPage);
+        int limit = (int) Math.min(Integer.MAX_VALUE, (long) offset + perPage);
+        return storage.getArtifactIds(null, limit).stream()
+                  .skip(offset)
                   .map(id -> {
                       SchemaListItem item = new SchemaListItem();
                       try {
@@ -28,4 +28,18 @@ public interface MetricIDs {
 
     String STORAGE_CONCURRENT_OPERATION_COUNT = "concurrent_operation_count";
     String STORAGE_CONCURRENT_OPERATION_COUNT_DESC = "Number of concurrent storage operations.";
+
+    String STORAGE_PENDING_RESPONSE_COUNT = "pending_response_count";
+    String STORAGE_PENDING_RESPONSE_COUNT_DESC = "Number of storage operations waiting for their journal record to be applied.";
+
+    String STORAGE_RESPONSE_WAIT_TIME = "response_wait_time";
+    String STORAGE_RESPONSE_WAIT_TIME_DESC = "Time between submitting a storage operation to the journal and it being applied.";
+
+    String CONTENT_GROUP_TAG = "CONTENT";
+
+    String CANONICAL_CACHE_HIT_COUNT = "canonical_cache_hit_count";
+    String CANONICAL_CACHE_HIT_COUNT_DESC = "Number of canonicalizations served from the cache.";
+
+    String CANONICAL_CACHE_MISS_COUNT = "canonical_cache_miss_count";
+    String CANONICAL_CACHE_MISS_COUNT_DESC = "Number of canonicalizations not found in the cache.";
 }
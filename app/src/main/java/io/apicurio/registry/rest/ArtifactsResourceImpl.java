@@ -267,7 +267,7 @@ public class ArtifactsResourceImpl implements ArtifactsResource, Headers {
      */
     @Override
     public List<String> listArtifacts() {
-    	return new ArrayList<>(storage.getArtifactIds(GET_ARTIFACT_IDS_LIMIT));
+        return storage.getArtifactIds(null, GET_ARTIFACT_IDS_LIMIT);
     }    
 
     /**
@@ -35,6 +35,8 @@ import static java.util.Objects.requireNonNull;
  */
 public class AvroCompatibilityChecker implements CompatibilityChecker {
 
+    private static final ParsedSchemaCache<Schema> SCHEMAS = new ParsedSchemaCache<>(s -> new Schema.Parser().parse(s));
+
     /**
      * @see CompatibilityChecker#testCompatibility(io.apicurio.registry.rules.compatibility.CompatibilityLevel, java.util.List, java.lang.String)
      */
@@ -50,10 +52,10 @@ public class AvroCompatibilityChecker implements CompatibilityChecker {
             return CompatibilityExecutionResult.compatible();
         }
 
-        List<Schema> existingSchemas = existingSchemaStrings.stream().map(s -> new Schema.Parser().parse(s)).collect(Collectors.toList());
+        List<Schema> existingSchemas = existingSchemaStrings.stream().map(SCHEMAS::parse).collect(Collectors.toList());
         Collections.reverse(existingSchemas); // the most recent must come first, i.e. reverse-chronological.
         try {
-            Schema toValidate = new Schema.Parser().parse(proposedSchemaString);
+            Schema toValidate = SCHEMAS.parse(proposedSchemaString);
             schemaValidator.validate(toValidate, existingSchemas);
             return CompatibilityExecutionResult.compatible();
         } catch (SchemaValidationException e) {
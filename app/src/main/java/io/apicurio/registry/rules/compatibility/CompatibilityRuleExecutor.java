@@ -19,20 +19,30 @@ package io.apicurio.registry.rules.compatibility;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.apache.commons.codec.digest.DigestUtils;
+
 import io.apicurio.registry.content.ContentHandle;
 import io.apicurio.registry.logging.Logged;
 import io.apicurio.registry.rest.beans.RuleViolationCause;
 import io.apicurio.registry.rules.RuleContext;
 import io.apicurio.registry.rules.RuleExecutor;
 import io.apicurio.registry.rules.RuleViolationException;
+import io.apicurio.registry.storage.ArtifactVersionMetaDataDto;
+import io.apicurio.registry.storage.RegistryStorage;
+import io.apicurio.registry.storage.VersionNotFoundException;
+import io.apicurio.registry.types.ArtifactState;
+import io.apicurio.registry.types.Current;
 import io.apicurio.registry.types.RuleType;
 import io.apicurio.registry.types.provider.ArtifactTypeUtilProvider;
 import io.apicurio.registry.types.provider.ArtifactTypeUtilProviderFactory;
@@ -48,9 +58,25 @@ import io.apicurio.registry.types.provider.ArtifactTypeUtilProviderFactory;
 @Logged
 public class CompatibilityRuleExecutor implements RuleExecutor {
 
+    private static final int MAX_VERIFIED_PAIRS = 10000;
+
     @Inject
     ArtifactTypeUtilProviderFactory factory;
 
+    @Inject
+    @Current
+    RegistryStorage storage;
+
+    // (type, level, existing hash, updated hash) of the pairs already known to be compatible
+    private final Map<String, Boolean> verifiedPairs = Collections.synchronizedMap(new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_VERIFIED_PAIRS;
+        }
+    });
+
     /**
      * @see io.apicurio.registry.rules.RuleExecutor#execute(io.apicurio.registry.rules.RuleContext)
      */
@@ -59,21 +85,90 @@ public class CompatibilityRuleExecutor implements RuleExecutor {
         CompatibilityLevel level = CompatibilityLevel.valueOf(context.getConfiguration());
         ArtifactTypeUtilProvider provider = factory.getArtifactTypeProvider(context.getArtifactType());
         CompatibilityChecker checker = provider.getCompatibilityChecker();
-        List<ContentHandle> existingArtifacts = context.getCurrentContent() != null
-            ? singletonList(context.getCurrentContent()) : emptyList();
-        CompatibilityExecutionResult compatibilityExecutionResult = checker.testCompatibility(
-             level,
-             existingArtifacts,
-             context.getUpdatedContent());
-        if (!compatibilityExecutionResult.isCompatible()) {
-            throw new RuleViolationException(String.format("Incompatible artifact: %s [%s], num of incompatible diffs: {%s}",
-                 context.getArtifactId(), context.getArtifactType(),
-                 compatibilityExecutionResult.getIncompatibleDifferences().size()),
-                 RuleType.COMPATIBILITY, context.getConfiguration(),
-                 transformCompatibilityDiffs(compatibilityExecutionResult.getIncompatibleDifferences()));
+
+        if (level == CompatibilityLevel.NONE || context.getCurrentContent() == null) {
+            List<ContentHandle> existingArtifacts = context.getCurrentContent() != null
+                ? singletonList(context.getCurrentContent()) : emptyList();
+            CompatibilityExecutionResult compatibilityExecutionResult = checker.testCompatibility(
+                 level,
+                 existingArtifacts,
+                 context.getUpdatedContent());
+            if (!compatibilityExecutionResult.isCompatible()) {
+                throw incompatible(context, compatibilityExecutionResult);
+            }
+            return;
+        }
+
+        // Transitive levels are checked version by version (newest first), so that every verified
+        // pair can be remembered and skipped the next time the same content is checked.
+        CompatibilityLevel pairLevel = nonTransitive(level);
+        List<ContentHandle> existingArtifacts = pairLevel == level
+            ? singletonList(context.getCurrentContent()) : getAllVersions(context);
+        String updatedHash = DigestUtils.sha256Hex(context.getUpdatedContent().bytes());
+        for (ContentHandle existing : existingArtifacts) {
+            String pair = context.getArtifactType() + ":" + pairLevel + ":" + DigestUtils.sha256Hex(existing.bytes()) + ":" + updatedHash;
+            if (verifiedPairs.containsKey(pair)) {
+                continue;
+            }
+            CompatibilityExecutionResult compatibilityExecutionResult = checker.testCompatibility(
+                 pairLevel,
+                 singletonList(existing),
+                 context.getUpdatedContent());
+            if (!compatibilityExecutionResult.isCompatible()) {
+                throw incompatible(context, compatibilityExecutionResult);
+            }
+            verifiedPairs.put(pair, Boolean.TRUE);
         }
     }
 
+    /**
+     * Returns the content of all active (not disabled) versions of the artifact, the most recent first.
+     * Disabled versions are not served, so (as with the non-transitive levels, which only see the
+     * latest active version) nothing needs to stay compatible with them.
+     * @param context
+     */
+    private List<ContentHandle> getAllVersions(RuleContext context) {
+        List<Long> versions = new ArrayList<>(storage.getArtifactVersions(context.getArtifactId()));
+        Collections.reverse(versions);
+        List<ContentHandle> contents = new ArrayList<>(versions.size());
+        for (Long version : versions) {
+            try {
+                ArtifactVersionMetaDataDto metaData = storage.getArtifactVersionMetaData(context.getArtifactId(), version);
+                if (metaData.getState() == ArtifactState.DISABLED) {
+                    continue;
+                }
+                contents.add(storage.getArtifactVersion(context.getArtifactId(), version).getContent());
+            } catch (VersionNotFoundException e) {
+                // deleted in the meantime, nothing to be compatible with
+            }
+        }
+        if (contents.isEmpty()) {
+            contents.add(context.getCurrentContent());
+        }
+        return contents;
+    }
+
+    private static CompatibilityLevel nonTransitive(CompatibilityLevel level) {
+        switch (level) {
+            case BACKWARD_TRANSITIVE:
+                return CompatibilityLevel.BACKWARD;
+            case FORWARD_TRANSITIVE:
+                return CompatibilityLevel.FORWARD;
+            case FULL_TRANSITIVE:
+                return CompatibilityLevel.FULL;
+            default:
+                return level;
+        }
+    }
+
+    private RuleViolationException incompatible(RuleContext context, CompatibilityExecutionResult compatibilityExecutionResult) {
+        return new RuleViolationException(String.format("Incompatible artifact: %s [%s], num of incompatible diffs: {%s}",
+             context.getArtifactId(), context.getArtifactType(),
+             compatibilityExecutionResult.getIncompatibleDifferences().size()),
+             RuleType.COMPATIBILITY, context.getConfiguration(),
+             transformCompatibilityDiffs(compatibilityExecutionResult.getIncompatibleDifferences()));
+    }
+
     /**
      * Convert the set of compatibility differences into a collection of rule violation causes
      * for return to the user.
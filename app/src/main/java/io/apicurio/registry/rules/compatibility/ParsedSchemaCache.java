@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.rules.compatibility;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Bounded (LRU) cache of parsed schemas keyed by the SHA-256 of their content, so that
+ * compatibility checks against many (or the same) versions don't re-parse every schema.
+ * The parsed schemas are shared between threads, so they must not be modified.
+ */
+public class ParsedSchemaCache<T> {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final Function<String, T> parser;
+    private final Map<String, T> schemas;
+
+    public ParsedSchemaCache(Function<String, T> parser) {
+        this(parser, DEFAULT_MAX_SIZE);
+    }
+
+    public ParsedSchemaCache(Function<String, T> parser, int maxSize) {
+        this.parser = parser;
+        this.schemas = new LinkedHashMap<String, T>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed schema, parsing (and caching) it if needed.  Parsing errors are
+     * propagated and not cached.
+     */
+    public T parse(String content) {
+        String key = DigestUtils.sha256Hex(content);
+        synchronized (schemas) {
+            T schema = schemas.get(key);
+            if (schema != null) {
+                return schema;
+            }
+        }
+        T schema = parser.apply(content);
+        synchronized (schemas) {
+            schemas.put(key, schema);
+        }
+        return schema;
+    }
+}
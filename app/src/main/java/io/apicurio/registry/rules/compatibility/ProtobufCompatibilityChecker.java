@@ -25,6 +25,8 @@ import java.util.List;
  */
 public class ProtobufCompatibilityChecker implements CompatibilityChecker {
 
+    private static final ParsedSchemaCache<ProtobufFile> FILES = new ParsedSchemaCache<>(ProtobufFile::new);
+
     /**
      * @see io.apicurio.registry.rules.compatibility.CompatibilityChecker#testCompatibility(io.apicurio.registry.rules.compatibility.CompatibilityLevel, java.util.List, java.lang.String)
      */
@@ -39,8 +41,8 @@ public class ProtobufCompatibilityChecker implements CompatibilityChecker {
         }
         switch (compatibilityLevel) {
             case BACKWARD: {
-                ProtobufFile fileBefore = new ProtobufFile(existingSchemas.get(existingSchemas.size() - 1));
-                ProtobufFile fileAfter = new ProtobufFile(proposedSchema);
+                ProtobufFile fileBefore = FILES.parse(existingSchemas.get(existingSchemas.size() - 1));
+                ProtobufFile fileAfter = FILES.parse(proposedSchema);
                 ProtobufCompatibilityCheckerImpl checker = new ProtobufCompatibilityCheckerImpl(fileBefore, fileAfter);
                 if (checker.validate()) {
                     return CompatibilityExecutionResult.compatible();
@@ -49,13 +51,11 @@ public class ProtobufCompatibilityChecker implements CompatibilityChecker {
                 }
             }
             case BACKWARD_TRANSITIVE:
-                ProtobufFile fileAfter = new ProtobufFile(proposedSchema);
+                ProtobufFile fileAfter = FILES.parse(proposedSchema);
                 for (String existing : existingSchemas) {
-                    ProtobufFile fileBefore = new ProtobufFile(existing);
+                    ProtobufFile fileBefore = FILES.parse(existing);
                     ProtobufCompatibilityCheckerImpl checker = new ProtobufCompatibilityCheckerImpl(fileBefore, fileAfter);
-                    if (checker.validate()) {
-                        return CompatibilityExecutionResult.compatible();
-                    } else {
+                    if (!checker.validate()) {
                         return CompatibilityExecutionResult.incompatible("The new version of the protobuf artifact is not backward compatible.");
                     }
                 }
@@ -27,6 +27,7 @@ import org.json.JSONObject;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
+import io.apicurio.registry.rules.compatibility.ParsedSchemaCache;
 import io.apicurio.registry.rules.compatibility.jsonschema.diff.DiffContext;
 import io.apicurio.registry.rules.compatibility.jsonschema.diff.Difference;
 import io.apicurio.registry.rules.compatibility.jsonschema.diff.SchemaDiffVisitor;
@@ -36,6 +37,8 @@ import io.apicurio.registry.rules.compatibility.jsonschema.diff.SchemaDiffVisito
  */
 public class JsonSchemaDiffLibrary {
 
+    private static final ParsedSchemaCache<Schema> SCHEMAS = new ParsedSchemaCache<>(JsonSchemaDiffLibrary::parse);
+
     /**
      * Find and analyze differences between two JSON schemas.
      *
@@ -45,18 +48,13 @@ public class JsonSchemaDiffLibrary {
      * @throws IllegalArgumentException if the input is not a valid representation of a JsonSchema
      */
     public static DiffContext findDifferences(String original, String updated) {
-        try {
-            JSONObject originalJson = MAPPER.readValue(original, JSONObject.class);
-            JSONObject updatedJson = MAPPER.readValue(updated, JSONObject.class);
-
-            Schema originalSchema = SchemaLoader.builder()
-                    .schemaJson(originalJson)
-                    .build().load().build();
-
-            Schema updatedSchema = SchemaLoader.builder().schemaJson(updatedJson).build().load().build();
-
-            return findDifferences(originalSchema, updatedSchema);
+        return findDifferences(SCHEMAS.parse(original), SCHEMAS.parse(updated));
+    }
 
+    private static Schema parse(String schema) {
+        try {
+            JSONObject json = MAPPER.readValue(schema, JSONObject.class);
+            return SchemaLoader.builder().schemaJson(json).build().load().build();
         } catch (JsonProcessingException e) {
             throw new IllegalStateException(e);
         }
@@ -20,10 +20,15 @@ package io.apicurio.registry.storage;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.commons.codec.digest.DigestUtils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.content.canon.ContentCanonicalizer;
 import io.apicurio.registry.types.ArtifactType;
 
 /**
@@ -48,6 +53,8 @@ public class MetaDataKeys {
     // Internal
 
     public static String DELETED = "_deleted";
+    public static String CONTENT_HASH = "_content_hash";
+    public static String CANONICAL_HASH = "_canonical_hash";
     
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
@@ -127,4 +134,41 @@ public class MetaDataKeys {
     public static void putContent(Map<String, String> cMap, byte[] content) {
         cMap.put(CONTENT, Base64.getEncoder().encodeToString(content));
     }
+
+    public static String hash(byte[] content) {
+        return DigestUtils.sha256Hex(content);
+    }
+
+    /**
+     * Records the raw and canonical content hashes, so that content lookups
+     * don't need to re-canonicalize every stored version.
+     */
+    public static void putContentHashes(Map<String, String> cMap, ContentHandle content, ContentCanonicalizer canonicalizer) {
+        cMap.put(CONTENT_HASH, hash(content.bytes()));
+        try {
+            cMap.put(CANONICAL_HASH, hash(canonicalizer.canonicalize(content).bytes()));
+        } catch (RuntimeException e) {
+            // Content cannot be canonicalized (yet), lookups will fall back to the content itself
+        }
+    }
+
+    /**
+     * The content index key of a (raw or canonical) content hash.
+     */
+    public static String contentIndexKey(boolean canonical, String hash) {
+        return (canonical ? "canonical:" : "content:") + hash;
+    }
+
+    /**
+     * Returns the stored (raw or canonical) content hash, or computes it from the
+     * content for versions stored before the hashes were recorded.
+     */
+    public static String getContentHash(Map<String, String> cMap, boolean canonical, Supplier<ContentHandle> content, ContentCanonicalizer canonicalizer) {
+        String hash = cMap.get(canonical ? CANONICAL_HASH : CONTENT_HASH);
+        if (hash != null) {
+            return hash;
+        }
+        ContentHandle candidate = content.get();
+        return hash(canonical ? canonicalizer.canonicalize(candidate).bytes() : candidate.bytes());
+    }
 }
@@ -162,6 +162,15 @@ public interface RegistryStorage {
      */
     public Set<String> getArtifactIds(Integer limit);
 
+    /**
+     * Get a page of the artifact ids, in ascending order, starting right after the given id.
+     * Use the last id of a page as the cursor for the next one, until a page comes back short.
+     * @return at most limit artifact ids, all greater than the cursor
+     * @param after the last id of the previous page, or null to start from the first id
+     * @param limit the page size
+     */
+    public List<String> getArtifactIds(String after, int limit);
+
     /**
      * Search artifacts by given criteria
      * @return all artifact that matches the given criteria
@@ -54,7 +54,6 @@ import io.quarkus.security.identity.SecurityIdentity;
 import org.apache.commons.lang3.StringUtils;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
@@ -96,6 +95,7 @@ public abstract class AbstractMapRegistryStorage extends AbstractRegistryStorage
     protected Map<Long, TupleId> global;
     protected MultiMap<String, String, String> artifactRules;
     protected Map<String, String> globalRules;
+    protected MultiMap<String, String, String> contentIndex;
 
     protected void beforeInit() {
     }
@@ -107,6 +107,7 @@ public abstract class AbstractMapRegistryStorage extends AbstractRegistryStorage
         global = createGlobalMap();
         globalRules = createGlobalRulesMap();
         artifactRules = createArtifactRulesMap();
+        contentIndex = createContentIndexMap();
         afterInit();
     }
 
@@ -123,6 +124,48 @@ public abstract class AbstractMapRegistryStorage extends AbstractRegistryStorage
 
     protected abstract MultiMap<String, String, String> createArtifactRulesMap();
 
+    /**
+     * The per-artifact content index -- (raw or canonical) content hash to version.
+     */
+    protected abstract MultiMap<String, String, String> createContentIndexMap();
+
+    private void indexContent(String artifactId, Map<String, String> contents) {
+        String version = contents.get(VERSION);
+        for (boolean canonical : new boolean[]{false, true}) {
+            String hash = contents.get(canonical ? MetaDataKeys.CANONICAL_HASH : MetaDataKeys.CONTENT_HASH);
+            if (hash != null) {
+                // the latest version with the content wins
+                String key = MetaDataKeys.contentIndexKey(canonical, hash);
+                if (contentIndex.putIfPresent(artifactId, key, version) == null) {
+                    contentIndex.putIfAbsent(artifactId, key, version);
+                }
+            }
+        }
+    }
+
+    private void unindexContent(String artifactId, long version, Map<String, String> contents) {
+        for (boolean canonical : new boolean[]{false, true}) {
+            String hashKey = canonical ? MetaDataKeys.CANONICAL_HASH : MetaDataKeys.CONTENT_HASH;
+            String hash = contents.get(hashKey);
+            if (hash == null) {
+                continue;
+            }
+            String key = MetaDataKeys.contentIndexKey(canonical, hash);
+            if (String.valueOf(version).equals(contentIndex.get(artifactId, key))) {
+                contentIndex.remove(artifactId, key);
+                // re-point the hash to the latest remaining version with the same content, if any
+                Map<Long, Map<String, String>> v2c = storage.get(artifactId);
+                if (v2c != null) {
+                    new TreeSet<>(v2c.keySet()).descendingSet().stream()
+                        .map(v2c::get)
+                        .filter(m -> m != null && hash.equals(m.get(hashKey)))
+                        .findFirst()
+                        .ifPresent(m -> contentIndex.putIfAbsent(artifactId, key, m.get(VERSION)));
+                }
+            }
+        }
+    }
+
     private Map<Long, Map<String, String>> getVersion2ContentMap(String artifactId) throws ArtifactNotFoundException {
         Map<Long, Map<String, String>> v2c = storage.get(artifactId);
         if (v2c == null || v2c.isEmpty()) {
@@ -266,6 +309,8 @@ public abstract class AbstractMapRegistryStorage extends AbstractRegistryStorage
         }
 
         ArtifactTypeUtilProvider provider = factory.getArtifactTypeProvider(artifactType);
+        MetaDataKeys.putContentHashes(contents, content, provider.getContentCanonicalizer());
+
         ContentExtractor extractor = provider.getContentExtractor();
         EditableMetaData emd = extractor.extract(content);
         if (extractor.isExtracted(emd)) {
@@ -283,6 +328,9 @@ public abstract class AbstractMapRegistryStorage extends AbstractRegistryStorage
         // Also store in global
         global.put(globalId, new TupleId(artifactId, version));
 
+        // And index the content
+        indexContent(artifactId, contents);
+
         final ArtifactMetaDataDto artifactMetaDataDto = MetaDataKeys.toArtifactMetaData(contents);
 
         //Set the createdOn based on the first version metadata.
@@ -369,6 +417,7 @@ public abstract class AbstractMapRegistryStorage extends AbstractRegistryStorage
             long globalId = Long.parseLong(m.get(MetaDataKeys.GLOBAL_ID));
             global.remove(globalId);
         });
+        contentIndex.remove(artifactId);
         this.deleteArtifactRulesInternal(artifactId);
         return new TreeSet<>(v2c.keySet());
     }
@@ -426,6 +475,14 @@ public abstract class AbstractMapRegistryStorage extends AbstractRegistryStorage
         }
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#getArtifactIds(String, int)
+     */
+    @Override
+    public List<String> getArtifactIds(String after, int limit) {
+        return SearchUtil.page(storage.keySet().stream(), after, limit);
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#searchArtifacts(String, int, int, SearchOver, SortOrder) ()
      */
@@ -485,30 +542,43 @@ public abstract class AbstractMapRegistryStorage extends AbstractRegistryStorage
         ArtifactTypeUtilProvider provider = factory.getArtifactTypeProvider(metaData.getType());
         ContentCanonicalizer canonicalizer = provider.getContentCanonicalizer();
 
-        byte[] contentToCompare;
+        String hashToCompare;
         if (canonical) {
             ContentHandle canonicalContent = canonicalizer.canonicalize(content);
-            contentToCompare = canonicalContent.bytes();
+            hashToCompare = MetaDataKeys.hash(canonicalContent.bytes());
         } else {
-            contentToCompare = content.bytes();
-        }
-
-        Map<Long, Map<String, String>> map = getVersion2ContentMap(artifactId);
-        for (Map<String, String> cMap : map.values()) {
-            ContentHandle candidateContent = ContentHandle.create(MetaDataKeys.getContent(cMap));
-            byte[] candidateBytes;
-            if (canonical) {
-                ContentHandle canonicalCandidateContent = canonicalizer.canonicalize(candidateContent);
-                candidateBytes = canonicalCandidateContent.bytes();
-            } else {
-                candidateBytes = candidateContent.bytes();
-            }
-            if (Arrays.equals(contentToCompare, candidateBytes)) {
-                ArtifactStateExt.logIfDeprecated(artifactId, ArtifactStateExt.getState(cMap), cMap.get(VERSION));
-                return MetaDataKeys.toArtifactVersionMetaData(cMap);
+            hashToCompare = MetaDataKeys.hash(content.bytes());
+        }
+
+        String key = MetaDataKeys.contentIndexKey(canonical, hashToCompare);
+        String version = contentIndex.get(artifactId, key);
+        if (version == null) {
+            Map<String, String> cMap = findUnindexedContent(artifactId, canonical, hashToCompare, canonicalizer);
+            if (cMap == null) {
+                throw new ArtifactNotFoundException(artifactId);
             }
+            // backfill the index, so the next lookup doesn't need to scan
+            contentIndex.putIfAbsent(artifactId, key, cMap.get(VERSION));
+            return MetaDataKeys.toArtifactVersionMetaData(cMap);
         }
-        throw new ArtifactNotFoundException(artifactId);
+        Map<String, String> cMap = getContentMap(artifactId, Long.parseLong(version), null);
+        return MetaDataKeys.toArtifactVersionMetaData(cMap);
+    }
+
+    /**
+     * Versions stored before the content hashes were recorded are not in the content index,
+     * scan them (latest first) and hash their content.
+     */
+    private Map<String, String> findUnindexedContent(String artifactId, boolean canonical, String hashToCompare, ContentCanonicalizer canonicalizer) {
+        String hashKey = canonical ? MetaDataKeys.CANONICAL_HASH : MetaDataKeys.CONTENT_HASH;
+        Map<Long, Map<String, String>> v2c = getVersion2ContentMap(artifactId);
+        return new TreeSet<>(v2c.keySet()).descendingSet().stream()
+            .map(v2c::get)
+            .filter(cMap -> cMap != null && cMap.get(hashKey) == null)
+            .filter(cMap -> hashToCompare.equals(MetaDataKeys.getContentHash(cMap, canonical,
+                () -> ContentHandle.create(MetaDataKeys.getContent(cMap)), canonicalizer)))
+            .findFirst()
+            .orElse(null);
     }
 
     @Override
@@ -699,12 +769,18 @@ public abstract class AbstractMapRegistryStorage extends AbstractRegistryStorage
 
     // internal - so we don't call sub-classes method
     private void deleteArtifactVersionInternal(String artifactId, long version) throws ArtifactNotFoundException, VersionNotFoundException, RegistryStorageException {
+        Map<Long, Map<String, String>> v2c = storage.get(artifactId);
+        Map<String, String> contents = (v2c != null ? v2c.get(version) : null);
         Long globalId = storage.remove(artifactId, version);
         if (globalId == null) {
             throw new VersionNotFoundException(artifactId, version);
         }
         // remove from global as well
         global.remove(globalId);
+        // and from the content index
+        if (contents != null) {
+            unindexContent(artifactId, version, contents);
+        }
     }
 
     /**
@@ -16,6 +16,7 @@
 
 package io.apicurio.registry.types.provider;
 
+import io.apicurio.registry.content.canon.CanonicalContentCache;
 import io.apicurio.registry.logging.Logged;
 import io.apicurio.registry.types.ArtifactType;
 
@@ -36,11 +37,15 @@ public class ArtifactTypeUtilProviderImpl implements ArtifactTypeUtilProviderFac
     @Inject
     Instance<ArtifactTypeUtilProvider> providers;
 
+    @Inject
+    CanonicalContentCache canonicalContentCache;
+
     public ArtifactTypeUtilProvider getArtifactTypeProvider(ArtifactType type) {
         return map.computeIfAbsent(type, t ->
             providers.stream()
                      .filter(a -> a.getArtifactType() == t)
                      .findFirst()
+                     .<ArtifactTypeUtilProvider>map(a -> new CachingArtifactTypeUtilProvider(a, canonicalContentCache))
                      .orElseThrow(() -> new IllegalStateException("No such artifact type provider: " + t)));
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.types.provider;
+
+import io.apicurio.registry.content.canon.CanonicalContentCache;
+import io.apicurio.registry.content.canon.ContentCanonicalizer;
+import io.apicurio.registry.content.extract.ContentExtractor;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.validity.ContentValidator;
+import io.apicurio.registry.types.ArtifactType;
+
+/**
+ * Delegates to the actual provider, but memoizes canonicalization in the shared {@link CanonicalContentCache}.
+ */
+class CachingArtifactTypeUtilProvider implements ArtifactTypeUtilProvider {
+    private final ArtifactTypeUtilProvider delegate;
+    private final ContentCanonicalizer canonicalizer;
+
+    CachingArtifactTypeUtilProvider(ArtifactTypeUtilProvider delegate, CanonicalContentCache cache) {
+        this.delegate = delegate;
+        this.canonicalizer = content -> cache.canonicalize(delegate.getArtifactType(), content, delegate.getContentCanonicalizer());
+    }
+
+    @Override
+    public ArtifactType getArtifactType() {
+        return delegate.getArtifactType();
+    }
+
+    @Override
+    public CompatibilityChecker getCompatibilityChecker() {
+        return delegate.getCompatibilityChecker();
+    }
+
+    @Override
+    public ContentCanonicalizer getContentCanonicalizer() {
+        return canonicalizer;
+    }
+
+    @Override
+    public ContentValidator getContentValidator() {
+        return delegate.getContentValidator();
+    }
+
+    @Override
+    public ContentExtractor getContentExtractor() {
+        return delegate.getContentExtractor();
+    }
+}
@@ -18,9 +18,15 @@ package io.apicurio.registry.util;
 
 import java.io.InputStream;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -38,6 +44,13 @@ import io.apicurio.registry.types.ArtifactType;
 public final class ArtifactTypeUtil {
 
     private static final ObjectMapper mapper = new ObjectMapper();
+    private static final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+
+    static {
+        xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
 
     /**
      * Constructor.
@@ -57,6 +70,20 @@ public final class ArtifactTypeUtil {
      * @param contentType
      */
     public static ArtifactType discoverType(ContentHandle content, String contentType) throws InvalidArtifactTypeException {
+        // Cheap detection of the most common (JSON and XML) artifacts, without trying every parser.
+        ArtifactType sniffed = sniffType(content);
+        if (sniffed != null) {
+            return sniffed;
+        }
+        return parseType(content, contentType);
+    }
+
+    /**
+     * The full discovery -- tries the parser of every (supported) format in turn.
+     * @param content
+     * @param contentType
+     */
+    static ArtifactType parseType(ContentHandle content, String contentType) throws InvalidArtifactTypeException {
         boolean triedProto = false;
 
         // If the content-type suggests it's protobuf, try that first.
@@ -133,6 +160,129 @@ public final class ArtifactTypeUtil {
         throw new InvalidArtifactTypeException("Failed to discover artifact type from content.");
     }
 
+    /**
+     * Looks at the first non-whitespace character of the content and, for JSON and XML, streams through
+     * the document (without building a tree) to find the type-specific markers.
+     * @return the artifact type, or null if it can't be decided this way
+     */
+    static ArtifactType sniffType(ContentHandle content) {
+        byte[] bytes = content.bytes();
+        int i = 0;
+        // skip the UTF-8 BOM and leading whitespace
+        if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF) {
+            i = 3;
+        }
+        while (i < bytes.length && Character.isWhitespace(bytes[i])) {
+            i++;
+        }
+        if (i == bytes.length) {
+            return null;
+        }
+        if (bytes[i] == '{') {
+            return sniffJson(bytes);
+        }
+        if (bytes[i] == '<') {
+            return sniffXml(content);
+        }
+        return null;
+    }
+
+    private static ArtifactType sniffJson(byte[] bytes) {
+        boolean openapi = false;
+        boolean asyncapi = false;
+        boolean jsonSchema = false;
+        boolean type = false;
+        try (JsonParser parser = mapper.getFactory().createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "openapi":
+                    case "swagger":
+                        openapi = true;
+                        break;
+                    case "asyncapi":
+                        asyncapi = true;
+                        break;
+                    case "$schema":
+                        jsonSchema = value == JsonToken.VALUE_STRING && parser.getText().contains("json-schema.org");
+                        break;
+                    case "type":
+                        type = true;
+                        break;
+                    default:
+                        break;
+                }
+                parser.skipChildren();
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                return null;
+            }
+        } catch (Exception e) {
+            // Not (valid) JSON, let the full discovery decide.
+            return null;
+        }
+
+        if (openapi) {
+            return ArtifactType.OPENAPI;
+        }
+        if (asyncapi) {
+            return ArtifactType.ASYNCAPI;
+        }
+        if (jsonSchema) {
+            return ArtifactType.JSON;
+        }
+        if (type) {
+            return ArtifactType.AVRO;
+        }
+        return null;
+    }
+
+    private static ArtifactType sniffXml(ContentHandle content) {
+        XMLStreamReader reader = null;
+        try (InputStream stream = content.stream()) {
+            reader = xmlInputFactory.createXMLStreamReader(stream);
+            String ns = null;
+            boolean root = true;
+            // read the whole document, so that it's only reported as XML when it's well-formed
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.DTD || event == XMLStreamConstants.ENTITY_REFERENCE) {
+                    // DTDs (and their entities) are only supported by the DOM parser
+                    return null;
+                }
+                if (event == XMLStreamConstants.START_ELEMENT && root) {
+                    ns = reader.getNamespaceURI();
+                    root = false;
+                }
+            }
+            if (root) {
+                return null;
+            }
+            if ("http://www.w3.org/2001/XMLSchema".equals(ns)) {
+                return ArtifactType.XSD;
+            } else if ("http://schemas.xmlsoap.org/wsdl/".equals(ns) || "http://www.w3.org/ns/wsdl/".equals(ns)) {
+                return ArtifactType.WSDL;
+            } else {
+                return ArtifactType.XML;
+            }
+        } catch (Exception e) {
+            // Not (valid) XML, let the full discovery decide.
+            return null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
     private static ArtifactType tryProto(ContentHandle content) {
         try {
             ProtobufFile.toProtoFileElement(content.content());
@@ -22,8 +22,12 @@ import io.apicurio.registry.rest.beans.SortOrder;
 import io.apicurio.registry.storage.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.ArtifactVersionMetaDataDto;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 /**
  * @author Ales Justin
@@ -47,6 +51,27 @@ public class SearchUtil {
         return sortOrder == SortOrder.desc ? name2.compareToIgnoreCase(name1) : name1.compareToIgnoreCase(name2);
     }
 
+    /**
+     * Selects a keyset page from an unordered stream of ids: the (at most) limit smallest ids
+     * after the given one, in ascending order.  Only the page itself is kept in memory.
+     * @param ids the ids, in any order
+     * @param after the last id of the previous page, or null for the first page
+     * @param limit the page size
+     */
+    public static List<String> page(Stream<String> ids, String after, int limit) {
+        TreeSet<String> page = new TreeSet<>();
+        if (limit > 0) {
+            ids.filter(id -> after == null || id.compareTo(after) > 0).forEach(id -> {
+                if (page.size() < limit) {
+                    page.add(id);
+                } else if (id.compareTo(page.last()) < 0 && page.add(id)) {
+                    page.pollLast();
+                }
+            });
+        }
+        return new ArrayList<>(page);
+    }
+
     public static SearchedArtifact buildSearchedArtifact(ArtifactMetaDataDto artifactMetaData) {
         final SearchedArtifact searchedArtifact = new SearchedArtifact();
         searchedArtifact.setId(artifactMetaData.getId());
@@ -16,8 +16,13 @@
 
 package io.apicurio.registry;
 
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
@@ -26,6 +31,10 @@ import org.apache.kafka.connect.json.JsonConverterConfig;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import io.apicurio.registry.client.RegistryRestClient;
+import io.apicurio.registry.utils.converter.ExtJsonConverter;
+import io.apicurio.registry.utils.converter.json.PrettyFormatStrategy;
+
 /**
  * @author Ales Justin
  */
@@ -54,4 +63,60 @@ public class JsonConverterTest {
         
         converter.close();
     }
+
+    @Test
+    public void testExtJsonConverterRefreshedId() {
+        RegistryRestClient client = (RegistryRestClient) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class[]{RegistryRestClient.class},
+            (proxy, method, args) -> {
+                throw new UnsupportedOperationException(method.getName());
+            }
+        );
+
+        // the id strategy caches and refreshes the global id (e.g. CheckPeriodIdStrategy), here it's simply changed
+        AtomicLong currentId = new AtomicLong(1);
+        AtomicInteger artifactIds = new AtomicInteger();
+        List<String> schemas = new ArrayList<>();
+        try (ExtJsonConverter converter = new ExtJsonConverter(client)) {
+            converter.configure(Collections.emptyMap(), false);
+            converter.setArtifactIdStrategy((topic, isKey, schema) -> {
+                artifactIds.incrementAndGet();
+                return topic + "-value";
+            });
+            converter.setGlobalIdStrategy((c, artifactId, artifactType, schema, cache) -> {
+                schemas.add(schema);
+                return currentId.get();
+            });
+
+            org.apache.kafka.connect.data.Schema sc = SchemaBuilder.struct()
+                                                                   .field("bar", org.apache.kafka.connect.data.Schema.STRING_SCHEMA)
+                                                                   .build();
+            Struct struct = new Struct(sc);
+            struct.put("bar", "somebar");
+
+            PrettyFormatStrategy format = new PrettyFormatStrategy();
+            byte[] bytes = converter.fromConnectData("qwerty123", sc, struct);
+            Assertions.assertEquals(1, format.toConnectData(bytes).getGlobalId());
+
+            // the schema conversion is cached, but the refreshed id is picked up
+            currentId.set(2);
+            bytes = converter.fromConnectData("qwerty123", sc, struct);
+            Assertions.assertEquals(2, format.toConnectData(bytes).getGlobalId());
+
+            Assertions.assertEquals(1, artifactIds.get());
+            Assertions.assertEquals(2, schemas.size());
+            Assertions.assertSame(schemas.get(0), schemas.get(1));
+
+            // another schema instance is converted again
+            org.apache.kafka.connect.data.Schema copy = SchemaBuilder.struct()
+                                                                     .field("bar", org.apache.kafka.connect.data.Schema.STRING_SCHEMA)
+                                                                     .build();
+            Struct other = new Struct(copy);
+            other.put("bar", "otherbar");
+            converter.fromConnectData("qwerty123", copy, other);
+            Assertions.assertEquals(2, artifactIds.get());
+            Assertions.assertEquals(schemas.get(0), schemas.get(2));
+        }
+    }
 }
\ No newline at end of file
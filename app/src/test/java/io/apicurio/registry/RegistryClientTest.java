@@ -18,6 +18,10 @@
 package io.apicurio.registry;
 
 import io.apicurio.registry.client.RegistryRestClient;
+import io.apicurio.registry.client.RegistryRestClientAsync;
+import io.apicurio.registry.client.RegistryRestClientFactory;
+import io.apicurio.registry.client.exception.ArtifactNotFoundException;
+import io.apicurio.registry.client.request.RestClientConfig;
 import io.apicurio.registry.rest.beans.ArtifactMetaData;
 import io.apicurio.registry.rest.beans.ArtifactSearchResults;
 import io.apicurio.registry.rest.beans.EditableMetaData;
@@ -42,7 +46,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
@@ -87,6 +93,52 @@ public class RegistryClientTest extends AbstractResourceTestBase {
         }
     }
 
+    @Test
+    public void testAsyncClient() throws Exception {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(RestClientConfig.REGISTRY_REQUEST_MAX_REQUESTS, 4);
+        configs.put(RestClientConfig.REGISTRY_REQUEST_MAX_REQUESTS_PER_HOST, 2);
+        configs.put(RestClientConfig.REGISTRY_REQUEST_POOL_MAX_IDLE, 2);
+
+        String artifactId = generateArtifactId();
+        try (RegistryRestClientAsync asyncClient = RegistryRestClientFactory.createAsync(registryUrl, configs)) {
+            ByteArrayInputStream stream = new ByteArrayInputStream("{\"name\":\"redhat\"}".getBytes(StandardCharsets.UTF_8));
+            ArtifactMetaData amd = asyncClient.createArtifact(artifactId, ArtifactType.JSON, stream).toCompletableFuture().get();
+            Assertions.assertEquals(artifactId, amd.getId());
+            this.waitForGlobalId(amd.getGlobalId());
+
+            // fan out more lookups than the dispatcher runs at once, none of them blocks a thread
+            List<CompletableFuture<ArtifactMetaData>> lookups = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                lookups.add(asyncClient.getArtifactMetaDataByGlobalId(amd.getGlobalId()).toCompletableFuture());
+            }
+            CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0])).get();
+            for (CompletableFuture<ArtifactMetaData> lookup : lookups) {
+                Assertions.assertEquals(artifactId, lookup.get().getId());
+            }
+
+            VersionMetaData vmd = asyncClient.createArtifactVersion(artifactId, ArtifactType.JSON,
+                    new ByteArrayInputStream("{\"name\":\"ibm\"}".getBytes(StandardCharsets.UTF_8))).toCompletableFuture().get();
+            Assertions.assertEquals(2, vmd.getVersion());
+            retry(() -> {
+                List<Long> versions = asyncClient.listArtifactVersions(artifactId).toCompletableFuture().get();
+                Assertions.assertEquals(Arrays.asList(1L, 2L), versions);
+            });
+
+            // errors are mapped to the same exceptions the blocking client throws
+            ExecutionException error = Assertions.assertThrows(ExecutionException.class,
+                () -> asyncClient.getArtifactMetaData(generateArtifactId()).toCompletableFuture().get());
+            Assertions.assertTrue(error.getCause() instanceof ArtifactNotFoundException, String.valueOf(error.getCause()));
+
+            asyncClient.deleteArtifact(artifactId).toCompletableFuture().get();
+            retry(() -> {
+                ExecutionException deleted = Assertions.assertThrows(ExecutionException.class,
+                    () -> asyncClient.getArtifactMetaData(artifactId).toCompletableFuture().get());
+                Assertions.assertTrue(deleted.getCause() instanceof ArtifactNotFoundException, String.valueOf(deleted.getCause()));
+            });
+        }
+    }
+
     @Test
     void testSearchArtifact() throws Exception {
         // warm-up
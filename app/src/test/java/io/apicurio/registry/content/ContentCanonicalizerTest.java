@@ -17,13 +17,20 @@
 package io.apicurio.registry.content;
 
 import io.apicurio.registry.AbstractRegistryTestBase;
+import io.apicurio.registry.content.canon.CanonicalContentCache;
 import io.apicurio.registry.content.canon.ContentCanonicalizer;
+import io.apicurio.registry.metrics.MetricIDs;
 import io.apicurio.registry.types.ArtifactType;
 import io.apicurio.registry.types.provider.ArtifactTypeUtilProvider;
 import io.apicurio.registry.types.provider.ArtifactTypeUtilProviderFactory;
 import io.quarkus.test.junit.QuarkusTest;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Inject;
 
 /**
@@ -36,6 +43,13 @@ public class ContentCanonicalizerTest extends AbstractRegistryTestBase {
     @Inject
     ArtifactTypeUtilProviderFactory factory;
 
+    @Inject
+    CanonicalContentCache cache;
+
+    @Inject
+    @RegistryType(type = MetricRegistry.Type.APPLICATION)
+    MetricRegistry metricRegistry;
+
     private ContentCanonicalizer getContentCanonicalizer(ArtifactType type) {
         ArtifactTypeUtilProvider provider = factory.getArtifactTypeProvider(type);
         return provider.getContentCanonicalizer();
@@ -206,4 +220,44 @@ public class ContentCanonicalizerTest extends AbstractRegistryTestBase {
          String actual = canonicalizer.canonicalize(content).content();
          Assertions.assertEquals(expected, actual);
       }
+
+    @Test
+    void testCanonicalCache() {
+        String before = "{\"type\": \"record\", \"name\": \"CacheTest\", \"fields\": [{\"name\": \"b\", \"type\": \"string\"}, {\"name\": \"a\", \"type\": \"int\"}]}";
+        String expected = "{\"fields\":[{\"name\":\"a\",\"type\":\"int\"},{\"name\":\"b\",\"type\":\"string\"}],\"name\":\"CacheTest\",\"type\":\"record\"}";
+
+        ContentCanonicalizer avro = factory.getArtifactTypeProvider(ArtifactType.AVRO).getContentCanonicalizer();
+        AtomicInteger calls = new AtomicInteger();
+        ContentCanonicalizer counting = content -> {
+            calls.incrementAndGet();
+            return avro.canonicalize(content);
+        };
+        long hits = count(MetricIDs.CANONICAL_CACHE_HIT_COUNT);
+        long misses = count(MetricIDs.CANONICAL_CACHE_MISS_COUNT);
+
+        // the raw content is only canonicalized once, whatever handle it comes in
+        ContentHandle first = cache.canonicalize(ArtifactType.AVRO, ContentHandle.create(before), counting);
+        ContentHandle second = cache.canonicalize(ArtifactType.AVRO, ContentHandle.create(before.getBytes()), counting);
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(expected, first.content());
+        Assertions.assertEquals(expected, second.content());
+        Assertions.assertEquals(expected, second.content());
+
+        // the artifact type is part of the key
+        cache.canonicalize(ArtifactType.JSON, ContentHandle.create(before), counting);
+        Assertions.assertEquals(2, calls.get());
+
+        Assertions.assertTrue(count(MetricIDs.CANONICAL_CACHE_HIT_COUNT) >= hits + 1);
+        Assertions.assertTrue(count(MetricIDs.CANONICAL_CACHE_MISS_COUNT) >= misses + 2);
+
+        // the providers go through the same cache
+        Assertions.assertEquals(expected, avro.canonicalize(ContentHandle.create(before)).content());
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    private long count(String name) {
+        return metricRegistry.getCounters((id, metric) -> id.getName().equals(name)).values().stream()
+                .mapToLong(Counter::getCount)
+                .sum();
+    }
 }
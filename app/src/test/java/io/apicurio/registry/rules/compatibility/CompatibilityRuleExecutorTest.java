@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.rules.compatibility;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.rules.RuleContext;
+import io.apicurio.registry.rules.RuleViolationException;
+import io.apicurio.registry.storage.ArtifactVersionMetaDataDto;
+import io.apicurio.registry.storage.RegistryStorage;
+import io.apicurio.registry.storage.StoredArtifact;
+import io.apicurio.registry.types.ArtifactState;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.types.provider.AvroArtifactTypeUtilProvider;
+import io.apicurio.registry.types.provider.ProtobufArtifactTypeUtilProvider;
+
+public class CompatibilityRuleExecutorTest {
+
+    private static final String ARTIFACT_ID = "compatibility-test";
+
+    private static final String AVRO_F1 = record("{\"name\":\"f1\",\"type\":\"string\"}");
+    private static final String AVRO_F1_F2_DEFAULT = record("{\"name\":\"f1\",\"type\":\"string\"},{\"name\":\"f2\",\"type\":\"string\",\"default\":\"d\"}");
+    private static final String AVRO_F1_F2 = record("{\"name\":\"f1\",\"type\":\"string\"},{\"name\":\"f2\",\"type\":\"string\"}");
+
+    private static final String PROTO_A = "syntax = \"proto3\";\nmessage Msg {\n  string a = 1;\n}\n";
+    private static final String PROTO_A_B = "syntax = \"proto3\";\nmessage Msg {\n  string a = 1;\n  string b = 2;\n}\n";
+
+    private final Map<Long, String> versions = new TreeMap<>();
+    private final Map<Long, ArtifactState> states = new TreeMap<>();
+
+    private CompatibilityRuleExecutor executor;
+
+    @BeforeEach
+    public void createExecutor() {
+        executor = new CompatibilityRuleExecutor();
+        executor.factory = type -> type == ArtifactType.PROTOBUF ? new ProtobufArtifactTypeUtilProvider() : new AvroArtifactTypeUtilProvider();
+        executor.storage = storage();
+    }
+
+    @Test
+    public void testBackwardTransitive() {
+        addVersion(AVRO_F1);
+        addVersion(AVRO_F1_F2_DEFAULT);
+
+        // new readers of f2 (without a default) can read v2 data, but not v1 data
+        execute(ArtifactType.AVRO, CompatibilityLevel.BACKWARD, AVRO_F1_F2);
+        assertIncompatible(ArtifactType.AVRO, CompatibilityLevel.BACKWARD_TRANSITIVE, AVRO_F1_F2);
+        execute(ArtifactType.AVRO, CompatibilityLevel.BACKWARD_TRANSITIVE, AVRO_F1_F2_DEFAULT);
+
+        // disabled versions are not served, so nothing has to stay compatible with them
+        states.put(1L, ArtifactState.DISABLED);
+        execute(ArtifactType.AVRO, CompatibilityLevel.BACKWARD_TRANSITIVE, AVRO_F1_F2);
+    }
+
+    @Test
+    public void testForwardTransitive() {
+        addVersion(AVRO_F1_F2);
+        addVersion(AVRO_F1_F2_DEFAULT);
+
+        // v2 readers default the removed f2, v1 readers can't
+        execute(ArtifactType.AVRO, CompatibilityLevel.FORWARD, AVRO_F1);
+        assertIncompatible(ArtifactType.AVRO, CompatibilityLevel.FORWARD_TRANSITIVE, AVRO_F1);
+        execute(ArtifactType.AVRO, CompatibilityLevel.FORWARD_TRANSITIVE, AVRO_F1_F2_DEFAULT);
+
+        states.put(1L, ArtifactState.DISABLED);
+        execute(ArtifactType.AVRO, CompatibilityLevel.FORWARD_TRANSITIVE, AVRO_F1);
+    }
+
+    @Test
+    public void testVerifiedPairs() {
+        addVersion(AVRO_F1);
+        addVersion(AVRO_F1_F2_DEFAULT);
+        execute(ArtifactType.AVRO, CompatibilityLevel.BACKWARD_TRANSITIVE, AVRO_F1_F2_DEFAULT);
+
+        // only compatible pairs are remembered, so an incompatible update keeps failing
+        assertIncompatible(ArtifactType.AVRO, CompatibilityLevel.BACKWARD_TRANSITIVE, AVRO_F1_F2);
+        assertIncompatible(ArtifactType.AVRO, CompatibilityLevel.BACKWARD_TRANSITIVE, AVRO_F1_F2);
+        execute(ArtifactType.AVRO, CompatibilityLevel.BACKWARD_TRANSITIVE, AVRO_F1_F2_DEFAULT);
+    }
+
+    @Test
+    public void testProtobufBackwardTransitive() {
+        addVersion(PROTO_A);
+        addVersion(PROTO_A_B);
+
+        // removing b (without reserving it) is fine for v1, but not for v2
+        assertIncompatible(ArtifactType.PROTOBUF, CompatibilityLevel.BACKWARD_TRANSITIVE, PROTO_A);
+        execute(ArtifactType.PROTOBUF, CompatibilityLevel.BACKWARD_TRANSITIVE, PROTO_A_B);
+
+        // the checker itself must look at all the versions, not just the first one
+        ProtobufCompatibilityChecker checker = new ProtobufCompatibilityChecker();
+        List<String> existing = Arrays.asList(PROTO_A, PROTO_A_B);
+        Assertions.assertFalse(checker.testCompatibility(CompatibilityLevel.BACKWARD_TRANSITIVE, existing, PROTO_A).isCompatible());
+        Assertions.assertTrue(checker.testCompatibility(CompatibilityLevel.BACKWARD_TRANSITIVE, existing, PROTO_A_B).isCompatible());
+        Assertions.assertTrue(checker.testCompatibility(CompatibilityLevel.BACKWARD_TRANSITIVE, Collections.singletonList(PROTO_A), PROTO_A).isCompatible());
+    }
+
+    private static String record(String fields) {
+        return "{\"type\":\"record\",\"name\":\"rec\",\"fields\":[" + fields + "]}";
+    }
+
+    private void addVersion(String content) {
+        long version = versions.size() + 1;
+        versions.put(version, content);
+        states.put(version, ArtifactState.ENABLED);
+    }
+
+    private void execute(ArtifactType type, CompatibilityLevel level, String updated) {
+        String latest = null;
+        for (Map.Entry<Long, String> entry : versions.entrySet()) {
+            if (states.get(entry.getKey()) != ArtifactState.DISABLED) {
+                latest = entry.getValue();
+            }
+        }
+        executor.execute(new RuleContext(ARTIFACT_ID, type, level.name(), ContentHandle.create(latest), ContentHandle.create(updated)));
+    }
+
+    private void assertIncompatible(ArtifactType type, CompatibilityLevel level, String updated) {
+        Assertions.assertThrows(RuleViolationException.class, () -> execute(type, level, updated));
+    }
+
+    private RegistryStorage storage() {
+        return (RegistryStorage) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{RegistryStorage.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getArtifactVersions":
+                    return new TreeSet<>(versions.keySet());
+                case "getArtifactVersionMetaData": {
+                    long version = (Long) args[1];
+                    ArtifactVersionMetaDataDto dto = new ArtifactVersionMetaDataDto();
+                    dto.setVersion((int) version);
+                    dto.setState(states.get(version));
+                    return dto;
+                }
+                case "getArtifactVersion": {
+                    long version = (Long) args[1];
+                    return StoredArtifact.builder()
+                            .version(version)
+                            .globalId(version)
+                            .content(ContentHandle.create(versions.get(version)))
+                            .build();
+                }
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
@@ -16,6 +16,7 @@
 
 package io.apicurio.registry.storage;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -110,6 +111,22 @@ public abstract class AbstractRegistryStorageTest extends AbstractResourceTestBa
         Assertions.assertNotNull(ids);
         Assertions.assertEquals(10, ids.size());
     }
+
+    @Test
+    public void testGetArtifactIdsPage() throws Exception {
+        String artifactIdPrefix = "testGetArtifactIdsPage-";
+        for (int idx = 1; idx <= 5; idx++) {
+            ContentHandle content = ContentHandle.create(OPENAPI_CONTENT);
+            storage().createArtifact(artifactIdPrefix + idx, ArtifactType.OPENAPI, content).toCompletableFuture().get();
+        }
+
+        List<String> page = storage().getArtifactIds(artifactIdPrefix, 3);
+        Assertions.assertEquals(Arrays.asList(artifactIdPrefix + 1, artifactIdPrefix + 2, artifactIdPrefix + 3), page);
+
+        page = storage().getArtifactIds(page.get(2), 3);
+        Assertions.assertEquals(artifactIdPrefix + 4, page.get(0));
+        Assertions.assertEquals(artifactIdPrefix + 5, page.get(1));
+    }
     
     @Test
     public void testCreateArtifact() throws Exception {
@@ -631,6 +648,57 @@ public abstract class AbstractRegistryStorageTest extends AbstractResourceTestBa
         });
     }
 
+    @Test
+    public void testGetArtifactVersionMetaDataByContent() throws Exception {
+        String artifactId = "testGetArtifactVersionMetaDataByContent-1";
+        ContentHandle content = ContentHandle.create(OPENAPI_CONTENT);
+        ArtifactMetaDataDto dto = storage().createArtifact(artifactId, ArtifactType.OPENAPI, content).toCompletableFuture().get();
+        Assertions.assertEquals(1, dto.getVersion());
+        ContentHandle contentv2 = ContentHandle.create(OPENAPI_CONTENT_V2);
+        ArtifactMetaDataDto dtov2 = storage().updateArtifact(artifactId, ArtifactType.OPENAPI, contentv2).toCompletableFuture().get();
+        Assertions.assertEquals(2, dtov2.getVersion());
+
+        // the same content, formatted differently
+        ContentHandle reformatted = ContentHandle.create(OPENAPI_CONTENT.replace("    ", "\n  "));
+
+        // non-canonical -- only the exact content matches
+        ArtifactVersionMetaDataDto vmd = storage().getArtifactVersionMetaData(artifactId, false, content);
+        Assertions.assertEquals(1, vmd.getVersion());
+        Assertions.assertEquals(dto.getGlobalId(), vmd.getGlobalId());
+        vmd = storage().getArtifactVersionMetaData(artifactId, false, contentv2);
+        Assertions.assertEquals(2, vmd.getVersion());
+        Assertions.assertThrows(ArtifactNotFoundException.class, () -> {
+            storage().getArtifactVersionMetaData(artifactId, false, reformatted);
+        });
+
+        // canonical -- the reformatted content matches as well
+        vmd = storage().getArtifactVersionMetaData(artifactId, true, content);
+        Assertions.assertEquals(1, vmd.getVersion());
+        vmd = storage().getArtifactVersionMetaData(artifactId, true, reformatted);
+        Assertions.assertEquals(1, vmd.getVersion());
+        vmd = storage().getArtifactVersionMetaData(artifactId, true, contentv2);
+        Assertions.assertEquals(2, vmd.getVersion());
+
+        // a deleted version is no longer found by its content
+        storage().deleteArtifactVersion(artifactId, 2);
+        Assertions.assertThrows(ArtifactNotFoundException.class, () -> {
+            storage().getArtifactVersionMetaData(artifactId, false, contentv2);
+        });
+        Assertions.assertThrows(ArtifactNotFoundException.class, () -> {
+            storage().getArtifactVersionMetaData(artifactId, true, contentv2);
+        });
+        vmd = storage().getArtifactVersionMetaData(artifactId, true, reformatted);
+        Assertions.assertEquals(1, vmd.getVersion());
+
+        // the same content in another artifact is indexed by that artifact
+        String otherId = "testGetArtifactVersionMetaDataByContent-2";
+        ArtifactMetaDataDto other = storage().createArtifact(otherId, ArtifactType.OPENAPI, ContentHandle.create(OPENAPI_CONTENT)).toCompletableFuture().get();
+        vmd = storage().getArtifactVersionMetaData(artifactId, false, content);
+        Assertions.assertEquals(dto.getGlobalId(), vmd.getGlobalId());
+        vmd = storage().getArtifactVersionMetaData(otherId, true, reformatted);
+        Assertions.assertEquals(other.getGlobalId(), vmd.getGlobalId());
+    }
+
     @Test
     public void testDeleteArtifactVersionMetaData() throws Exception {
         String artifactId = "testDeleteArtifactVersionMetaData-1";
@@ -24,6 +24,9 @@ import io.apicurio.registry.storage.InvalidArtifactTypeException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 /**
  * @author eric.wittmann@gmail.com
  */
@@ -146,4 +149,112 @@ class ArtifactTypeUtilTest extends AbstractRegistryTestBase {
         Assertions.assertEquals(ArtifactType.WSDL, type);
     }
 
+    /**
+     * The sniffed type of every test resource matches the full discovery.
+     */
+    @Test
+    void testSniffType_MatchesParseType() {
+        String[] resources = {"asyncapi.json", "avro.json", "example.graphql", "example.txt", "json-schema.json",
+            "openapi.json", "protobuf.proto", "swagger.json", "wsdl-2.0.wsdl", "wsdl.wsdl", "xml-schema.xsd", "xml.xml"};
+        for (String resource : resources) {
+            ArtifactType expected = parsedType(resourceToContentHandle(resource));
+            ArtifactType sniffed = ArtifactTypeUtil.sniffType(resourceToContentHandle(resource));
+            Assertions.assertTrue(sniffed == null || sniffed == expected, resource + ": " + sniffed + " != " + expected);
+        }
+        Assertions.assertEquals(ArtifactType.ASYNCAPI, ArtifactTypeUtil.sniffType(resourceToContentHandle("asyncapi.json")));
+        Assertions.assertEquals(ArtifactType.AVRO, ArtifactTypeUtil.sniffType(resourceToContentHandle("avro.json")));
+        Assertions.assertEquals(ArtifactType.JSON, ArtifactTypeUtil.sniffType(resourceToContentHandle("json-schema.json")));
+        Assertions.assertEquals(ArtifactType.OPENAPI, ArtifactTypeUtil.sniffType(resourceToContentHandle("openapi.json")));
+        Assertions.assertEquals(ArtifactType.XSD, ArtifactTypeUtil.sniffType(resourceToContentHandle("xml-schema.xsd")));
+        Assertions.assertEquals(ArtifactType.XML, ArtifactTypeUtil.sniffType(resourceToContentHandle("xml.xml")));
+        Assertions.assertNull(ArtifactTypeUtil.sniffType(resourceToContentHandle("protobuf.proto")));
+        Assertions.assertNull(ArtifactTypeUtil.sniffType(resourceToContentHandle("example.graphql")));
+    }
+
+    @Test
+    void testSniffType_JsonBomAndWhitespace() {
+        byte[] json = resourceToString("openapi.json").getBytes(StandardCharsets.UTF_8);
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, ' ', '\n', '\t'};
+        byte[] bytes = Arrays.copyOf(bom, bom.length + json.length);
+        System.arraycopy(json, 0, bytes, bom.length, json.length);
+        Assertions.assertEquals(ArtifactType.OPENAPI, ArtifactTypeUtil.sniffType(ContentHandle.create(bytes)));
+        Assertions.assertEquals(ArtifactType.OPENAPI, ArtifactTypeUtil.discoverType(ContentHandle.create(bytes), null));
+
+        ContentHandle content = ContentHandle.create(" \r\n {\"type\": \"string\"}");
+        Assertions.assertEquals(ArtifactType.AVRO, ArtifactTypeUtil.sniffType(content));
+        Assertions.assertEquals(parsedType(content), ArtifactTypeUtil.discoverType(content, null));
+    }
+
+    @Test
+    void testSniffType_JsonWithoutMarkers() {
+        // nested markers don't count, the full discovery decides
+        ContentHandle content = ContentHandle.create("{\"name\": \"test\", \"fields\": {\"type\": \"record\", \"openapi\": \"3.0.2\"}}");
+        Assertions.assertNull(ArtifactTypeUtil.sniffType(content));
+        Assertions.assertThrows(InvalidArtifactTypeException.class, () -> ArtifactTypeUtil.parseType(content, null));
+        Assertions.assertThrows(InvalidArtifactTypeException.class, () -> ArtifactTypeUtil.discoverType(content, null));
+
+        // not an object
+        ContentHandle array = ContentHandle.create("[{\"type\": \"string\"}]");
+        Assertions.assertNull(ArtifactTypeUtil.sniffType(array));
+    }
+
+    @Test
+    void testSniffType_NonStringSchema() {
+        ContentHandle content = ContentHandle.create("{\"$schema\": 42, \"type\": \"object\"}");
+        Assertions.assertEquals(ArtifactType.AVRO, ArtifactTypeUtil.sniffType(content));
+        Assertions.assertEquals(parsedType(content), ArtifactTypeUtil.sniffType(content));
+
+        ContentHandle object = ContentHandle.create("{\"$schema\": {\"id\": \"http://json-schema.org/draft-07/schema#\"}}");
+        Assertions.assertNull(ArtifactTypeUtil.sniffType(object));
+        Assertions.assertThrows(InvalidArtifactTypeException.class, () -> ArtifactTypeUtil.discoverType(object, null));
+
+        ContentHandle schema = ContentHandle.create("{\"type\": \"object\", \"$schema\": \"http://json-schema.org/draft-07/schema#\"}");
+        Assertions.assertEquals(ArtifactType.JSON, ArtifactTypeUtil.sniffType(schema));
+        Assertions.assertEquals(parsedType(schema), ArtifactTypeUtil.sniffType(schema));
+    }
+
+    @Test
+    void testSniffType_XmlDoctype() {
+        ContentHandle doctype = ContentHandle.create("<?xml version=\"1.0\"?>\n"
+            + "<!DOCTYPE note [<!ENTITY writer \"Someone\">]>\n"
+            + "<note xmlns=\"http://www.w3.org/2001/XMLSchema\">&writer;</note>");
+        Assertions.assertNull(ArtifactTypeUtil.sniffType(doctype));
+        Assertions.assertEquals(ArtifactType.XSD, ArtifactTypeUtil.discoverType(doctype, null));
+
+        ContentHandle entity = ContentHandle.create("<note>&undeclared;</note>");
+        Assertions.assertNull(ArtifactTypeUtil.sniffType(entity));
+        Assertions.assertThrows(InvalidArtifactTypeException.class, () -> ArtifactTypeUtil.discoverType(entity, null));
+
+        ContentHandle predefined = ContentHandle.create("<note>&lt;&amp;&gt;</note>");
+        Assertions.assertEquals(ArtifactType.XML, ArtifactTypeUtil.sniffType(predefined));
+        Assertions.assertEquals(parsedType(predefined), ArtifactTypeUtil.sniffType(predefined));
+    }
+
+    @Test
+    void testSniffType_Wsdl20() {
+        ContentHandle content = ContentHandle.create("<description xmlns=\"http://www.w3.org/ns/wsdl/\"><types/></description>");
+        Assertions.assertEquals(ArtifactType.WSDL, ArtifactTypeUtil.sniffType(content));
+        Assertions.assertEquals(parsedType(content), ArtifactTypeUtil.sniffType(content));
+        Assertions.assertEquals(ArtifactType.WSDL, ArtifactTypeUtil.sniffType(resourceToContentHandle("wsdl-2.0.wsdl")));
+    }
+
+    @Test
+    void testSniffType_MalformedXml() {
+        ContentHandle unclosed = ContentHandle.create("<note><to>Someone</note>");
+        Assertions.assertNull(ArtifactTypeUtil.sniffType(unclosed));
+        Assertions.assertThrows(InvalidArtifactTypeException.class, () -> ArtifactTypeUtil.discoverType(unclosed, null));
+
+        ContentHandle trailing = ContentHandle.create("<note/><note/>");
+        Assertions.assertNull(ArtifactTypeUtil.sniffType(trailing));
+        Assertions.assertThrows(InvalidArtifactTypeException.class, () -> ArtifactTypeUtil.discoverType(trailing, null));
+    }
+
+    private static ArtifactType parsedType(ContentHandle content) {
+        try {
+            return ArtifactTypeUtil.parseType(content, null);
+        } catch (InvalidArtifactTypeException e) {
+            return null;
+        }
+    }
+
 }
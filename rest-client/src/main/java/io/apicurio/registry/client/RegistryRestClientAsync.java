@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.apicurio.registry.client;
+
+import io.apicurio.registry.rest.beans.ArtifactMetaData;
+import io.apicurio.registry.rest.beans.ArtifactSearchResults;
+import io.apicurio.registry.rest.beans.EditableMetaData;
+import io.apicurio.registry.rest.beans.IfExistsType;
+import io.apicurio.registry.rest.beans.Rule;
+import io.apicurio.registry.rest.beans.SearchOver;
+import io.apicurio.registry.rest.beans.SortOrder;
+import io.apicurio.registry.rest.beans.UpdateState;
+import io.apicurio.registry.rest.beans.VersionMetaData;
+import io.apicurio.registry.rest.beans.VersionSearchResults;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.types.RuleType;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking counterpart of {@link RegistryRestClient}.  Every operation returns immediately, the
+ * returned stage is completed by an OkHttp dispatcher thread once the response has been received.
+ * Failures complete the stage exceptionally with the same exceptions the blocking client throws
+ * (e.g. {@link io.apicurio.registry.client.exception.ArtifactNotFoundException}).
+ * Callbacks should not block, or they will hold up the dispatcher.
+ */
+public interface RegistryRestClientAsync extends AutoCloseable {
+
+    CompletionStage<List<String>> listArtifacts();
+
+    CompletionStage<ArtifactMetaData> createArtifact(InputStream data);
+
+    CompletionStage<ArtifactMetaData> createArtifact(String artifactId, ArtifactType artifactType, InputStream data);
+
+    CompletionStage<ArtifactMetaData> createArtifact(String artifactId, ArtifactType artifactType, InputStream data, IfExistsType ifExists, Boolean canonical);
+
+    CompletionStage<InputStream> getLatestArtifact(String artifactId);
+
+    CompletionStage<ArtifactMetaData> updateArtifact(String artifactId, ArtifactType artifactType, InputStream data);
+
+    CompletionStage<Void> deleteArtifact(String artifactId);
+
+    CompletionStage<Void> updateArtifactState(String artifactId, UpdateState newState);
+
+    CompletionStage<ArtifactMetaData> getArtifactMetaData(String artifactId);
+
+    CompletionStage<Void> updateArtifactMetaData(String artifactId, EditableMetaData metaData);
+
+    CompletionStage<ArtifactMetaData> getArtifactMetaDataByContent(String artifactId, Boolean canonical, InputStream data);
+
+    CompletionStage<List<Long>> listArtifactVersions(String artifactId);
+
+    CompletionStage<VersionMetaData> createArtifactVersion(String artifactId, ArtifactType artifactType, InputStream data);
+
+    CompletionStage<InputStream> getArtifactVersion(String artifactId, Integer version);
+
+    CompletionStage<Void> updateArtifactVersionState(String artifactId, Integer version, UpdateState newState);
+
+    CompletionStage<VersionMetaData> getArtifactVersionMetaData(String artifactId, Integer version);
+
+    CompletionStage<Void> updateArtifactVersionMetaData(String artifactId, Integer version, EditableMetaData metaData);
+
+    CompletionStage<Void> deleteArtifactVersionMetaData(String artifactId, Integer version);
+
+    CompletionStage<List<RuleType>> listArtifactRules(String artifactId);
+
+    CompletionStage<Void> createArtifactRule(String artifactId, Rule ruleConfig);
+
+    CompletionStage<Void> deleteArtifactRules(String artifactId);
+
+    CompletionStage<Rule> getArtifactRuleConfig(String artifactId, RuleType ruleType);
+
+    CompletionStage<Rule> updateArtifactRuleConfig(String artifactId, RuleType ruleType, Rule ruleConfig);
+
+    CompletionStage<Void> deleteArtifactRule(String artifactId, RuleType ruleType);
+
+    CompletionStage<Void> testUpdateArtifact(String artifactId, ArtifactType artifactType, InputStream data);
+
+    CompletionStage<InputStream> getArtifactByGlobalId(long globalId);
+
+    CompletionStage<ArtifactMetaData> getArtifactMetaDataByGlobalId(long globalId);
+
+    CompletionStage<Rule> getGlobalRuleConfig(RuleType ruleType);
+
+    CompletionStage<Rule> updateGlobalRuleConfig(RuleType ruleType, Rule data);
+
+    CompletionStage<Void> deleteGlobalRule(RuleType ruleType);
+
+    CompletionStage<List<RuleType>> listGlobalRules();
+
+    CompletionStage<Void> createGlobalRule(Rule data);
+
+    CompletionStage<Void> deleteAllGlobalRules();
+
+    CompletionStage<ArtifactSearchResults> searchArtifacts(String search, SearchOver over, SortOrder order, Integer offset, Integer limit);
+
+    CompletionStage<VersionSearchResults> searchVersions(String artifactId, Integer offset, Integer limit);
+
+    /**
+     * Sets the headers of the next request issued by the calling thread.
+     */
+    void setNextRequestHeaders(Map<String, String> headers);
+
+    Map<String, String> getHeaders();
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.client;
+
+import static io.apicurio.registry.client.RegistryRestClientImpl.encodeURIComponent;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import io.apicurio.registry.auth.Auth;
+import io.apicurio.registry.client.exception.InvalidArtifactIdException;
+import io.apicurio.registry.client.request.RequestExecutor;
+import io.apicurio.registry.client.service.ArtifactsService;
+import io.apicurio.registry.client.service.IdsService;
+import io.apicurio.registry.client.service.RulesService;
+import io.apicurio.registry.client.service.SearchService;
+import io.apicurio.registry.rest.beans.ArtifactMetaData;
+import io.apicurio.registry.rest.beans.ArtifactSearchResults;
+import io.apicurio.registry.rest.beans.EditableMetaData;
+import io.apicurio.registry.rest.beans.IfExistsType;
+import io.apicurio.registry.rest.beans.Rule;
+import io.apicurio.registry.rest.beans.SearchOver;
+import io.apicurio.registry.rest.beans.SortOrder;
+import io.apicurio.registry.rest.beans.UpdateState;
+import io.apicurio.registry.rest.beans.VersionMetaData;
+import io.apicurio.registry.rest.beans.VersionSearchResults;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.types.RuleType;
+import io.apicurio.registry.utils.ArtifactIdValidator;
+import io.apicurio.registry.utils.IoUtil;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Retrofit;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+
+public class RegistryRestClientAsyncImpl implements RegistryRestClientAsync {
+
+    private final RequestExecutor requestExecutor;
+    private final OkHttpClient httpClient;
+
+    private ArtifactsService artifactsService;
+    private RulesService rulesService;
+    private SearchService searchService;
+    private IdsService idsService;
+    private static final ThreadLocal<Map<String, String>> requestHeaders = ThreadLocal.withInitial(Collections::emptyMap);
+
+    RegistryRestClientAsyncImpl(String baseUrl) {
+        this(baseUrl, Collections.emptyMap());
+    }
+
+    RegistryRestClientAsyncImpl(String baseUrl, Map<String, Object> config) {
+        this(baseUrl, RegistryRestClientImpl.createHttpClientWithConfig(baseUrl, config, null));
+    }
+
+    RegistryRestClientAsyncImpl(String baseUrl, Map<String, Object> config, Auth auth) {
+        this(baseUrl, RegistryRestClientImpl.createHttpClientWithConfig(baseUrl, config, auth));
+    }
+
+    RegistryRestClientAsyncImpl(String baseUrl, OkHttpClient okHttpClient) {
+        if (!baseUrl.endsWith("/")) {
+            baseUrl += "/";
+        }
+
+        this.httpClient = okHttpClient;
+
+        Retrofit retrofit = new Retrofit.Builder()
+                .client(okHttpClient)
+                .addConverterFactory(JacksonConverterFactory.create())
+                .baseUrl(baseUrl)
+                .build();
+
+        this.requestExecutor = new RequestExecutor(requestHeaders);
+
+        artifactsService = retrofit.create(ArtifactsService.class);
+        rulesService = retrofit.create(RulesService.class);
+        idsService = retrofit.create(IdsService.class);
+        searchService = retrofit.create(SearchService.class);
+    }
+
+    @Override
+    public CompletionStage<List<String>> listArtifacts() {
+        return requestExecutor.executeAsync(artifactsService.listArtifacts(requestHeaders.get()));
+    }
+
+    @Override
+    public CompletionStage<ArtifactMetaData> createArtifact(InputStream data) {
+        return this.createArtifact(null, null, data);
+    }
+
+    @Override
+    public CompletionStage<ArtifactMetaData> createArtifact(String artifactId, ArtifactType artifactType, InputStream data) {
+        return this.createArtifact(artifactId, artifactType, data, null, null);
+    }
+
+    @Override
+    public CompletionStage<ArtifactMetaData> createArtifact(String artifactId, ArtifactType artifactType, InputStream data,
+                                           IfExistsType ifExists, Boolean canonical) {
+        if (artifactId != null && !ArtifactIdValidator.isArtifactIdAllowed(artifactId)) {
+            CompletableFuture<ArtifactMetaData> result = new CompletableFuture<>();
+            result.completeExceptionally(new InvalidArtifactIdException());
+            return result;
+        }
+        return requestExecutor.executeAsync(artifactsService.createArtifact(requestHeaders.get(), artifactType, artifactId, ifExists, canonical,
+                RequestBody.create(MediaType.parse("*/*"), IoUtil.toBytes(data))));
+    }
+
+    @Override
+    public CompletionStage<InputStream> getLatestArtifact(String artifactId) {
+        return requestExecutor.executeAsync(artifactsService.getLatestArtifact(requestHeaders.get(), encodeURIComponent(artifactId)))
+                .thenApply(ResponseBody::byteStream);
+    }
+
+    @Override
+    public CompletionStage<ArtifactMetaData> updateArtifact(String artifactId, ArtifactType artifactType, InputStream data) {
+        return requestExecutor.executeAsync(artifactsService.updateArtifact(requestHeaders.get(), encodeURIComponent(artifactId), artifactType, RequestBody.create(MediaType.parse("*/*"), IoUtil.toBytes(data))));
+    }
+
+    @Override
+    public CompletionStage<Void> deleteArtifact(String artifactId) {
+        return requestExecutor.executeAsync(artifactsService.deleteArtifact(requestHeaders.get(), encodeURIComponent(artifactId)));
+    }
+
+    @Override
+    public CompletionStage<Void> updateArtifactState(String artifactId, UpdateState data) {
+        return requestExecutor.executeAsync(artifactsService.updateArtifactState(requestHeaders.get(), encodeURIComponent(artifactId), data));
+    }
+
+    @Override
+    public CompletionStage<ArtifactMetaData> getArtifactMetaData(String artifactId) {
+        return requestExecutor.executeAsync(artifactsService.getArtifactMetaData(requestHeaders.get(), encodeURIComponent(artifactId)));
+    }
+
+    @Override
+    public CompletionStage<Void> updateArtifactMetaData(String artifactId, EditableMetaData data) {
+        return requestExecutor.executeAsync(artifactsService.updateArtifactMetaData(requestHeaders.get(), encodeURIComponent(artifactId), data));
+    }
+
+    @Override
+    public CompletionStage<ArtifactMetaData> getArtifactMetaDataByContent(String artifactId, Boolean canonical, InputStream data) {
+        return requestExecutor.executeAsync(artifactsService.getArtifactMetaDataByContent(requestHeaders.get(), encodeURIComponent(artifactId), canonical, RequestBody.create(MediaType.parse("*/*"), IoUtil.toBytes(data))));
+    }
+
+    @Override
+    public CompletionStage<List<Long>> listArtifactVersions(String artifactId) {
+        return requestExecutor.executeAsync(artifactsService.listArtifactVersions(requestHeaders.get(), encodeURIComponent(artifactId)));
+    }
+
+    @Override
+    public CompletionStage<VersionMetaData> createArtifactVersion(String artifactId, ArtifactType artifactType, InputStream data) {
+        return requestExecutor.executeAsync(artifactsService.createArtifactVersion(requestHeaders.get(), encodeURIComponent(artifactId), artifactType, RequestBody.create(MediaType.parse("*/*"), IoUtil.toBytes(data))));
+    }
+
+    @Override
+    public CompletionStage<InputStream> getArtifactVersion(String artifactId, Integer version) {
+        return requestExecutor.executeAsync(artifactsService.getArtifactVersion(requestHeaders.get(), version, encodeURIComponent(artifactId)))
+                .thenApply(ResponseBody::byteStream);
+    }
+
+    @Override
+    public CompletionStage<Void> updateArtifactVersionState(String artifactId, Integer version, UpdateState data) {
+        return requestExecutor.executeAsync(artifactsService.updateArtifactVersionState(requestHeaders.get(), version, encodeURIComponent(artifactId), data));
+    }
+
+    @Override
+    public CompletionStage<VersionMetaData> getArtifactVersionMetaData(String artifactId, Integer version) {
+        return requestExecutor.executeAsync(artifactsService.getArtifactVersionMetaData(requestHeaders.get(), version, encodeURIComponent(artifactId)));
+    }
+
+    @Override
+    public CompletionStage<Void> updateArtifactVersionMetaData(String artifactId, Integer version, EditableMetaData data) {
+        return requestExecutor.executeAsync(artifactsService.updateArtifactVersionMetaData(requestHeaders.get(), version, encodeURIComponent(artifactId), data));
+    }
+
+    @Override
+    public CompletionStage<Void> deleteArtifactVersionMetaData(String artifactId, Integer version) {
+        return requestExecutor.executeAsync(artifactsService.deleteArtifactVersionMetaData(requestHeaders.get(), version, encodeURIComponent(artifactId)));
+    }
+
+    @Override
+    public CompletionStage<List<RuleType>> listArtifactRules(String artifactId) {
+        return requestExecutor.executeAsync(artifactsService.listArtifactRules(requestHeaders.get(), encodeURIComponent(artifactId)));
+    }
+
+    @Override
+    public CompletionStage<Void> createArtifactRule(String artifactId, Rule data) {
+        return requestExecutor.executeAsync(artifactsService.createArtifactRule(requestHeaders.get(), encodeURIComponent(artifactId), data));
+    }
+
+    @Override
+    public CompletionStage<Void> deleteArtifactRules(String artifactId) {
+        return requestExecutor.executeAsync(artifactsService.deleteArtifactRules(requestHeaders.get(), encodeURIComponent(artifactId)));
+    }
+
+    @Override
+    public CompletionStage<Rule> getArtifactRuleConfig(String artifactId, RuleType rule) {
+        return requestExecutor.executeAsync(artifactsService.getArtifactRuleConfig(requestHeaders.get(), rule, encodeURIComponent(artifactId)));
+    }
+
+    @Override
+    public CompletionStage<Rule> updateArtifactRuleConfig(String artifactId, RuleType rule, Rule data) {
+        return requestExecutor.executeAsync(artifactsService.updateArtifactRuleConfig(requestHeaders.get(), rule, encodeURIComponent(artifactId), data));
+    }
+
+    @Override
+    public CompletionStage<Void> deleteArtifactRule(String artifactId, RuleType rule) {
+        return requestExecutor.executeAsync(artifactsService.deleteArtifactRule(requestHeaders.get(), rule, encodeURIComponent(artifactId)));
+    }
+
+    @Override
+    public CompletionStage<Void> testUpdateArtifact(String artifactId, ArtifactType artifactType, InputStream data) {
+        return requestExecutor.executeAsync(artifactsService.testUpdateArtifact(requestHeaders.get(), encodeURIComponent(artifactId), artifactType, RequestBody.create(MediaType.parse("*/*"), IoUtil.toBytes(data))));
+    }
+
+    @Override
+    public CompletionStage<InputStream> getArtifactByGlobalId(long globalId) {
+        return requestExecutor.executeAsync(idsService.getArtifactByGlobalId(requestHeaders.get(), globalId))
+                .thenApply(ResponseBody::byteStream);
+    }
+
+    @Override
+    public CompletionStage<ArtifactMetaData> getArtifactMetaDataByGlobalId(long globalId) {
+        return requestExecutor.executeAsync(idsService.getArtifactMetaDataByGlobalId(requestHeaders.get(), globalId));
+    }
+
+    @Override
+    public CompletionStage<ArtifactSearchResults> searchArtifacts(String search, SearchOver over, SortOrder order, Integer offset, Integer limit) {
+        return requestExecutor.executeAsync(searchService.searchArtifacts(requestHeaders.get(), search, offset, limit, over, order));
+    }
+
+    @Override
+    public CompletionStage<VersionSearchResults> searchVersions(String artifactId, Integer offset, Integer limit) {
+        return requestExecutor.executeAsync(searchService.searchVersions(requestHeaders.get(), encodeURIComponent(artifactId), offset, limit));
+    }
+
+    @Override
+    public CompletionStage<Rule> getGlobalRuleConfig(RuleType rule) {
+        return requestExecutor.executeAsync(rulesService.getGlobalRuleConfig(requestHeaders.get(), rule));
+    }
+
+    @Override
+    public CompletionStage<Rule> updateGlobalRuleConfig(RuleType rule, Rule data) {
+        return requestExecutor.executeAsync(rulesService.updateGlobalRuleConfig(requestHeaders.get(), rule, data));
+    }
+
+    @Override
+    public CompletionStage<Void> deleteGlobalRule(RuleType rule) {
+        return requestExecutor.executeAsync(rulesService.deleteGlobalRule(requestHeaders.get(), rule));
+    }
+
+    @Override
+    public CompletionStage<List<RuleType>> listGlobalRules() {
+        return requestExecutor.executeAsync(rulesService.listGlobalRules(requestHeaders.get()));
+    }
+
+    @Override
+    public CompletionStage<Void> createGlobalRule(Rule data) {
+        return requestExecutor.executeAsync(rulesService.createGlobalRule(requestHeaders.get(), data));
+    }
+
+    @Override
+    public CompletionStage<Void> deleteAllGlobalRules() {
+        return requestExecutor.executeAsync(rulesService.deleteAllGlobalRules(requestHeaders.get()));
+    }
+
+    @Override
+    public void close() throws Exception {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+        if (httpClient.cache() != null) {
+            httpClient.cache().close();
+        }
+    }
+
+    @Override
+    public void setNextRequestHeaders(Map<String, String> headers) {
+        requestHeaders.set(headers);
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+        return requestHeaders.get();
+    }
+}
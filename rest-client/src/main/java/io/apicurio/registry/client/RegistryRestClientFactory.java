@@ -42,4 +42,20 @@ public class RegistryRestClientFactory {
     public static RegistryRestClient create(String baseUrl, Map<String, Object> configs, Auth auth) {
         return new RegistryRestClientImpl(baseUrl, configs, auth);
     }
-}
\ No newline at end of file
+
+    public static RegistryRestClientAsync createAsync(String baseUrl) {
+        return new RegistryRestClientAsyncImpl(baseUrl);
+    }
+
+    public static RegistryRestClientAsync createAsync(String baseUrl, OkHttpClient okHttpClient) {
+        return new RegistryRestClientAsyncImpl(baseUrl, okHttpClient);
+    }
+
+    public static RegistryRestClientAsync createAsync(String baseUrl, Map<String, Object> configs) {
+        return new RegistryRestClientAsyncImpl(baseUrl, configs);
+    }
+
+    public static RegistryRestClientAsync createAsync(String baseUrl, Map<String, Object> configs, Auth auth) {
+        return new RegistryRestClientAsyncImpl(baseUrl, configs, auth);
+    }
+}
@@ -22,6 +22,10 @@ import static io.apicurio.registry.client.request.RestClientConfig.REGISTRY_REQU
 import static io.apicurio.registry.client.request.RestClientConfig.REGISTRY_REQUEST_KEYSTORE_PASSWORD;
 import static io.apicurio.registry.client.request.RestClientConfig.REGISTRY_REQUEST_KEYSTORE_TYPE;
 import static io.apicurio.registry.client.request.RestClientConfig.REGISTRY_REQUEST_KEY_PASSWORD;
+import static io.apicurio.registry.client.request.RestClientConfig.REGISTRY_REQUEST_MAX_REQUESTS;
+import static io.apicurio.registry.client.request.RestClientConfig.REGISTRY_REQUEST_MAX_REQUESTS_PER_HOST;
+import static io.apicurio.registry.client.request.RestClientConfig.REGISTRY_REQUEST_POOL_KEEP_ALIVE_MS;
+import static io.apicurio.registry.client.request.RestClientConfig.REGISTRY_REQUEST_POOL_MAX_IDLE;
 import static io.apicurio.registry.client.request.RestClientConfig.REGISTRY_REQUEST_TRUSTSTORE_LOCATION;
 import static io.apicurio.registry.client.request.RestClientConfig.REGISTRY_REQUEST_TRUSTSTORE_PASSWORD;
 import static io.apicurio.registry.client.request.RestClientConfig.REGISTRY_REQUEST_TRUSTSTORE_TYPE;
@@ -44,6 +48,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.net.ssl.KeyManager;
@@ -77,6 +82,8 @@ import io.apicurio.registry.types.ArtifactType;
 import io.apicurio.registry.types.RuleType;
 import io.apicurio.registry.utils.ArtifactIdValidator;
 import io.apicurio.registry.utils.IoUtil;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.Interceptor;
 import okhttp3.MediaType;
@@ -129,13 +136,38 @@ public class RegistryRestClientImpl implements RegistryRestClient {
         initServices(retrofit);
     }
 
-    private static OkHttpClient createHttpClientWithConfig(String baseUrl, Map<String, Object> configs, Auth auth) {
+    static OkHttpClient createHttpClientWithConfig(String baseUrl, Map<String, Object> configs, Auth auth) {
         OkHttpClient.Builder okHttpClientBuilder = new OkHttpClient.Builder();
         okHttpClientBuilder = addHeaders(okHttpClientBuilder, baseUrl, configs, auth);
         okHttpClientBuilder = addSSL(okHttpClientBuilder, configs);
+        okHttpClientBuilder = addConcurrencyLimits(okHttpClientBuilder, configs);
         return okHttpClientBuilder.build();
     }
 
+    private static OkHttpClient.Builder addConcurrencyLimits(OkHttpClient.Builder okHttpClientBuilder, Map<String, Object> configs) {
+        if (configs.containsKey(REGISTRY_REQUEST_MAX_REQUESTS) || configs.containsKey(REGISTRY_REQUEST_MAX_REQUESTS_PER_HOST)) {
+            Dispatcher dispatcher = new Dispatcher();
+            if (configs.containsKey(REGISTRY_REQUEST_MAX_REQUESTS)) {
+                dispatcher.setMaxRequests(toInt(configs.get(REGISTRY_REQUEST_MAX_REQUESTS)));
+            }
+            if (configs.containsKey(REGISTRY_REQUEST_MAX_REQUESTS_PER_HOST)) {
+                dispatcher.setMaxRequestsPerHost(toInt(configs.get(REGISTRY_REQUEST_MAX_REQUESTS_PER_HOST)));
+            }
+            okHttpClientBuilder.dispatcher(dispatcher);
+        }
+        if (configs.containsKey(REGISTRY_REQUEST_POOL_MAX_IDLE) || configs.containsKey(REGISTRY_REQUEST_POOL_KEEP_ALIVE_MS)) {
+            // OkHttp defaults: 5 idle connections, kept alive for 5 minutes
+            int maxIdle = toInt(configs.getOrDefault(REGISTRY_REQUEST_POOL_MAX_IDLE, 5));
+            long keepAliveMs = Long.parseLong(String.valueOf(configs.getOrDefault(REGISTRY_REQUEST_POOL_KEEP_ALIVE_MS, TimeUnit.MINUTES.toMillis(5))));
+            okHttpClientBuilder.connectionPool(new ConnectionPool(maxIdle, keepAliveMs, TimeUnit.MILLISECONDS));
+        }
+        return okHttpClientBuilder;
+    }
+
+    private static int toInt(Object value) {
+        return Integer.parseInt(String.valueOf(value));
+    }
+
     private static OkHttpClient.Builder addHeaders(OkHttpClient.Builder okHttpClientBuilder, String baseUrl, Map<String, Object> configs, Auth auth) {
         Map<String, String> requestHeaders = configs.entrySet().stream()
                 .filter(map -> map.getKey().startsWith(REGISTRY_REQUEST_HEADERS_PREFIX))
@@ -457,7 +489,7 @@ public class RegistryRestClientImpl implements RegistryRestClient {
         return requestHeaders.get();
     }
 
-    private String encodeURIComponent(String value) {
+    static String encodeURIComponent(String value) {
         try {
             return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
         } catch ( UnsupportedEncodingException e ) {
@@ -19,6 +19,7 @@ package io.apicurio.registry.client.request;
 import retrofit2.Call;
 
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
 
 /**
@@ -42,6 +43,17 @@ public class RequestExecutor {
 
         return resultCallback.getResult();
     }
+
+    public <T> CompletionStage<T> executeAsync(Call<T> call) {
+
+        final ResultCallback<T> resultCallback = new ResultCallback<T>();
+
+        requestHeaders.remove();
+
+        call.enqueue(resultCallback);
+
+        return resultCallback.getResultAsync();
+    }
 }
 
 
@@ -26,4 +26,8 @@ public class RestClientConfig {
     public static final String REGISTRY_REQUEST_KEYSTORE_TYPE = REGISTRY_REQUEST_KEYSTORE_PREFIX + ".type";
     public static final String REGISTRY_REQUEST_KEYSTORE_PASSWORD = REGISTRY_REQUEST_KEYSTORE_PREFIX + ".password";
     public static final String REGISTRY_REQUEST_KEY_PASSWORD = "apicurio.registry.request.ssl.key.password";
+    public static final String REGISTRY_REQUEST_MAX_REQUESTS = "apicurio.registry.request.max-requests";
+    public static final String REGISTRY_REQUEST_MAX_REQUESTS_PER_HOST = "apicurio.registry.request.max-requests-per-host";
+    public static final String REGISTRY_REQUEST_POOL_MAX_IDLE = "apicurio.registry.request.connection-pool.max-idle";
+    public static final String REGISTRY_REQUEST_POOL_KEEP_ALIVE_MS = "apicurio.registry.request.connection-pool.keep-alive-ms";
 }
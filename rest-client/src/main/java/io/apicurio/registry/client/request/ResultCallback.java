@@ -34,6 +34,7 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -115,20 +116,46 @@ public class ResultCallback<T> implements Callback<T> {
             final Response<T> callResult = ConcurrentUtil.get(result);
             checkIfDeprecated(callResult.headers());
             return callResult.body();
-        } catch (RestClientException ex) {
-            throw ExceptionMapper.map(ex);
         } catch (Exception e) {
-            Throwable cause = extractRootCause(e);
-            if (cause instanceof RestClientException) {
-                throw (RestClientException) cause;
+            throw toRestClientException(e);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #getResult()}, the returned stage is completed
+     * (on an OkHttp dispatcher thread) once the response has been received.
+     */
+    public CompletionStage<T> getResultAsync() {
+        final CompletableFuture<T> mapped = new CompletableFuture<>();
+        result.whenComplete((callResult, t) -> {
+            if (t != null) {
+                mapped.completeExceptionally(toRestClientException(t));
             } else {
-                // completely unknown exception
-                Error error = new Error();
-                error.setMessage(cause.getMessage());
-                error.setErrorCode(000);
-                logger.log(Level.SEVERE, "Unkown client exception", cause);
-                throw new RestClientException(error);
+                try {
+                    checkIfDeprecated(callResult.headers());
+                    mapped.complete(callResult.body());
+                } catch (Exception e) {
+                    mapped.completeExceptionally(toRestClientException(e));
+                }
             }
+        });
+        return mapped;
+    }
+
+    private RestClientException toRestClientException(Throwable e) {
+        if (e instanceof RestClientException) {
+            return ExceptionMapper.map((RestClientException) e);
+        }
+        Throwable cause = extractRootCause(e);
+        if (cause instanceof RestClientException) {
+            return (RestClientException) cause;
+        } else {
+            // completely unknown exception
+            Error error = new Error();
+            error.setMessage(cause.getMessage());
+            error.setErrorCode(000);
+            logger.log(Level.SEVERE, "Unkown client exception", cause);
+            return new RestClientException(error);
         }
     }
 
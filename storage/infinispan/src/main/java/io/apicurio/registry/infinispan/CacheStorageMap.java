@@ -19,33 +19,47 @@ package io.apicurio.registry.infinispan;
 import io.apicurio.registry.storage.ArtifactNotFoundException;
 import io.apicurio.registry.storage.ArtifactStateExt;
 import io.apicurio.registry.storage.MetaDataKeys;
+import io.apicurio.registry.storage.RegistryStorageException;
 import io.apicurio.registry.storage.VersionNotFoundException;
 import io.apicurio.registry.storage.impl.AbstractMapRegistryStorage;
 import io.apicurio.registry.storage.impl.StorageMap;
+import io.apicurio.registry.storage.impl.TupleId;
 import io.apicurio.registry.types.ArtifactState;
-import io.apicurio.registry.utils.ConcurrentUtil;
 import org.infinispan.Cache;
 import org.infinispan.commons.CacheException;
-import org.infinispan.manager.ClusterExecutor;
-import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.util.UserRaisedFunctionalException;
 import org.infinispan.util.function.SerializableBiFunction;
 import org.infinispan.util.function.SerializableFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.transaction.NotSupportedException;
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Proxy;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
+ * Stores every artifact version under its own key, so a write only ships the changed version.
+ * The artifacts cache holds the (small) set of versions per artifact.
+ * Writes that touch both caches run in a single transaction, so a version entry and the set
+ * it's listed in change together -- a failure (or a lost node) can't leave an orphan behind.
+ *
  * @author Ales Justin
  */
 class CacheStorageMap implements StorageMap {
+    private static final Logger log = LoggerFactory.getLogger(CacheStorageMap.class);
+
     private static final Set<Class<? extends Throwable>> INFINISPAN_EXCEPTIONS;
 
     static {
@@ -54,14 +68,16 @@ class CacheStorageMap implements StorageMap {
         INFINISPAN_EXCEPTIONS.add(UserRaisedFunctionalException.class);
     }
 
-    private final Cache<String, Map<Long, Map<String, String>>> cache;
+    private final Cache<String, Set<Long>> artifacts;
+    private final Cache<TupleId, Map<String, String>> versions;
 
-    private CacheStorageMap(Cache<String, Map<Long, Map<String, String>>> cache) {
-        this.cache = cache;
+    private CacheStorageMap(Cache<String, Set<Long>> artifacts, Cache<TupleId, Map<String, String>> versions) {
+        this.artifacts = artifacts;
+        this.versions = versions;
     }
 
-    public static StorageMap create(Cache<String, Map<Long, Map<String, String>>> cache) {
-        StorageMap delegate = new CacheStorageMap(cache);
+    public static StorageMap create(Cache<String, Set<Long>> artifacts, Cache<TupleId, Map<String, String>> versions) {
+        StorageMap delegate = new CacheStorageMap(artifacts, versions);
         return (StorageMap) Proxy.newProxyInstance(
                 CacheStorageMap.class.getClassLoader(),
                 new Class[]{StorageMap.class},
@@ -87,47 +103,100 @@ class CacheStorageMap implements StorageMap {
         return INFINISPAN_EXCEPTIONS.stream().anyMatch(c -> c.isInstance(t));
     }
 
+    private <T> T inTransaction(Supplier<T> writes) {
+        TransactionManager tm = artifacts.getAdvancedCache().getTransactionManager();
+        if (tm == null) {
+            return writes.get(); // non-transactional caches
+        }
+        try {
+            tm.begin();
+        } catch (NotSupportedException | SystemException e) {
+            throw new RegistryStorageException(e);
+        }
+        try {
+            T result = writes.get();
+            tm.commit();
+            return result;
+        } catch (RuntimeException e) {
+            rollback(tm);
+            throw e;
+        } catch (Exception e) {
+            // failed commit, the transaction is already rolled back
+            throw new RegistryStorageException(e);
+        }
+    }
+
+    private static void rollback(TransactionManager tm) {
+        try {
+            if (tm.getTransaction() != null) {
+                tm.rollback();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to roll back the transaction", e);
+        }
+    }
+
     @Override
     public Map<String, Map<Long, Map<String, String>>> asMap() {
-        return cache;
+        // a single pass over the artifacts, and a single bulk get of all their versions
+        Map<String, Map<Long, Map<String, String>>> map = new HashMap<>();
+        Set<TupleId> ids = new HashSet<>();
+        try (CloseableIterator<Map.Entry<String, Set<Long>>> iterator = artifacts.entrySet().iterator()) {
+            while (iterator.hasNext()) {
+                Map.Entry<String, Set<Long>> entry = iterator.next();
+                map.put(entry.getKey(), new HashMap<>());
+                entry.getValue().forEach(version -> ids.add(new TupleId(entry.getKey(), version)));
+            }
+        }
+        versions.getAdvancedCache().getAll(ids).forEach((id, content) -> {
+            Map<Long, Map<String, String>> v2c = map.get(id.getId());
+            if (v2c != null && content != null) {
+                v2c.put(id.getVersion(), content);
+            }
+        });
+        return map;
     }
 
     @Override
     public void putAll(Map<String, Map<Long, Map<String, String>>> map) {
-        cache.putAll(map);
+        map.forEach((artifactId, v2c) -> inTransaction(() -> {
+            v2c.forEach((version, contents) -> versions.put(new TupleId(artifactId, version), new HashMap<>(contents)));
+            return artifacts.put(artifactId, new HashSet<>(v2c.keySet()));
+        }));
     }
 
     @Override
     public Set<String> keySet() {
-        return cache.keySet();
+        return artifacts.keySet();
     }
 
     @Override
     public Map<Long, Map<String, String>> get(String artifactId) {
-        return cache.get(artifactId);
+        Set<Long> keys = artifacts.get(artifactId);
+        return keys != null ? new VersionsMap(artifactId, keys) : null;
     }
 
     @Override
     public Map<Long, Map<String, String>> compute(String artifactId) {
-        return cache.compute(artifactId, (SerializableBiFunction<String, Map<Long, Map<String, String>>, Map<Long, Map<String, String>>>)
-                (k, map) -> (map != null ? map : new ConcurrentHashMap<>())
-        );
+        Set<Long> keys = artifacts.computeIfAbsent(artifactId, (SerializableFunction<String, Set<Long>>) k -> new HashSet<>());
+        return new VersionsMap(artifactId, keys);
     }
 
     @Override
     public void createVersion(String artifactId, long version, Map<String, String> contents) {
-        cache.compute(artifactId, (SerializableBiFunction<String, Map<Long, Map<String, String>>, Map<Long, Map<String, String>>>) (k, map) -> {
-            if (map == null) {
-                map = new ConcurrentHashMap<>();
-            }
+        inTransaction(() -> {
+            // make sure version is unique -- putIfAbsent locks the (new) version's key until the commit
             long iv = version;
-            Map<String, String> inner = map.putIfAbsent(iv, contents);
-            while (inner != null) {
+            while (versions.putIfAbsent(new TupleId(artifactId, iv), new HashMap<>(contents)) != null) {
                 iv++;
                 contents.put(MetaDataKeys.VERSION, Long.toString(iv));
-                inner = map.putIfAbsent(iv, contents);
             }
-            return map;
+            long fv = iv;
+            return artifacts.compute(artifactId, (SerializableBiFunction<String, Set<Long>, Set<Long>>) (k, keys) -> {
+                Set<Long> copy = keys != null ? new HashSet<>(keys) : new HashSet<>();
+                copy.add(fv);
+                return copy;
+            });
         });
     }
 
@@ -138,38 +207,26 @@ class CacheStorageMap implements StorageMap {
 
     @Override
     public void put(String artifactId, String key, String value) {
-        cache.compute(artifactId, (SerializableBiFunction<String, Map<Long, Map<String, String>>, Map<Long, Map<String, String>>>) (s, map) -> {
-            if (map == null) {
-                throw new ArtifactNotFoundException(artifactId);
-            }
-            long version = map.entrySet()
-                    .stream()
-                    .filter(AbstractMapRegistryStorage.statesFilter(ArtifactStateExt.ACTIVE_STATES))
-                    .map(Map.Entry::getKey)
-                    .max(Long::compareTo)
-                    .orElseThrow(() -> new ArtifactNotFoundException(artifactId));
-
-            Map<String, String> content = map.get(version);
-
-            // skip this for states, any other metadata needs active artifact
-            if (key.equals(MetaDataKeys.STATE) == false) {
-                ArtifactState state = ArtifactStateExt.getState(content);
-                ArtifactStateExt.validateState(ArtifactStateExt.ACTIVE_STATES, state, artifactId, version);
-            }
+        Map<Long, Map<String, String>> map = get(artifactId);
+        if (map == null) {
+            throw new ArtifactNotFoundException(artifactId);
+        }
+        long version = map.entrySet()
+                .stream()
+                .filter(AbstractMapRegistryStorage.statesFilter(ArtifactStateExt.ACTIVE_STATES))
+                .map(Map.Entry::getKey)
+                .max(Long::compareTo)
+                .orElseThrow(() -> new ArtifactNotFoundException(artifactId));
 
-            content.put(key, value);
-            return map;
-        });
+        put(artifactId, version, key, value);
     }
 
     @Override
     public void put(String artifactId, long version, String key, String value) {
-        cache.compute(artifactId, (SerializableBiFunction<String, Map<Long, Map<String, String>>, Map<Long, Map<String, String>>>) (s, map) -> {
-            if (map == null) {
-                throw new ArtifactNotFoundException(artifactId);
-            }
-
-            Map<String, String> content = map.get(version);
+        if (!artifacts.containsKey(artifactId)) {
+            throw new ArtifactNotFoundException(artifactId);
+        }
+        versions.compute(new TupleId(artifactId, version), (SerializableBiFunction<TupleId, Map<String, String>, Map<String, String>>) (k, content) -> {
             if (content == null) {
                 throw new VersionNotFoundException(artifactId, version);
             }
@@ -180,57 +237,118 @@ class CacheStorageMap implements StorageMap {
                 ArtifactStateExt.validateState(ArtifactStateExt.ACTIVE_STATES, state, artifactId, version);
             }
 
-            content.put(key, value);
-            return map;
+            Map<String, String> copy = new HashMap<>(content);
+            copy.put(key, value);
+            return copy;
         });
     }
 
     @Override
     public Long remove(String artifactId, long version) {
-        Set<Long> result = new HashSet<>();
-        ClusterExecutor ce = cache.getCacheManager().executor();
-        CompletableFuture<Void> cf = ce.allNodeSubmission().submitConsumer(
-                (SerializableFunction<EmbeddedCacheManager, Long>) manager -> {
-                    Cache<String, Map<Long, Map<String, String>>> c = manager.getCache(InfinispanRegistryStorage.STORAGE_CACHE);
-                    Map<Long, Map<String, String>> iMap = c.get(artifactId);
-                    if (iMap != null) {
-                        Map<String, String> remove = iMap.remove(version);
-                        if (remove == null) {
-                            throw new VersionNotFoundException(artifactId, version);
-                        }
-                        return Long.parseLong(remove.get(MetaDataKeys.GLOBAL_ID));
-                    } else {
-                        throw new ArtifactNotFoundException(artifactId);
-                    }
-                },
-                (address, globalId, throwable) -> result.add(globalId)
-        );
-        ConcurrentUtil.get(cf, 30, TimeUnit.SECONDS); // worst case 30sec ... ?!
-        if (result.isEmpty()) {
+        Map<String, String> removed = inTransaction(() -> {
+            Map<String, String> content = versions.remove(new TupleId(artifactId, version));
+            if (content != null) {
+                artifacts.computeIfPresent(artifactId, (SerializableBiFunction<String, Set<Long>, Set<Long>>) (k, keys) -> {
+                    Set<Long> copy = new HashSet<>(keys);
+                    copy.remove(version);
+                    return copy;
+                });
+            }
+            return content;
+        });
+        if (removed == null) {
+            if (!artifacts.containsKey(artifactId)) {
+                throw new ArtifactNotFoundException(artifactId);
+            }
             throw new VersionNotFoundException(artifactId, version);
         }
-        return result.iterator().next();
+        return Long.parseLong(removed.get(MetaDataKeys.GLOBAL_ID));
     }
 
     @Override
     public void remove(String artifactId, long version, String key) {
-        cache.compute(artifactId, (SerializableBiFunction<String, Map<Long, Map<String, String>>, Map<Long, Map<String, String>>>) (k, iMap) -> {
-            if (iMap != null) {
-                Map<String, String> vMap = iMap.get(version);
-                if (vMap != null) {
-                    vMap.remove(key);
-                } else {
-                    throw new VersionNotFoundException(artifactId, version);
-                }
-            } else {
-                throw new ArtifactNotFoundException(artifactId);
+        if (!artifacts.containsKey(artifactId)) {
+            throw new ArtifactNotFoundException(artifactId);
+        }
+        versions.compute(new TupleId(artifactId, version), (SerializableBiFunction<TupleId, Map<String, String>, Map<String, String>>) (k, content) -> {
+            if (content == null) {
+                throw new VersionNotFoundException(artifactId, version);
             }
-            return iMap;
+            Map<String, String> copy = new HashMap<>(content);
+            copy.remove(key);
+            return copy;
         });
     }
 
     @Override
     public Map<Long, Map<String, String>> remove(String artifactId) {
-        return cache.remove(artifactId);
+        return inTransaction(() -> {
+            Set<Long> keys = artifacts.remove(artifactId);
+            if (keys == null) {
+                return null;
+            }
+            Map<Long, Map<String, String>> removed = new HashMap<>();
+            for (Long version : keys) {
+                Map<String, String> content = versions.remove(new TupleId(artifactId, version));
+                if (content != null) {
+                    removed.put(version, content);
+                }
+            }
+            return removed;
+        });
+    }
+
+    /**
+     * Lazy view of the versions of an artifact -- a single version is fetched on its own,
+     * and all of them (in one bulk get) only when iterating over the entries.
+     */
+    private class VersionsMap extends AbstractMap<Long, Map<String, String>> {
+        private final String artifactId;
+        private final Set<Long> keys;
+        private Map<Long, Map<String, String>> entries;
+
+        VersionsMap(String artifactId, Set<Long> keys) {
+            this.artifactId = artifactId;
+            this.keys = Collections.unmodifiableSet(keys);
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return keys.contains(key);
+        }
+
+        @Override
+        public Set<Long> keySet() {
+            return keys;
+        }
+
+        @Override
+        public Map<String, String> get(Object key) {
+            if (entries != null) {
+                return entries.get(key);
+            }
+            return keys.contains(key) ? versions.get(new TupleId(artifactId, (Long) key)) : null;
+        }
+
+        @Override
+        public Set<Entry<Long, Map<String, String>>> entrySet() {
+            if (entries == null) {
+                Set<TupleId> ids = new HashSet<>();
+                keys.forEach(version -> ids.add(new TupleId(artifactId, version)));
+                Map<Long, Map<String, String>> map = new HashMap<>();
+                versions.getAdvancedCache().getAll(ids).forEach((id, content) -> {
+                    if (content != null) {
+                        map.put(id.getVersion(), content);
+                    }
+                });
+                entries = Collections.unmodifiableMap(map);
+            }
+            return entries.entrySet();
+        }
     }
 }
@@ -29,6 +29,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Disposes;
 import javax.enterprise.inject.Produces;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Properties;
 
 /**
@@ -54,7 +55,8 @@ public class InfinispanConfiguration {
                         "io.apicurio.registry.storage.",
                         TupleId.class.getName(),
                         MapValue.class.getName(),
-                        HashMap.class.getName()
+                        HashMap.class.getName(),
+                        HashSet.class.getName()
                 );
 
         TransportConfigurationBuilder tConf = gConf.transport();
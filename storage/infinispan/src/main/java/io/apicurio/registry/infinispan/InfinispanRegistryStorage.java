@@ -26,20 +26,26 @@ import io.apicurio.registry.storage.impl.StorageMap;
 import io.apicurio.registry.storage.impl.TupleId;
 import io.apicurio.registry.utils.ConcurrentUtil;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.metrics.annotation.ConcurrentGauge;
 import org.eclipse.microprofile.metrics.annotation.Counted;
 import org.eclipse.microprofile.metrics.annotation.Timed;
 import org.infinispan.Cache;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.health.ClusterHealth;
 import org.infinispan.health.HealthStatus;
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.transaction.TransactionMode;
+import org.infinispan.transaction.lookup.EmbeddedTransactionManagerLookup;
 import org.infinispan.util.function.SerializableBiFunction;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
@@ -60,15 +66,34 @@ public class InfinispanRegistryStorage extends AbstractMapRegistryStorage {
 
     static String KEY = "_ck";
     static String COUNTER_CACHE = "counter-cache";
-    static String STORAGE_CACHE = "storage-cache";
+    static String ARTIFACT_CACHE = "artifact-cache";
+    static String VERSION_CACHE = "version-cache";
     static String ARTIFACT_RULES_CACHE = "artifact-rules-cache";
     static String GLOBAL_CACHE = "global-cache";
     static String GLOBAL_RULES_CACHE = "global-rules-cache";
+    static String CONTENT_INDEX_CACHE = "content-index-cache";
 
     @Inject
     EmbeddedCacheManager manager;
 
-    private Map<String, Long> counter;
+    @ConfigProperty(name = "registry.infinispan.id.block-size", defaultValue = "1000")
+    long idBlockSize;
+
+    @ConfigProperty(name = "registry.infinispan.cache.mode", defaultValue = "REPL_SYNC")
+    CacheMode cacheMode;
+
+    @ConfigProperty(name = "registry.infinispan.cache.owners", defaultValue = "2")
+    int cacheOwners;
+
+    @ConfigProperty(name = "registry.infinispan.cache.storage", defaultValue = "HEAP")
+    StorageType cacheStorage;
+
+    Map<String, Long> counter;
+
+    // the current (leased) block of global ids, [nextId, maxId]
+    private final Object idLock = new Object();
+    private long nextId = 1;
+    private long maxId;
 
     @Override
     protected void afterInit() {
@@ -82,22 +107,72 @@ public class InfinispanRegistryStorage extends AbstractMapRegistryStorage {
         counter = manager.getCache(COUNTER_CACHE, true);
     }
 
+    /**
+     * Global ids are leased from the cluster-wide counter a block at a time,
+     * so only every n-th id needs a (synchronous) round trip to the other nodes.
+     * Ids are still unique, but no longer ordered across the nodes.
+     */
     @Override
     protected long nextGlobalId() {
-        return counter.compute(KEY, (SerializableBiFunction<? super String, ? super Long, ? extends Long>) (k, v) -> (v == null ? 1 : v + 1));
+        synchronized (idLock) {
+            if (nextId > maxId) {
+                long size = Math.max(1, idBlockSize);
+                maxId = counter.compute(KEY, (SerializableBiFunction<? super String, ? super Long, ? extends Long>) (k, v) -> (v == null ? size : v + size));
+                nextId = maxId - size + 1;
+            }
+            return nextId++;
+        }
+    }
+
+    /**
+     * The configuration of the registry data caches -- replicated by default,
+     * or distributed (DIST_SYNC) across the configured number of owners, so the capacity grows with the nodes.
+     */
+    private ConfigurationBuilder dataCacheConfiguration() {
+        ConfigurationBuilder builder = new ConfigurationBuilder();
+        builder.clustering().cacheMode(cacheMode);
+        if (cacheMode.isDistributed()) {
+            builder.clustering().hash().numOwners(cacheOwners);
+        }
+        builder.memory().storage(cacheStorage);
+        return builder;
     }
 
+    /**
+     * An artifact's version set and its version entries are written in one (pessimistic) transaction,
+     * see {@link CacheStorageMap}.
+     */
+    private ConfigurationBuilder transactionalCacheConfiguration() {
+        ConfigurationBuilder builder = dataCacheConfiguration();
+        builder.transaction()
+            .transactionMode(TransactionMode.TRANSACTIONAL)
+            .lockingMode(LockingMode.PESSIMISTIC)
+            .transactionManagerLookup(new EmbeddedTransactionManagerLookup());
+        return builder;
+    }
+
+    /**
+     * The artifacts (their version sets) and the versions live in caches of their own. They don't reuse the name
+     * of the old (whole artifact per entry) storage-cache, so nodes of an older version never read or transfer
+     * these entries as the old type -- but they aren't migrated either, upgrading needs a full cluster restart.
+     */
     @Override
     protected StorageMap createStorageMap() {
         manager.defineConfiguration(
-            STORAGE_CACHE,
-            new ConfigurationBuilder()
-                .clustering().cacheMode(CacheMode.REPL_SYNC)
-                .build()
+            ARTIFACT_CACHE,
+            transactionalCacheConfiguration().build()
+        );
+
+        ConfigurationBuilder versionConfiguration = transactionalCacheConfiguration();
+        versionConfiguration.clustering().hash().groups().enabled().addGrouper(new TupleIdGrouper());
+        manager.defineConfiguration(
+            VERSION_CACHE,
+            versionConfiguration.build()
         );
 
-        Cache<String, Map<Long, Map<String, String>>> cache = manager.getCache(STORAGE_CACHE, true);
-        return CacheStorageMap.create(cache);
+        Cache<String, Set<Long>> artifacts = manager.getCache(ARTIFACT_CACHE, true);
+        Cache<TupleId, Map<String, String>> versions = manager.getCache(VERSION_CACHE, true);
+        return CacheStorageMap.create(artifacts, versions);
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -105,9 +180,7 @@ public class InfinispanRegistryStorage extends AbstractMapRegistryStorage {
     protected Map<Long, TupleId> createGlobalMap() {
         manager.defineConfiguration(
                 GLOBAL_CACHE,
-                new ConfigurationBuilder()
-                        .clustering().cacheMode(CacheMode.REPL_SYNC)
-                        .build()
+                dataCacheConfiguration().build()
         );
 
         return manager.getCache(GLOBAL_CACHE, true);
@@ -120,9 +193,7 @@ public class InfinispanRegistryStorage extends AbstractMapRegistryStorage {
     protected Map<String, String> createGlobalRulesMap() {
         manager.defineConfiguration(
             GLOBAL_RULES_CACHE,
-            new ConfigurationBuilder()
-                .clustering().cacheMode(CacheMode.REPL_SYNC)
-                .build()
+            dataCacheConfiguration().build()
         );
 
         return manager.getCache(GLOBAL_RULES_CACHE, true);
@@ -136,15 +207,28 @@ public class InfinispanRegistryStorage extends AbstractMapRegistryStorage {
     protected MultiMap<String, String, String> createArtifactRulesMap() {
         manager.defineConfiguration(
                 ARTIFACT_RULES_CACHE,
-                new ConfigurationBuilder()
-                        .clustering().cacheMode(CacheMode.REPL_SYNC)
-                        .build()
+                dataCacheConfiguration().build()
         );
 
         Cache<String, MapValue<String, String>> cache = manager.getCache(ARTIFACT_RULES_CACHE, true);
         return new CacheMultiMap<>(cache);
     }
 
+    /**
+     * @see io.apicurio.registry.storage.impl.AbstractMapRegistryStorage#createContentIndexMap()
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @Override
+    protected MultiMap<String, String, String> createContentIndexMap() {
+        manager.defineConfiguration(
+                CONTENT_INDEX_CACHE,
+                dataCacheConfiguration().build()
+        );
+
+        Cache<String, MapValue<String, String>> cache = manager.getCache(CONTENT_INDEX_CACHE, true);
+        return new CacheMultiMap<>(cache);
+    }
+
     @SuppressWarnings({ "unchecked", "rawtypes" })
     @Override // make it serializable
     protected BiFunction<String, Map<Long, Map<String, String>>, Map<Long, Map<String, String>>> lookupFn() {
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.infinispan;
+
+import io.apicurio.registry.storage.impl.TupleId;
+import org.infinispan.distribution.group.Grouper;
+
+/**
+ * Keeps all the versions of an artifact on the same (distributed) owners.
+ */
+class TupleIdGrouper implements Grouper<TupleId> {
+    @Override
+    public Object computeGroup(TupleId key, Object group) {
+        return key.getId();
+    }
+
+    @Override
+    public Class<TupleId> getKeyType() {
+        return TupleId.class;
+    }
+}
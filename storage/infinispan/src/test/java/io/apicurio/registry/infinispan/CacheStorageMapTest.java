@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.infinispan;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.transaction.TransactionMode;
+import org.infinispan.transaction.lookup.EmbeddedTransactionManagerLookup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.storage.ArtifactNotFoundException;
+import io.apicurio.registry.storage.MetaDataKeys;
+import io.apicurio.registry.storage.VersionNotFoundException;
+import io.apicurio.registry.storage.impl.StorageMap;
+import io.apicurio.registry.storage.impl.TupleId;
+
+public class CacheStorageMapTest {
+
+    private EmbeddedCacheManager manager;
+    private Cache<String, Set<Long>> artifacts;
+    private Cache<TupleId, Map<String, String>> versions;
+    private FailingListener failing;
+    private StorageMap storage;
+
+    @BeforeEach
+    public void createCaches() {
+        manager = new DefaultCacheManager();
+        ConfigurationBuilder builder = new ConfigurationBuilder();
+        builder.transaction()
+            .transactionMode(TransactionMode.TRANSACTIONAL)
+            .lockingMode(LockingMode.PESSIMISTIC)
+            .transactionManagerLookup(new EmbeddedTransactionManagerLookup());
+        manager.defineConfiguration(InfinispanRegistryStorage.ARTIFACT_CACHE, builder.build());
+        manager.defineConfiguration(InfinispanRegistryStorage.VERSION_CACHE, builder.build());
+        artifacts = manager.getCache(InfinispanRegistryStorage.ARTIFACT_CACHE);
+        versions = manager.getCache(InfinispanRegistryStorage.VERSION_CACHE);
+        failing = new FailingListener();
+        artifacts.addListener(failing);
+        storage = CacheStorageMap.create(artifacts, versions);
+    }
+
+    @AfterEach
+    public void stopCaches() {
+        manager.stop();
+    }
+
+    @Test
+    public void testVersions() {
+        storage.createVersion("a", 1, contents(1, 11));
+        storage.createVersion("a", 2, contents(2, 12));
+
+        // a taken version moves on to the next free one
+        Map<String, String> contents = contents(2, 13);
+        storage.createVersion("a", 2, contents);
+        Assertions.assertEquals("3", contents.get(MetaDataKeys.VERSION));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(1L, 2L, 3L)), storage.get("a").keySet());
+        Assertions.assertEquals("13", storage.get("a").get(3L).get(MetaDataKeys.GLOBAL_ID));
+
+        Assertions.assertEquals(12L, storage.remove("a", 2));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(1L, 3L)), artifacts.get("a"));
+        Assertions.assertNull(versions.get(new TupleId("a", 2L)));
+        Assertions.assertThrows(VersionNotFoundException.class, () -> storage.remove("a", 2));
+        Assertions.assertThrows(ArtifactNotFoundException.class, () -> storage.remove("b", 1));
+
+        Map<Long, Map<String, String>> removed = storage.remove("a");
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(1L, 3L)), removed.keySet());
+        Assertions.assertTrue(artifacts.isEmpty());
+        Assertions.assertTrue(versions.isEmpty());
+        Assertions.assertNull(storage.remove("a"));
+    }
+
+    @Test
+    public void testFailedWritesRollBack() {
+        storage.createVersion("a", 1, contents(1, 11));
+
+        // the version entry is written first, but it's gone again once the artifact's version set fails
+        failing.armed = true;
+        Assertions.assertThrows(IllegalStateException.class, () -> storage.createVersion("a", 2, contents(2, 12)));
+        Assertions.assertNull(versions.get(new TupleId("a", 2L)));
+        Assertions.assertThrows(IllegalStateException.class, () -> storage.remove("a", 1));
+        Assertions.assertNotNull(versions.get(new TupleId("a", 1L)));
+        Assertions.assertThrows(IllegalStateException.class, () -> storage.remove("a"));
+        Assertions.assertNotNull(versions.get(new TupleId("a", 1L)));
+        failing.armed = false;
+
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(1L)), storage.get("a").keySet());
+        Assertions.assertEquals(1, versions.size());
+        storage.createVersion("a", 2, contents(2, 12));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), storage.get("a").keySet());
+    }
+
+    @Test
+    public void testAsMap() {
+        storage.createVersion("a", 1, contents(1, 11));
+        storage.createVersion("a", 2, contents(2, 12));
+        storage.createVersion("b", 1, contents(1, 13));
+
+        Map<String, Map<Long, Map<String, String>>> map = storage.asMap();
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("a", "b")), map.keySet());
+        Assertions.assertEquals("12", map.get("a").get(2L).get(MetaDataKeys.GLOBAL_ID));
+        Assertions.assertEquals("13", map.get("b").get(1L).get(MetaDataKeys.GLOBAL_ID));
+
+        // and back
+        storage.remove("a");
+        storage.remove("b");
+        storage.putAll(map);
+        Assertions.assertEquals(map, storage.asMap());
+    }
+
+    private static Map<String, String> contents(long version, long globalId) {
+        Map<String, String> contents = new HashMap<>();
+        contents.put(MetaDataKeys.VERSION, Long.toString(version));
+        contents.put(MetaDataKeys.GLOBAL_ID, Long.toString(globalId));
+        return contents;
+    }
+
+    /**
+     * Fails any write to the artifacts cache, after the version entries have been written.
+     */
+    @Listener
+    public static class FailingListener {
+        volatile boolean armed;
+
+        @CacheEntryCreated
+        @CacheEntryModified
+        @CacheEntryRemoved
+        public void onWrite(CacheEntryEvent<?, ?> event) {
+            if (armed && event.isPre()) {
+                throw new IllegalStateException("Failed write: " + event.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.infinispan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class InfinispanGlobalIdTest {
+
+    // the (replicated) counter cache, shared by all the "nodes"
+    private final Map<String, Long> counter = new ConcurrentHashMap<>();
+
+    private InfinispanRegistryStorage node(long blockSize) {
+        InfinispanRegistryStorage storage = new InfinispanRegistryStorage();
+        storage.counter = counter;
+        storage.idBlockSize = blockSize;
+        return storage;
+    }
+
+    @Test
+    public void testBlocks() {
+        InfinispanRegistryStorage node1 = node(3);
+        InfinispanRegistryStorage node2 = node(3);
+
+        // each node leases its own block, and only goes back to the counter once it's used up
+        Assertions.assertEquals(1, node1.nextGlobalId());
+        Assertions.assertEquals(4, node2.nextGlobalId());
+        Assertions.assertEquals(2, node1.nextGlobalId());
+        Assertions.assertEquals(3, node1.nextGlobalId());
+        Assertions.assertEquals(6L, counter.get(InfinispanRegistryStorage.KEY));
+        Assertions.assertEquals(7, node1.nextGlobalId());
+        Assertions.assertEquals(5, node2.nextGlobalId());
+        Assertions.assertEquals(9L, counter.get(InfinispanRegistryStorage.KEY));
+
+        // a restarted node abandons the rest of its block
+        InfinispanRegistryStorage restarted = node(3);
+        Assertions.assertEquals(10, restarted.nextGlobalId());
+    }
+
+    @Test
+    public void testBlockOfOne() {
+        // the old behaviour -- one counter update per id
+        InfinispanRegistryStorage node1 = node(1);
+        InfinispanRegistryStorage node2 = node(0);
+        Assertions.assertEquals(1, node1.nextGlobalId());
+        Assertions.assertEquals(2, node2.nextGlobalId());
+        Assertions.assertEquals(3, node1.nextGlobalId());
+        Assertions.assertEquals(3L, counter.get(InfinispanRegistryStorage.KEY));
+    }
+
+    @Test
+    public void testUniqueIds() throws Exception {
+        List<InfinispanRegistryStorage> nodes = Arrays.asList(node(7), node(7), node(7));
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                InfinispanRegistryStorage node = nodes.get(i % nodes.size());
+                futures.add(executor.submit(() -> {
+                    List<Long> ids = new ArrayList<>();
+                    for (int j = 0; j < perThread; j++) {
+                        ids.add(node.nextGlobalId());
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> ids = ConcurrentHashMap.newKeySet();
+            for (Future<List<Long>> future : futures) {
+                for (Long id : future.get(30, TimeUnit.SECONDS)) {
+                    Assertions.assertTrue(ids.add(id), "Duplicate id: " + id);
+                }
+            }
+            Assertions.assertEquals(6 * perThread, ids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
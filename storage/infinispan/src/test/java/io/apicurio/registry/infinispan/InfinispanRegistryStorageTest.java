@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.infinispan;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.storage.AbstractRegistryStorageTest;
+import io.apicurio.registry.storage.ArtifactMetaDataDto;
+import io.apicurio.registry.storage.MetaDataKeys;
+import io.apicurio.registry.storage.RegistryStorage;
+import io.apicurio.registry.storage.impl.TupleId;
+import io.apicurio.registry.types.ArtifactType;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+/**
+ * Runs the storage tests against distributed caches.
+ */
+@QuarkusTest
+@TestProfile(InfinispanDistProfile.class)
+public class InfinispanRegistryStorageTest extends AbstractRegistryStorageTest {
+
+    @Inject
+    InfinispanRegistryStorage storage;
+
+    @Inject
+    EmbeddedCacheManager manager;
+
+    /**
+     * @see io.apicurio.registry.storage.AbstractRegistryStorageTest#storage()
+     */
+    @Override
+    protected RegistryStorage storage() {
+        return storage;
+    }
+
+    @Test
+    public void testPerVersionLayout() throws Exception {
+        Cache<String, Set<Long>> artifacts = manager.getCache(InfinispanRegistryStorage.ARTIFACT_CACHE);
+        Cache<TupleId, Map<String, String>> versions = manager.getCache(InfinispanRegistryStorage.VERSION_CACHE);
+        Assertions.assertEquals(CacheMode.DIST_SYNC, artifacts.getCacheConfiguration().clustering().cacheMode());
+        Assertions.assertEquals(CacheMode.DIST_SYNC, versions.getCacheConfiguration().clustering().cacheMode());
+        Assertions.assertTrue(artifacts.getCacheConfiguration().transaction().transactionMode().isTransactional());
+        Assertions.assertTrue(versions.getCacheConfiguration().transaction().transactionMode().isTransactional());
+
+        // the artifact only lists its versions, each version is an entry of its own
+        String artifactId = "testPerVersionLayout";
+        ArtifactMetaDataDto v1 = storage().createArtifact(artifactId, ArtifactType.OPENAPI, ContentHandle.create(OPENAPI_CONTENT)).toCompletableFuture().get();
+        ArtifactMetaDataDto v2 = storage().updateArtifact(artifactId, ArtifactType.OPENAPI, ContentHandle.create(OPENAPI_CONTENT_V2)).toCompletableFuture().get();
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), artifacts.get(artifactId));
+        Assertions.assertEquals(String.valueOf(v1.getGlobalId()), versions.get(new TupleId(artifactId, 1L)).get(MetaDataKeys.GLOBAL_ID));
+        Assertions.assertEquals(String.valueOf(v2.getGlobalId()), versions.get(new TupleId(artifactId, 2L)).get(MetaDataKeys.GLOBAL_ID));
+
+        storage().deleteArtifactVersion(artifactId, 1);
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(2L)), artifacts.get(artifactId));
+        Assertions.assertNull(versions.get(new TupleId(artifactId, 1L)));
+        Assertions.assertEquals(OPENAPI_CONTENT_V2, storage().getArtifact(artifactId).getContent().content());
+
+        storage().deleteArtifact(artifactId);
+        Assertions.assertNull(artifacts.get(artifactId));
+        Assertions.assertNull(versions.get(new TupleId(artifactId, 2L)));
+    }
+
+    @Test
+    public void testUnindexedContent() throws Exception {
+        String artifactId = "testUnindexedContent";
+        storage().createArtifact(artifactId, ArtifactType.OPENAPI, ContentHandle.create(OPENAPI_CONTENT)).toCompletableFuture().get();
+        storage().updateArtifact(artifactId, ArtifactType.OPENAPI, ContentHandle.create(OPENAPI_CONTENT_V2)).toCompletableFuture().get();
+
+        // make v1 look like a version stored before the content hashes and the content index
+        Cache<TupleId, Map<String, String>> versions = manager.getCache(InfinispanRegistryStorage.VERSION_CACHE);
+        Map<String, String> v1 = new HashMap<>(versions.get(new TupleId(artifactId, 1L)));
+        v1.remove(MetaDataKeys.CONTENT_HASH);
+        v1.remove(MetaDataKeys.CANONICAL_HASH);
+        versions.put(new TupleId(artifactId, 1L), v1);
+        Cache<String, MapValue<String, String>> contentIndex = manager.getCache(InfinispanRegistryStorage.CONTENT_INDEX_CACHE);
+        String hash = MetaDataKeys.hash(OPENAPI_CONTENT.getBytes(StandardCharsets.UTF_8));
+        MapValue<String, String> index = contentIndex.get(artifactId);
+        index.getMap().values().removeIf("1"::equals);
+        contentIndex.put(artifactId, index);
+
+        Assertions.assertEquals(1, storage().getArtifactVersionMetaData(artifactId, false, ContentHandle.create(OPENAPI_CONTENT)).getVersion());
+        Assertions.assertEquals(1, storage().getArtifactVersionMetaData(artifactId, true, ContentHandle.create(OPENAPI_CONTENT)).getVersion());
+        Assertions.assertEquals(2, storage().getArtifactVersionMetaData(artifactId, false, ContentHandle.create(OPENAPI_CONTENT_V2)).getVersion());
+        // found by the scan, the index is backfilled
+        Assertions.assertEquals("1", contentIndex.get(artifactId).getMap().get(MetaDataKeys.contentIndexKey(false, hash)));
+    }
+}
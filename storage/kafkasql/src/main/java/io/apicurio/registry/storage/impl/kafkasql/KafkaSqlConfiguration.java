@@ -31,6 +31,11 @@ public interface KafkaSqlConfiguration {
     public Integer pollTimeout();
     public Integer baseOffset();
     public Integer responseTimeout();
+    public Integer responseThreads();
+    public boolean isSinkBatchEnabled();
+    public Integer sinkQueueSize();
+    public String snapshotDir();
+    public Integer snapshotInterval();
     public Properties producerProperties();
     public Properties consumerProperties();
     public Properties adminProperties();
@@ -16,72 +16,178 @@
 
 package io.apicurio.registry.storage.impl.kafkasql;
 
+import static io.apicurio.registry.metrics.MetricIDs.STORAGE_GROUP_TAG;
+import static io.apicurio.registry.metrics.MetricIDs.STORAGE_PENDING_RESPONSE_COUNT;
+import static io.apicurio.registry.metrics.MetricIDs.STORAGE_PENDING_RESPONSE_COUNT_DESC;
+import static io.apicurio.registry.metrics.MetricIDs.STORAGE_RESPONSE_WAIT_TIME;
+import static io.apicurio.registry.metrics.MetricIDs.STORAGE_RESPONSE_WAIT_TIME_DESC;
+import static org.eclipse.microprofile.metrics.MetricRegistry.Type.APPLICATION;
+import static org.eclipse.microprofile.metrics.MetricType.GAUGE;
+import static org.eclipse.microprofile.metrics.MetricType.TIMER;
+
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+
 import io.apicurio.registry.types.RegistryException;
 
 /**
- * Coordinates "write" responses across threads in the Kafka-SQL storage implementation.  Basically this is used
- * to communicate between the Kafka consumer thread and the waiting HTTP/API thread, where the HTTP thread is
- * waiting for an operation to be completed by the Kafka consumer thread.
- *
- * @author eric.wittmann@gmail.com
+ * Coordinates the threads submitting messages to the Kafka topic with the thread applying them to the
+ * SQL store.  Each submitted operation gets a UUID and a future, which is completed (by the thread applying
+ * the journal) with the result of the operation, or exceptionally if it failed or the response did not
+ * arrive within the configured timeout.  The futures are completed on a small, bounded pool of response
+ * threads, so the callbacks chained onto them never run on the thread applying the journal.
  */
 @ApplicationScoped
 public class KafkaSqlCoordinator {
 
+    private static final int RESPONSE_QUEUE_SIZE = 1000;
+
     @Inject
     KafkaSqlConfiguration configuration;
 
-    private static final Object NULL = new Object();
-    private Map<UUID, CountDownLatch> latches = new ConcurrentHashMap<>();
-    private Map<UUID, Object> returnValues = new ConcurrentHashMap<>();
+    @Inject
+    @RegistryType(type = APPLICATION)
+    MetricRegistry metricRegistry;
+
+    private final Map<UUID, Response> responses = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private ScheduledThreadPoolExecutor timeouts;
+    private ThreadPoolExecutor responders;
+    private Timer waitTime;
+
+    @PostConstruct
+    void init() {
+        timeouts = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "KSQL Coordinator Timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timeouts.setRemoveOnCancelPolicy(true);
+
+        // when all the response threads are busy and the queue is full, the caller (the journal consumer)
+        // waits for room in the queue, which throttles it until the callbacks catch up
+        AtomicInteger counter = new AtomicInteger();
+        int threads = Math.max(1, configuration.responseThreads());
+        responders = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(RESPONSE_QUEUE_SIZE), r -> {
+                    Thread thread = new Thread(r, "KSQL Coordinator Responses-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (r, executor) -> {
+                    try {
+                        if (!executor.isShutdown()) {
+                            executor.getQueue().put(r);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RegistryException("[KafkaSqlCoordinator] Thread interrupted waiting to complete a Kafka Sql response.", e);
+                    }
+                });
+
+        Metadata gauge = Metadata.builder().withName(STORAGE_PENDING_RESPONSE_COUNT)
+                .withDescription(STORAGE_PENDING_RESPONSE_COUNT_DESC).withType(GAUGE).build();
+        metricRegistry.register(gauge, (Gauge<Integer>) pending::get,
+                new Tag("group", STORAGE_GROUP_TAG), new Tag("metric", STORAGE_PENDING_RESPONSE_COUNT));
+        Metadata timer = Metadata.builder().withName(STORAGE_RESPONSE_WAIT_TIME)
+                .withDescription(STORAGE_RESPONSE_WAIT_TIME_DESC).withType(TIMER).build();
+        waitTime = metricRegistry.timer(timer, new Tag("group", STORAGE_GROUP_TAG), new Tag("metric", STORAGE_RESPONSE_WAIT_TIME));
+    }
+
+    @PreDestroy
+    void destroy() {
+        timeouts.shutdownNow();
+        responders.shutdown();
+    }
 
     /**
-     * Creates a UUID for a single operation.
+     * Creates a UUID for a single operation.  The response must arrive within the configured timeout,
+     * otherwise the operation's future is completed with a timeout exception (and a late response is ignored).
      */
     public UUID createUUID() {
         UUID uuid = UUID.randomUUID();
-        latches.put(uuid, new CountDownLatch(1));
+        Response response = new Response();
+        responses.put(uuid, response);
+        pending.incrementAndGet();
+
+        long start = System.nanoTime();
+        response.timeout = timeouts.schedule(() -> {
+            responses.remove(uuid);
+            complete(response, new RegistryException("[KafkaSqlCoordinator] Timed out waiting for a Kafka Sql response.",
+                    new TimeoutException("No response within " + configuration.responseTimeout() + " ms")));
+        }, configuration.responseTimeout(), TimeUnit.MILLISECONDS);
+        response.future.whenComplete((r, t) -> {
+            pending.decrementAndGet();
+            waitTime.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        });
         return uuid;
     }
 
     /**
-     * Waits for a response to the operation with the given UUID. There is a countdown latch for each operation.  The
-     * caller waiting for the response will wait for the countdown to happen and then proceed.  We also remove
-     * the latch from the Map here since it's not needed anymore.
+     * Returns the future response of the operation with the given UUID, without blocking.  The future is
+     * completed exceptionally with the {@link RegistryException} thrown by the operation, or on timeout.
+     * The response is only handed out once.
+     *
+     * @param uuid
+     */
+    public CompletableFuture<Object> getResponse(UUID uuid) {
+        Response response = responses.get(uuid);
+        if (response == null) {
+            CompletableFuture<Object> missing = new CompletableFuture<>();
+            missing.completeExceptionally(new RegistryException("[KafkaSqlCoordinator] No pending Kafka Sql operation " + uuid
+                    + " (timed out, or its response was already consumed)."));
+            return missing;
+        }
+        // keep the (possibly already completed) response around until it's been handed out, then clean it up
+        response.future.whenComplete((r, t) -> {
+            responses.remove(uuid);
+            response.timeout.cancel(false);
+        });
+        return response.future;
+    }
+
+    /**
+     * Waits for a response to the operation with the given UUID, blocking the calling thread.
      *
      * @param uuid
-     * @throws InterruptedException
      */
     public Object waitForResponse(UUID uuid) {
         try {
-            latches.get(uuid).await(configuration.responseTimeout(), TimeUnit.MILLISECONDS);
-
-            Object rval = returnValues.remove(uuid);
-            if (rval == NULL) {
-                return null;
-            } else if (rval instanceof RegistryException) {
-                throw (RegistryException) rval;
-            }
-            return rval;
+            return getResponse(uuid).get();
         } catch (InterruptedException e) {
-          throw new RegistryException("[KafkaSqlCoordinator] Thread interrupted waiting for a Kafka Sql response.", e);
-        } finally {
-            latches.remove(uuid);
+            throw new RegistryException("[KafkaSqlCoordinator] Thread interrupted waiting for a Kafka Sql response.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RegistryException) {
+                throw (RegistryException) e.getCause();
+            }
+            throw new RegistryException(e.getCause());
         }
     }
 
     /**
-     * Countdown the latch for the given UUID.  This will wake up the thread waiting for the response
-     * so that it can proceed.
+     * Completes the future of the operation with the given UUID, so that the thread (or callback) waiting
+     * for the response can proceed.
      * @param uuid
      * @param returnValue
      */
@@ -91,22 +197,37 @@ public class KafkaSqlCoordinator {
             return;
         }
 
-        // If there is no countdown latch, then there is no HTTP thread waiting for
-        // a response.  This means one of two possible things:
+        // If there is no pending response, then there is no HTTP thread waiting for it.
+        // This means one of three possible things:
         //  1) We're in a cluster and the HTTP thread is on another node
         //  2) We're starting up and consuming all the old journal entries
-        if (!latches.containsKey(uuid)) {
+        //  3) The response arrived after the timeout
+        Response response = responses.get(uuid);
+        if (response == null) {
             return;
         }
 
-        // Otherwise, put the return value in the Map and countdown the latch.  The latch
-        // countdown will notify the HTTP thread that the operation is complete and there is
-        // a return value waiting for it.
-        if (returnValue == null) {
-            returnValue = NULL;
-        }
-        returnValues.put(uuid, returnValue);
-        latches.get(uuid).countDown();
+        complete(response, returnValue);
+    }
+
+    /**
+     * Completes the response on one of the response threads (see {@link #init()}).
+     * @param response
+     * @param returnValue
+     */
+    private void complete(Response response, Object returnValue) {
+        responders.execute(() -> {
+            if (returnValue instanceof RegistryException) {
+                response.future.completeExceptionally((RegistryException) returnValue);
+            } else {
+                response.future.complete(returnValue);
+            }
+        });
+    }
+
+    private static class Response {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        volatile ScheduledFuture<?> timeout;
     }
 
 }
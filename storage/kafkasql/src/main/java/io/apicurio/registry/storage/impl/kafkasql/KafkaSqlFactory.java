@@ -16,6 +16,7 @@
 
 package io.apicurio.registry.storage.impl.kafkasql;
 
+import java.util.Optional;
 import java.util.Properties;
 import java.util.UUID;
 
@@ -77,6 +78,32 @@ public class KafkaSqlFactory {
     @ConfigProperty(name = "registry.kafkasql.coordinator.response-timeout", defaultValue = "30000")
     Integer responseTimeout;
 
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.coordinator.response-threads", defaultValue = "4")
+    Integer responseThreads;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.sink.batch.enabled", defaultValue = "true")
+    Boolean sinkBatchEnabled;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.sink.queue.size", defaultValue = "4")
+    Integer sinkQueueSize;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.snapshot.dir")
+    Optional<String> snapshotDir;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.snapshot.interval", defaultValue = "300000")
+    Integer snapshotInterval;
+
+    // JSON by default, so that nodes still running an older version can read the journal during a rolling
+    // upgrade; the binary encoding can be enabled once all the nodes read it
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.serde.binary", defaultValue = "false")
+    boolean binaryEncoding;
+
     @Inject
     @RegistryProperties(
             value = {"registry.kafka.common", "registry.kafkasql.producer"},
@@ -135,6 +162,26 @@ public class KafkaSqlFactory {
                 return responseTimeout;
             }
             @Override
+            public Integer responseThreads() {
+                return responseThreads;
+            }
+            @Override
+            public boolean isSinkBatchEnabled() {
+                return sinkBatchEnabled;
+            }
+            @Override
+            public Integer sinkQueueSize() {
+                return sinkQueueSize;
+            }
+            @Override
+            public String snapshotDir() {
+                return snapshotDir.orElse(null);
+            }
+            @Override
+            public Integer snapshotInterval() {
+                return snapshotInterval;
+            }
+            @Override
             public Properties producerProperties() {
                 return producerProperties;
             }
@@ -164,11 +211,14 @@ public class KafkaSqlFactory {
         props.putIfAbsent(ProducerConfig.CLIENT_ID_CONFIG, "Producer-" + topic);
         props.putIfAbsent(ProducerConfig.ACKS_CONFIG, "all");
         props.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG, 10);
+        // keep the journal order of messages sent back-to-back (e.g. content + artifact) even on retries
+        props.putIfAbsent(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
         props.putIfAbsent(ProducerConfig.PARTITIONER_CLASS_CONFIG, KafkaSqlPartitioner.class);
+        props.putIfAbsent(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
 
         // Create the Kafka producer
-        KafkaSqlKeySerializer keySerializer = new KafkaSqlKeySerializer();
-        KafkaSqlValueSerializer valueSerializer = new KafkaSqlValueSerializer();
+        KafkaSqlKeySerializer keySerializer = new KafkaSqlKeySerializer(binaryEncoding);
+        KafkaSqlValueSerializer valueSerializer = new KafkaSqlValueSerializer(binaryEncoding);
         return new AsyncProducer<MessageKey, MessageValue>(props, keySerializer, valueSerializer);
     }
 
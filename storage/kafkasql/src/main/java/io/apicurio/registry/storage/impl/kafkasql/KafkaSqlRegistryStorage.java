@@ -38,8 +38,11 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import javax.annotation.PreDestroy;
@@ -50,8 +53,11 @@ import javax.inject.Inject;
 import io.quarkus.security.identity.SecurityIdentity;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.config.TopicConfig;
 import org.eclipse.microprofile.metrics.annotation.ConcurrentGauge;
 import org.eclipse.microprofile.metrics.annotation.Counted;
@@ -128,6 +134,9 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
     @Inject
     KafkaSqlStore sqlStore;
 
+    @Inject
+    KafkaSqlSnapshotter snapshotter;
+
     @Inject
     ArtifactTypeUtilProviderFactory factory;
     
@@ -172,6 +181,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
         configuration.topicProperties().entrySet().forEach(entry -> topicProperties.put(entry.getKey().toString(), entry.getValue().toString()));
         // Use log compaction by default.
         topicProperties.putIfAbsent(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT);
+        // The journal can be partitioned (by artifact) with registry.kafkasql.topic.num.partitions, see KafkaUtil.NUM_PARTITIONS
         Properties adminProperties = configuration.adminProperties();
         adminProperties.putIfAbsent(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, configuration.bootstrapServers());
         KafkaUtil.createTopics(adminProperties, topicNames, topicProperties);
@@ -179,13 +189,19 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
 
     /**
      * Start the KSQL Kafka consumer thread which is responsible for subscribing to the kafka topic,
-     * consuming JournalRecord entries found on that topic, and applying those journal entries to
-     * the internal data model.
+     * consuming JournalRecord entries found on that topic, and handing those journal entries to the
+     * sink so they can be applied to the internal data model.
      * @param consumer
      */
     private void startConsumerThread(final KafkaConsumer<MessageKey, MessageValue> consumer) {
         log.info("Starting KSQL consumer thread on topic: {}", configuration.topic());
         log.info("Bootstrap servers: " + configuration.bootstrapServers());
+        stopped = false;
+        // one sink per partition, so that the records of different partitions are applied in parallel,
+        // while the records of a single partition (and so of a single artifact) are still applied in order
+        final Map<Integer, Consumer<List<ConsumerRecord<MessageKey, MessageValue>>>> sinks = new HashMap<>();
+        final Function<Integer, Consumer<List<ConsumerRecord<MessageKey, MessageValue>>>> sinkFactory = configuration.sinkQueueSize() > 0 ?
+                this::startSinkThread : partition -> this::applyJournalRecords;
         Runnable runner = () -> {
             log.info("KSQL consumer thread startup lag: {}", configuration.startupLag());
 
@@ -193,28 +209,44 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
                 // Startup lag
                 try { Thread.sleep(configuration.startupLag()); } catch (InterruptedException e) { }
 
+                // Restore the latest snapshot (if any), so only the rest of the journal needs to be replayed
+                final Map<TopicPartition, Long> snapshotOffsets = new HashMap<>(snapshotter.restore());
+
                 log.info("Subscribing to {}", configuration.topic());
 
                 // Subscribe to the journal topic
                 Collection<String> topics = Collections.singleton(configuration.topic());
-                consumer.subscribe(topics);
+                consumer.subscribe(topics, new ConsumerRebalanceListener() {
+                    @Override
+                    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                    }
+
+                    @Override
+                    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                        // Skip the journal records already contained in the restored snapshot
+                        partitions.forEach(tp -> {
+                            Long offset = snapshotOffsets.remove(tp);
+                            if (offset != null) {
+                                consumer.seek(tp, offset);
+                            }
+                        });
+                    }
+                });
 
                 // Main consumer loop
                 while (!stopped) {
                     final ConsumerRecords<MessageKey, MessageValue> records = consumer.poll(Duration.ofMillis(configuration.pollTimeout()));
                     if (records != null && !records.isEmpty()) {
                         log.debug("Consuming {} journal records.", records.count());
-                        records.forEach(record -> {
-                            // TODO instead of processing the journal record directly on the consumer thread, instead queue them and have *another* thread process the queue
-                            kafkaSqlSink.processMessage(record);
-                        });
+                        for (TopicPartition partition : records.partitions()) {
+                            sinks.computeIfAbsent(partition.partition(), sinkFactory).accept(records.records(partition));
+                        }
                     }
                 }
             } finally {
                 consumer.close();
             }
         };
-        stopped = false;
         Thread thread = new Thread(runner);
         thread.setDaemon(true);
         thread.setName("KSQL Kafka Consumer Thread");
@@ -222,25 +254,85 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
     }
 
     /**
-     * Ensures that the given content exists in the database.  If it's already in the DB, then this just 
-     * returns the content hash.  If the content does not yet exist in the DB, then it is added (by sending
-     * the appropriate message to the Kafka topic and awaiting the response).
-     * 
-     * @param content
+     * Start a KSQL sink thread, which applies the journal records of a single partition polled by the
+     * consumer thread, so that the consumer can already fetch the next records while the previous ones are
+     * being applied.  The queue between the two threads is bounded, so a slow sink eventually blocks the consumer.
+     * @param partition the journal partition
+     * @return a function handing records over to the sink thread
+     */
+    private Consumer<List<ConsumerRecord<MessageKey, MessageValue>>> startSinkThread(int partition) {
+        final BlockingQueue<List<ConsumerRecord<MessageKey, MessageValue>>> queue = new ArrayBlockingQueue<>(configuration.sinkQueueSize());
+        Runnable runner = () -> {
+            while (!stopped || !queue.isEmpty()) {
+                try {
+                    List<ConsumerRecord<MessageKey, MessageValue>> records = queue.poll(configuration.pollTimeout(), TimeUnit.MILLISECONDS);
+                    if (records != null) {
+                        applyJournalRecords(records);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Throwable t) {
+                    log.error("Error applying journal records.", t);
+                }
+            }
+        };
+        Thread thread = new Thread(runner);
+        thread.setDaemon(true);
+        thread.setName("KSQL Sink Thread " + partition);
+        thread.start();
+
+        return records -> {
+            try {
+                queue.put(records);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RegistryStorageException(e);
+            }
+        };
+    }
+
+    /**
+     * Applies the given journal records (of a single partition) to the internal data model, either as a
+     * single batch (one transaction) or one record at a time.  Snapshots (when enabled) are taken in
+     * between batches.
+     * @param records
+     */
+    private void applyJournalRecords(List<ConsumerRecord<MessageKey, MessageValue>> records) {
+        snapshotter.apply(records, () -> {
+            if (configuration.isSinkBatchEnabled()) {
+                kafkaSqlSink.processMessages(records);
+            } else {
+                records.forEach(kafkaSqlSink::processMessage);
+            }
+        });
+    }
+
+    /**
+     * Submits the artifact (create or update) to the Kafka topic and waits for it to be applied.  The content
+     * is always sent along with the artifact (see {@link KafkaSqlSubmitter#submitArtifactWithContent}), even
+     * when it is already in the DB, so that it is on the artifact's own partition and is always replayed before
+     * the artifact; storing it again is a no-op.  There is still only one response to wait for.
+     *
      * @param artifactId
+     * @param action
      * @param artifactType
+     * @param content
+     * @param metaData
      */
-    private String ensureContent(ContentHandle content, String artifactId, ArtifactType artifactType) {
-        byte[] contentBytes = content.bytes();
-        String contentHash = DigestUtils.sha256Hex(contentBytes);
-        
-        if (!sqlStore.isContentExists(contentHash)) {
-            CompletableFuture<UUID> future = submitter.submitContent(tenantContext.tenantId(), artifactId, contentHash, artifactType, content);
-            UUID uuid = ConcurrentUtil.get(future);
-            coordinator.waitForResponse(uuid);
+    private CompletionStage<ArtifactMetaDataDto> submitArtifact(String artifactId, ActionType action, ArtifactType artifactType,
+            ContentHandle content, EditableArtifactMetaDataDto metaData) {
+        String contentHash = DigestUtils.sha256Hex(content.bytes());
+        String createdBy = securityIdentity.getPrincipal().getName();
+        Date createdOn = new Date();
+
+        if (metaData == null) {
+            metaData = extractMetaData(artifactType, content);
         }
-        
-        return contentHash;
+
+        return submitter.submitArtifactWithContent(tenantContext.tenantId(), artifactId, action, artifactType, contentHash, content, createdBy, createdOn, metaData)
+                .thenCompose(coordinator::getResponse)
+                .thenCompose(rval -> (CompletionStage<ArtifactMetaDataDto>) rval);
     }
 
     
@@ -263,18 +355,8 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
         if (sqlStore.isArtifactExists(artifactId)) {
             throw new ArtifactAlreadyExistsException(artifactId);
         }
-        
-        String contentHash = ensureContent(content, artifactId, artifactType);
-        String createdBy = securityIdentity.getPrincipal().getName();
-        Date createdOn = new Date();
-        
-        if (metaData == null) {
-            metaData = extractMetaData(artifactType, content);
-        }
 
-        return submitter
-                .submitArtifact(tenantContext.tenantId(), artifactId, ActionType.Create, artifactType, contentHash, createdBy, createdOn, metaData)
-                .thenCompose(reqId -> (CompletionStage<ArtifactMetaDataDto>) coordinator.waitForResponse(reqId));
+        return submitArtifact(artifactId, ActionType.Create, artifactType, content, metaData);
     }
 
     /**
@@ -328,17 +410,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
             throw new ArtifactNotFoundException(artifactId);
         }
 
-        String contentHash = ensureContent(content, artifactId, artifactType);
-        String createdBy = securityIdentity.getPrincipal().getName();
-        Date createdOn = new Date();
-        
-        if (metaData == null) {
-            metaData = extractMetaData(artifactType, content);
-        }
-        
-        return submitter
-                .submitArtifact(tenantContext.tenantId(), artifactId, ActionType.Update, artifactType, contentHash, createdBy, createdOn, metaData)
-                .thenCompose(reqId -> (CompletionStage<ArtifactMetaDataDto>) coordinator.waitForResponse(reqId));
+        return submitArtifact(artifactId, ActionType.Update, artifactType, content, metaData);
     }
 
     /**
@@ -349,6 +421,14 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
         return sqlStore.getArtifactIds(limit);
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#getArtifactIds(java.lang.String, int)
+     */
+    @Override
+    public List<String> getArtifactIds(String after, int limit) {
+        return sqlStore.getArtifactIds(after, limit);
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#searchArtifacts(java.lang.String, int, int, io.apicurio.registry.rest.beans.SearchOver, io.apicurio.registry.rest.beans.SortOrder)
      */
@@ -413,10 +493,10 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
 
         return submitter
                 .submitArtifactRule(tenantContext.tenantId(), artifactId, rule, ActionType.Create, config)
-                .thenCompose(reqId -> {
-                    CompletionStage<Void> rval = (CompletionStage<Void>) coordinator.waitForResponse(reqId);
+                .thenCompose(coordinator::getResponse)
+                .thenCompose(rval -> {
                     log.debug("===============> Artifact rule (async) completed.  Rval: {}", rval);
-                    return rval;
+                    return (CompletionStage<Void>) rval;
                 });
     }
 
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.sql.KafkaSqlStore;
+import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
+
+/**
+ * Periodically snapshots the local SQL store of the Kafka-SQL storage to a directory, together with
+ * the journal offsets that had been applied when the snapshot was taken.  On startup the latest
+ * snapshot is restored, so that only the journal records written after it have to be replayed.
+ *
+ * The journal may be applied by several threads (one per partition).  A snapshot is only taken while
+ * none of them is in the middle of a batch, so the database and the recorded offsets always match.
+ */
+@ApplicationScoped
+public class KafkaSqlSnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaSqlSnapshotter.class);
+
+    private static final String SNAPSHOT_FILE = "snapshot.properties";
+    private static final String SCRIPT_PREFIX = "snapshot-";
+    private static final String SCRIPT_SUFFIX = ".sql.gz";
+    private static final String KEY_TOPIC = "topic";
+    private static final String KEY_SCRIPT = "script";
+    private static final String KEY_OFFSET_PREFIX = "offset.";
+
+    @Inject
+    KafkaSqlConfiguration configuration;
+
+    @Inject
+    KafkaSqlStore sqlStore;
+
+    // partition -> next offset to consume
+    private final Map<Integer, Long> offsets = new ConcurrentHashMap<>();
+    // appliers share the read lock, the snapshot takes the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean snapshotting = new AtomicBoolean();
+    private volatile long lastSnapshot = System.currentTimeMillis();
+    private volatile boolean dirty;
+
+    public boolean isEnabled() {
+        return configuration.snapshotDir() != null && sqlStore.isSnapshotSupported();
+    }
+
+    /**
+     * Restores the latest snapshot (if there is one) into the SQL store.
+     * @return the offsets to resume consuming the journal from, empty if the journal must be replayed from the start
+     */
+    public Map<TopicPartition, Long> restore() {
+        if (!isEnabled()) {
+            return Collections.emptyMap();
+        }
+        Path dir = Paths.get(configuration.snapshotDir());
+        Path file = dir.resolve(SNAPSHOT_FILE);
+        if (!Files.isReadable(file)) {
+            log.info("No KSQL snapshot found in {}, replaying the entire journal.", dir);
+            return Collections.emptyMap();
+        }
+
+        Properties snapshot = new Properties();
+        try (InputStream is = Files.newInputStream(file)) {
+            snapshot.load(is);
+        } catch (IOException e) {
+            log.warn("Unable to read KSQL snapshot {}, replaying the entire journal.", file, e);
+            return Collections.emptyMap();
+        }
+        if (!configuration.topic().equals(snapshot.getProperty(KEY_TOPIC))) {
+            log.warn("KSQL snapshot {} was taken from another topic ({}), replaying the entire journal.", file, snapshot.getProperty(KEY_TOPIC));
+            return Collections.emptyMap();
+        }
+        Path script = dir.resolve(snapshot.getProperty(KEY_SCRIPT, ""));
+        if (!Files.isReadable(script)) {
+            log.warn("KSQL snapshot script {} is missing, replaying the entire journal.", script);
+            return Collections.emptyMap();
+        }
+
+        Map<TopicPartition, Long> result = new HashMap<>();
+        try {
+            for (String name : snapshot.stringPropertyNames()) {
+                if (name.startsWith(KEY_OFFSET_PREFIX)) {
+                    int partition = Integer.parseInt(name.substring(KEY_OFFSET_PREFIX.length()));
+                    long offset = Long.parseLong(snapshot.getProperty(name));
+                    result.put(new TopicPartition(configuration.topic(), partition), offset);
+                    offsets.put(partition, offset);
+                }
+            }
+            long start = System.currentTimeMillis();
+            sqlStore.restoreSnapshot(script);
+            log.info("Restored KSQL snapshot {} in {} ms, resuming the journal at {}.", script, System.currentTimeMillis() - start, result);
+            return result;
+        } catch (Exception e) {
+            log.error("Failed to restore KSQL snapshot {}, replaying the entire journal.", script, e);
+            offsets.clear();
+            sqlStore.resetDatabase();
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Applies the given journal records (using the applier), records their offsets, and takes a snapshot
+     * if one is due.
+     * @param records the records of a single partition
+     * @param applier applies the records to the SQL store
+     */
+    public void apply(List<ConsumerRecord<MessageKey, MessageValue>> records, Runnable applier) {
+        if (!isEnabled() || records.isEmpty()) {
+            applier.run();
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            applier.run();
+            records.forEach(record -> offsets.put(record.partition(), record.offset() + 1));
+            dirty = true;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (System.currentTimeMillis() - lastSnapshot >= configuration.snapshotInterval() && snapshotting.compareAndSet(false, true)) {
+            // waits for the other appliers to finish their current batch
+            lock.writeLock().lock();
+            try {
+                snapshot();
+            } finally {
+                lock.writeLock().unlock();
+                snapshotting.set(false);
+            }
+        }
+    }
+
+    private void snapshot() {
+        lastSnapshot = System.currentTimeMillis();
+        if (!dirty) {
+            return;
+        }
+        Path dir = Paths.get(configuration.snapshotDir());
+        String scriptName = SCRIPT_PREFIX + lastSnapshot + SCRIPT_SUFFIX;
+        try {
+            Files.createDirectories(dir);
+            sqlStore.createSnapshot(dir.resolve(scriptName));
+
+            Properties snapshot = new Properties();
+            snapshot.setProperty(KEY_TOPIC, configuration.topic());
+            snapshot.setProperty(KEY_SCRIPT, scriptName);
+            offsets.forEach((partition, offset) -> snapshot.setProperty(KEY_OFFSET_PREFIX + partition, String.valueOf(offset)));
+
+            // Write the offsets next to the file and then move it over the old one, so a crash
+            // never leaves a snapshot pointing to a partially written script.
+            Path tmp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+            try (OutputStream os = Files.newOutputStream(tmp)) {
+                snapshot.store(os, "Apicurio Registry KSQL snapshot");
+            }
+            Files.move(tmp, dir.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+            log.info("Created KSQL snapshot {} in {} ms.", scriptName, System.currentTimeMillis() - lastSnapshot);
+
+            deleteOldScripts(dir, scriptName);
+        } catch (Exception e) {
+            log.warn("Failed to create KSQL snapshot in {}.", dir, e);
+        }
+    }
+
+    private void deleteOldScripts(Path dir, String current) throws IOException {
+        try (DirectoryStream<Path> scripts = Files.newDirectoryStream(dir, SCRIPT_PREFIX + "*" + SCRIPT_SUFFIX)) {
+            for (Path script : scripts) {
+                if (!script.getFileName().toString().equals(current)) {
+                    Files.deleteIfExists(script);
+                }
+            }
+        }
+    }
+
+}
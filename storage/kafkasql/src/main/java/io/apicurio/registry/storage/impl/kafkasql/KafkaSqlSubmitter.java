@@ -18,6 +18,7 @@ package io.apicurio.registry.storage.impl.kafkasql;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -25,6 +26,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.internals.RecordHeader;
 
 import io.apicurio.registry.content.ContentHandle;
@@ -77,9 +79,23 @@ public class KafkaSqlSubmitter {
      * @param value
      */
     public CompletableFuture<UUID> send(MessageKey key, MessageValue value) {
-        UUID requestId = coordinator.createUUID();
-        RecordHeader header = new RecordHeader("req", requestId.toString().getBytes());
-        ProducerRecord<MessageKey, MessageValue> record = new ProducerRecord<>(configuration.topic(), 0, key, value, Collections.singletonList(header));
+        return send(key, value, true);
+    }
+
+    /**
+     * Sends a message to the Kafka topic.  When no response is expected, the message carries no request id
+     * and the returned UUID is null.
+     * @param key
+     * @param value
+     * @param expectResponse
+     */
+    public CompletableFuture<UUID> send(MessageKey key, MessageValue value, boolean expectResponse) {
+        UUID requestId = expectResponse ? coordinator.createUUID() : null;
+        List<Header> headers = requestId != null
+                ? Collections.singletonList(new RecordHeader("req", requestId.toString().getBytes()))
+                : Collections.emptyList();
+        // the partition is chosen by the KafkaSqlPartitioner, from the key's partition key (i.e. the artifact)
+        ProducerRecord<MessageKey, MessageValue> record = new ProducerRecord<>(configuration.topic(), null, key, value, headers);
         return producer.apply(record).thenApply(rm -> requestId);
     }
 
@@ -108,6 +124,21 @@ public class KafkaSqlSubmitter {
         return this.submitArtifact(tenantId, artifactId, action,  null, null, null, null, null);
     }
 
+    /**
+     * Sends the content and then the artifact referencing it.  Both have the same partition key (the artifact),
+     * so they go to the same partition and the content is always applied first, also when the journal is
+     * replayed; only the artifact message carries a request id, so the caller waits for a single response.
+     * The artifact is only sent once the content has been acked, so a failed content send never leaves an
+     * artifact without its content behind (an orphaned content message, on the other hand, is harmless).
+     */
+    public CompletableFuture<UUID> submitArtifactWithContent(String tenantId, String artifactId, ActionType action,
+            ArtifactType artifactType, String contentHash, ContentHandle content, String createdBy, Date createdOn,
+            EditableArtifactMetaDataDto metaData) {
+        CompletableFuture<UUID> contentSent = send(ContentKey.create(tenantId, artifactId, contentHash),
+                ContentValue.create(ActionType.Create, artifactType, content), false);
+        return contentSent.thenCompose(c -> submitArtifact(tenantId, artifactId, action, artifactType, contentHash, createdBy, createdOn, metaData));
+    }
+
     
     /* ******************************************************************************************
      * Version
@@ -156,11 +187,11 @@ public class KafkaSqlSubmitter {
      * ****************************************************************************************** */
     public void submitArtifactVersionTombstone(String tenantId, String artifactId, int version) {
         ArtifactVersionKey key = ArtifactVersionKey.create(tenantId, artifactId, version);
-        send(key, null);
+        send(key, null, false);
     }
     public void submitArtifactRuleTombstone(String tenantId, String artifactId, RuleType rule) {
         ArtifactRuleKey key = ArtifactRuleKey.create(tenantId, artifactId, rule);
-        send(key, null);
+        send(key, null, false);
     }
     
 }
@@ -24,7 +24,7 @@ import java.util.UUID;
 public class ArtifactKey extends AbstractMessageKey {
     
     private String artifactId;
-    private final String uuid = UUID.randomUUID().toString();
+    private String uuid = UUID.randomUUID().toString();
     
     /**
      * Creator method.
@@ -38,6 +38,18 @@ public class ArtifactKey extends AbstractMessageKey {
         return key;
     }
 
+    /**
+     * Creator method, for a key read back from the journal.
+     * @param tenantId
+     * @param artifactId
+     * @param uuid
+     */
+    public static final ArtifactKey create(String tenantId, String artifactId, String uuid) {
+        ArtifactKey key = create(tenantId, artifactId);
+        key.uuid = uuid;
+        return key;
+    }
+
     /**
      * @see io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey#getType()
      */
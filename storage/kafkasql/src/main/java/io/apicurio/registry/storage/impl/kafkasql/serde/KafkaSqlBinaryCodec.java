@@ -0,0 +1,295 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql.serde;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.input.UnsynchronizedByteArrayInputStream;
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+
+import io.apicurio.registry.storage.EditableArtifactMetaDataDto;
+import io.apicurio.registry.storage.RuleConfigurationDto;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactRuleKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactVersionKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ContentKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.GlobalRuleKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageType;
+import io.apicurio.registry.storage.impl.kafkasql.values.AbstractMessageValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ActionType;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactRuleValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactVersionValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.GlobalRuleValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
+import io.apicurio.registry.types.ArtifactState;
+import io.apicurio.registry.types.RuleType;
+
+/**
+ * Compact binary encoding of the Kafka+SQL journal keys and (non-content) values.
+ *
+ * Byte 0 is the message type (as for the JSON encoding), byte 1 is the format version, followed by the
+ * fields of the key/value in a fixed order.  JSON encoded records always have a '{' at byte 1, so both
+ * encodings can be told apart (and read) when consuming a journal written by older versions.
+ */
+public final class KafkaSqlBinaryCodec {
+
+    public static final byte FORMAT_V1 = 1;
+
+    private static final int NULL = -1;
+
+    private KafkaSqlBinaryCodec() {
+    }
+
+    /**
+     * Returns true if the given (key or non-content value) bytes are binary encoded.
+     * @param data
+     */
+    public static boolean isBinary(byte[] data) {
+        return data.length > 1 && data[1] == FORMAT_V1;
+    }
+
+    public static byte[] encodeKey(MessageKey key) throws IOException {
+        UnsynchronizedByteArrayOutputStream bytes = new UnsynchronizedByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(key.getType().getOrd());
+        out.writeByte(FORMAT_V1);
+        writeString(out, key.getTenantId());
+        switch (key.getType()) {
+            case GlobalRule:
+                writeEnum(out, ((GlobalRuleKey) key).getRuleType());
+                break;
+            case Content:
+                // the artifactId is only used for partitioning, just like with JSON
+                writeString(out, ((ContentKey) key).getContentHash());
+                break;
+            case Artifact:
+                writeString(out, ((ArtifactKey) key).getArtifactId());
+                writeString(out, ((ArtifactKey) key).getUuid());
+                break;
+            case ArtifactRule:
+                writeString(out, ((ArtifactRuleKey) key).getArtifactId());
+                writeEnum(out, ((ArtifactRuleKey) key).getRuleType());
+                break;
+            case ArtifactVersion:
+                writeString(out, ((ArtifactVersionKey) key).getArtifactId());
+                writeInteger(out, ((ArtifactVersionKey) key).getVersion());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported message type: " + key.getType());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static MessageKey decodeKey(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new UnsynchronizedByteArrayInputStream(data, 2));
+        MessageType type = MessageType.fromOrd(data[0]);
+        String tenantId = readString(in);
+        switch (type) {
+            case GlobalRule:
+                return GlobalRuleKey.create(tenantId, readEnum(in, RuleType.class));
+            case Content:
+                return ContentKey.create(tenantId, null, readString(in));
+            case Artifact:
+                return ArtifactKey.create(tenantId, readString(in), readString(in));
+            case ArtifactRule:
+                return ArtifactRuleKey.create(tenantId, readString(in), readEnum(in, RuleType.class));
+            case ArtifactVersion:
+                return ArtifactVersionKey.create(tenantId, readString(in), readInteger(in));
+            default:
+                throw new IllegalArgumentException("Unsupported message type: " + data[0]);
+        }
+    }
+
+    public static byte[] encodeValue(MessageValue value) throws IOException {
+        UnsynchronizedByteArrayOutputStream bytes = new UnsynchronizedByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(value.getType().getOrd());
+        out.writeByte(FORMAT_V1);
+        ActionType action = ((AbstractMessageValue) value).getAction();
+        out.writeByte(action != null ? action.getOrd() : 0);
+        switch (value.getType()) {
+            case GlobalRule:
+                writeRuleConfiguration(out, ((GlobalRuleValue) value).getConfig());
+                break;
+            case ArtifactRule:
+                writeRuleConfiguration(out, ((ArtifactRuleValue) value).getConfig());
+                break;
+            case Artifact:
+                ArtifactValue artifact = (ArtifactValue) value;
+                writeVersion(out, artifact);
+                out.writeByte(artifact.getArtifactType() != null ? ArtifactTypeOrdUtil.artifactTypeToOrd(artifact.getArtifactType()) : 0);
+                writeString(out, artifact.getContentHash());
+                writeString(out, artifact.getCreatedBy());
+                out.writeLong(artifact.getCreatedOn() != null ? artifact.getCreatedOn().getTime() : Long.MIN_VALUE);
+                break;
+            case ArtifactVersion:
+                writeVersion(out, (ArtifactVersionValue) value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported message type: " + value.getType());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static MessageValue decodeValue(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new UnsynchronizedByteArrayInputStream(data, 2));
+        MessageType type = MessageType.fromOrd(data[0]);
+        ActionType action = ActionType.fromOrd(in.readByte());
+        switch (type) {
+            case GlobalRule:
+                return GlobalRuleValue.create(action, readRuleConfiguration(in));
+            case ArtifactRule:
+                return ArtifactRuleValue.create(action, readRuleConfiguration(in));
+            case Artifact:
+                ArtifactState state = readEnum(in, ArtifactState.class);
+                EditableArtifactMetaDataDto metaData = readMetaData(in);
+                byte artifactType = in.readByte();
+                String contentHash = readString(in);
+                String createdBy = readString(in);
+                long createdOn = in.readLong();
+                ArtifactValue artifact = ArtifactValue.create(action, artifactType != 0 ? ArtifactTypeOrdUtil.ordToArtifactType(artifactType) : null,
+                        contentHash, createdBy, createdOn != Long.MIN_VALUE ? new Date(createdOn) : null, metaData);
+                artifact.setState(state);
+                return artifact;
+            case ArtifactVersion:
+                return ArtifactVersionValue.create(action, readEnum(in, ArtifactState.class), readMetaData(in));
+            default:
+                throw new IllegalArgumentException("Unsupported message type: " + data[0]);
+        }
+    }
+
+    private static void writeVersion(DataOutputStream out, ArtifactVersionValue value) throws IOException {
+        writeEnum(out, value.getState());
+        EditableArtifactMetaDataDto metaData = value.getMetaData();
+        out.writeBoolean(metaData != null);
+        if (metaData != null) {
+            writeString(out, metaData.getName());
+            writeString(out, metaData.getDescription());
+            List<String> labels = metaData.getLabels();
+            out.writeInt(labels != null ? labels.size() : NULL);
+            if (labels != null) {
+                for (String label : labels) {
+                    writeString(out, label);
+                }
+            }
+            Map<String, String> properties = metaData.getProperties();
+            out.writeInt(properties != null ? properties.size() : NULL);
+            if (properties != null) {
+                for (Map.Entry<String, String> entry : properties.entrySet()) {
+                    writeString(out, entry.getKey());
+                    writeString(out, entry.getValue());
+                }
+            }
+        }
+    }
+
+    private static EditableArtifactMetaDataDto readMetaData(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        EditableArtifactMetaDataDto metaData = new EditableArtifactMetaDataDto();
+        metaData.setName(readString(in));
+        metaData.setDescription(readString(in));
+        int labels = in.readInt();
+        if (labels != NULL) {
+            List<String> list = new ArrayList<>(labels);
+            for (int i = 0; i < labels; i++) {
+                list.add(readString(in));
+            }
+            metaData.setLabels(list);
+        }
+        int properties = in.readInt();
+        if (properties != NULL) {
+            Map<String, String> map = new LinkedHashMap<>();
+            for (int i = 0; i < properties; i++) {
+                map.put(readString(in), readString(in));
+            }
+            metaData.setProperties(map);
+        }
+        return metaData;
+    }
+
+    private static void writeRuleConfiguration(DataOutputStream out, RuleConfigurationDto config) throws IOException {
+        out.writeBoolean(config != null);
+        if (config != null) {
+            writeString(out, config.getConfiguration());
+        }
+    }
+
+    private static RuleConfigurationDto readRuleConfiguration(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        RuleConfigurationDto config = new RuleConfigurationDto();
+        config.setConfiguration(readString(in));
+        return config;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        // by name, so reordering the enum doesn't break the journal
+        writeString(out, value != null ? value.name() : null);
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, Class<E> type) throws IOException {
+        String name = readString(in);
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+}
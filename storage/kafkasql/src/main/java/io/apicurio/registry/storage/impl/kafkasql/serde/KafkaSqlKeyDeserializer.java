@@ -49,6 +49,10 @@ public class KafkaSqlKeyDeserializer implements Deserializer<MessageKey> {
     @Override
     public MessageKey deserialize(String topic, byte[] data) {
         try {
+            if (KafkaSqlBinaryCodec.isBinary(data)) {
+                return KafkaSqlBinaryCodec.decodeKey(data);
+            }
+            // JSON, as written by older versions
             byte msgTypeOrdinal = data[0];
             Class<? extends MessageKey> keyClass = MessageTypeToKeyClass.ordToKeyClass(msgTypeOrdinal);
             UnsynchronizedByteArrayInputStream in = new UnsynchronizedByteArrayInputStream(data, 1);
@@ -39,12 +39,32 @@ public class KafkaSqlKeySerializer implements Serializer<MessageKey> {
         mapper.setSerializationInclusion(Include.NON_NULL);
     }
 
+    private final boolean binary;
+
+    /**
+     * Constructor, using the JSON encoding (readable by older versions).
+     */
+    public KafkaSqlKeySerializer() {
+        this(false);
+    }
+
+    /**
+     * Constructor.
+     * @param binary if false, JSON (as written by older versions) is used instead of the binary encoding
+     */
+    public KafkaSqlKeySerializer(boolean binary) {
+        this.binary = binary;
+    }
+
     /**
      * @see org.apache.kafka.common.serialization.Serializer#serialize(java.lang.String, java.lang.Object)
      */
     @Override
     public byte[] serialize(String topic, MessageKey messageKey) {
         try {
+            if (binary) {
+                return KafkaSqlBinaryCodec.encodeKey(messageKey);
+            }
             UnsynchronizedByteArrayOutputStream out = new UnsynchronizedByteArrayOutputStream();
             out.write(ByteBuffer.allocate(1).put((byte) messageKey.getType().getOrd()).array());
             mapper.writeValue(out, messageKey);
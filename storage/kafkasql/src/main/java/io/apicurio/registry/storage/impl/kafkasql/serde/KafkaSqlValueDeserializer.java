@@ -63,6 +63,10 @@ public class KafkaSqlValueDeserializer implements Deserializer<MessageValue> {
             if (msgTypeOrdinal == MessageType.Content.getOrd()) {
                 return this.deserializeContent(topic, data);
             }
+            if (KafkaSqlBinaryCodec.isBinary(data)) {
+                return KafkaSqlBinaryCodec.decodeValue(data);
+            }
+            // JSON, as written by older versions
             Class<? extends MessageValue> keyClass = MessageTypeToValueClass.ordToValue(msgTypeOrdinal);
             UnsynchronizedByteArrayInputStream in = new UnsynchronizedByteArrayInputStream(data, 1);
             MessageValue key = mapper.readValue(in, keyClass);
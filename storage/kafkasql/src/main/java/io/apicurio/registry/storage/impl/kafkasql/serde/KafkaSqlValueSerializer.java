@@ -41,6 +41,23 @@ public class KafkaSqlValueSerializer implements Serializer<MessageValue> {
         mapper.setSerializationInclusion(Include.NON_NULL);
     }
 
+    private final boolean binary;
+
+    /**
+     * Constructor, using the JSON encoding (readable by older versions).
+     */
+    public KafkaSqlValueSerializer() {
+        this(false);
+    }
+
+    /**
+     * Constructor.
+     * @param binary if false, JSON (as written by older versions) is used instead of the binary encoding
+     */
+    public KafkaSqlValueSerializer(boolean binary) {
+        this.binary = binary;
+    }
+
     /**
      * @see org.apache.kafka.common.serialization.Serializer#serialize(java.lang.String, java.lang.Object)
      */
@@ -54,6 +71,9 @@ public class KafkaSqlValueSerializer implements Serializer<MessageValue> {
             return this.serializeContent(topic, (ContentValue) messageValue);
         }
         try (UnsynchronizedByteArrayOutputStream out = new UnsynchronizedByteArrayOutputStream()) {
+            if (binary) {
+                return KafkaSqlBinaryCodec.encodeValue(messageValue);
+            }
             out.write(ByteBuffer.allocate(1).put((byte) messageValue.getType().getOrd()).array());
             mapper.writeValue(out, messageValue);
             return out.toByteArray();
@@ -1,10 +1,13 @@
 package io.apicurio.registry.storage.impl.kafkasql.sql;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.transaction.Transactional;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Header;
@@ -72,21 +75,12 @@ public class KafkaSqlSink {
      * @param record
      */
     public void processMessage(ConsumerRecord<MessageKey, MessageValue> record) {
-        // If the key is null, we couldn't deserialize the message
-        if (record.key() == null) {
-            log.info("Discarded an unreadable/unrecognized message.");
+        if (!isProcessable(record)) {
             return;
         }
 
-        // If the value is null, then this is a tombstone (or unrecognized) message and should not 
-        // be processed.
-        if (record.value() == null) {
-            log.info("Discarded a (presumed) tombstone message with key: {}", record.key());
-            return;
-        }
-        
         UUID requestId = extractUuid(record);
-        log.debug("Processing Kafka message with UUID: {}", requestId.toString());
+        log.debug("Processing Kafka message with UUID: {}", requestId);
 
         try {
             Object result = doProcessMessage(record);
@@ -101,6 +95,78 @@ public class KafkaSqlSink {
         }
     }
 
+    /**
+     * Called by the {@link KafkaSqlRegistryStorage} to process a batch of messages (typically everything
+     * returned by a single poll of the topic).  The whole batch is applied to the SQL store in a single
+     * transaction, and any local threads waiting for one of the messages are only notified once that
+     * transaction has been committed.
+     *
+     * The SQL store is transactional (JTA), so partial rollbacks (savepoints) are not available.  Instead,
+     * if any message in the batch fails, the whole transaction is rolled back and the batch is re-applied
+     * one message at a time via <code>processMessage()</code>, so that the failure is only reported to the
+     * caller waiting for that particular message.
+     *
+     * @param records
+     */
+    public void processMessages(List<ConsumerRecord<MessageKey, MessageValue>> records) {
+        if (records.size() == 1) {
+            processMessage(records.get(0));
+            return;
+        }
+
+        List<Object> results;
+        try {
+            results = applyBatch(records);
+        } catch (Throwable e) {
+            log.debug("Batch of {} Kafka messages failed ({}), re-applying them one at a time.", records.size(), e.getMessage());
+            records.forEach(this::processMessage);
+            return;
+        }
+
+        log.debug("Batch of {} Kafka messages successfully processed. Notifying listeners of responses.", records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<MessageKey, MessageValue> record = records.get(i);
+            if (isProcessable(record)) {
+                coordinator.notifyResponse(extractUuid(record), results.get(i));
+            }
+        }
+    }
+
+    /**
+     * Applies all of the given messages in a single transaction, returning the result of each message (or
+     * null for messages that were skipped).  Any failure rolls back the entire batch.
+     * Note: must not be private, so that the transaction interceptor is applied.
+     * @param records
+     */
+    @Transactional
+    List<Object> applyBatch(List<ConsumerRecord<MessageKey, MessageValue>> records) {
+        List<Object> results = new ArrayList<>(records.size());
+        for (ConsumerRecord<MessageKey, MessageValue> record : records) {
+            results.add(isProcessable(record) ? doProcessMessage(record) : null);
+        }
+        return results;
+    }
+
+    /**
+     * Returns false (and logs why) if the message can't be processed.
+     * @param record
+     */
+    private boolean isProcessable(ConsumerRecord<MessageKey, MessageValue> record) {
+        // If the key is null, we couldn't deserialize the message
+        if (record.key() == null) {
+            log.info("Discarded an unreadable/unrecognized message.");
+            return false;
+        }
+
+        // If the value is null, then this is a tombstone (or unrecognized) message and should not 
+        // be processed.
+        if (record.value() == null) {
+            log.info("Discarded a (presumed) tombstone message with key: {}", record.key());
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Extracts the UUID from the message.  The UUID should be found in a message header.
      * @param record
@@ -184,7 +250,7 @@ public class KafkaSqlSink {
         } catch (ArtifactNotFoundException | ArtifactAlreadyExistsException e) {
             // Send a tombstone message to clean up the unique Kafka message that caused this failure.  We may be
             // able to do this for other errors, but these two are definitely safe.
-            submitter.send(key, null);
+            submitter.send(key, null, false);
             throw e;
         }
     }
@@ -251,8 +317,17 @@ public class KafkaSqlSink {
     private Object processContent(ContentKey key, ContentValue value) {
         switch (value.getAction()) {
             case Create:
+                // The content is sent on the partition of every artifact using it, so it's usually there already,
+                // and the sink of another partition may be storing it at the same time.
                 if (!sqlStore.isContentExists(key.getContentHash())) {
-                    sqlStore.storeContent(key.getContentHash(), value.getArtifactType(), value.getContent());
+                    try {
+                        sqlStore.storeContent(key.getContentHash(), value.getArtifactType(), value.getContent());
+                    } catch (RuntimeException e) {
+                        if (!sqlStore.isContentExists(key.getContentHash())) {
+                            throw e;
+                        }
+                        log.debug("Content {} was stored concurrently.", key.getContentHash());
+                    }
                 }
                 break;
             case Delete:
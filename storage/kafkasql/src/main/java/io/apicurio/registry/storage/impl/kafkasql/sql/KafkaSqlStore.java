@@ -1,5 +1,7 @@
 package io.apicurio.registry.storage.impl.kafkasql.sql;
 
+import java.nio.file.Path;
+import java.sql.Statement;
 import java.util.Date;
 import java.util.concurrent.CompletionStage;
 
@@ -123,6 +125,53 @@ public class KafkaSqlStore extends AbstractSqlRegistryStorage {
         this.updateArtifactState(artifactId, state, version);
     }
 
+    /**
+     * Snapshots are implemented using H2's SCRIPT/RUNSCRIPT commands, so they are only
+     * available when the store is backed by H2.
+     */
+    public boolean isSnapshotSupported() {
+        return "h2".equals(sqlStatements().dbType());
+    }
+
+    /**
+     * Writes a (compressed) SQL script that recreates the entire database to the given file.
+     * @param file
+     */
+    public void createSnapshot(Path file) throws RegistryStorageException {
+        execute("SCRIPT TO '" + escapeFileName(file) + "' COMPRESSION GZIP");
+    }
+
+    /**
+     * Replaces the entire database with the contents of the given snapshot file.
+     * @param file
+     */
+    public void restoreSnapshot(Path file) throws RegistryStorageException {
+        execute("DROP ALL OBJECTS");
+        execute("RUNSCRIPT FROM '" + escapeFileName(file) + "' COMPRESSION GZIP");
+    }
+
+    /**
+     * Drops the entire database and re-creates an empty one (e.g. after a failed snapshot restore).
+     */
+    public void resetDatabase() throws RegistryStorageException {
+        execute("DROP ALL OBJECTS");
+        initialize();
+    }
+
+    private void execute(String sql) {
+        withHandle( handle -> {
+            // Plain JDBC, since some of these commands are queries and others are updates
+            try (Statement statement = handle.getConnection().createStatement()) {
+                statement.execute(sql);
+            }
+            return null;
+        });
+    }
+
+    private static String escapeFileName(Path file) {
+        return file.toAbsolutePath().toString().replace("'", "''");
+    }
+
     private long contentIdFromHash(String contentHash) {
         return withHandle( handle -> {
             String sql = sqlStatements().selectContentIdByHash();
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.types.RegistryException;
+import io.smallrye.metrics.MetricsRegistryImpl;
+
+public class KafkaSqlCoordinatorTest {
+
+    private KafkaSqlCoordinator coordinator;
+
+    @BeforeEach
+    public void createCoordinator() {
+        coordinator = new KafkaSqlCoordinator();
+        coordinator.configuration = (KafkaSqlConfiguration) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{KafkaSqlConfiguration.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "responseTimeout":
+                            return 200;
+                        case "responseThreads":
+                            return 2;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        coordinator.metricRegistry = new MetricsRegistryImpl();
+        coordinator.init();
+    }
+
+    @AfterEach
+    public void destroyCoordinator() {
+        coordinator.destroy();
+    }
+
+    @Test
+    public void testResponse() throws Exception {
+        UUID uuid = coordinator.createUUID();
+        CompletableFuture<Object> response = coordinator.getResponse(uuid);
+
+        // callbacks run on the response threads, not on the thread applying the journal
+        CompletableFuture<String> callbackThread = response.thenApply(value -> Thread.currentThread().getName());
+        coordinator.notifyResponse(uuid, "value");
+        Assertions.assertEquals("value", response.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(callbackThread.get(5, TimeUnit.SECONDS).startsWith("KSQL Coordinator Responses-"),
+                callbackThread.get());
+
+        // handed out only once
+        ExecutionException error = Assertions.assertThrows(ExecutionException.class, () -> coordinator.getResponse(uuid).get());
+        Assertions.assertTrue(error.getCause() instanceof RegistryException);
+    }
+
+    @Test
+    public void testErrorResponse() throws Exception {
+        UUID uuid = coordinator.createUUID();
+        RegistryException failure = new RegistryException("failed");
+        coordinator.notifyResponse(uuid, failure);
+        RegistryException error = Assertions.assertThrows(RegistryException.class, () -> coordinator.waitForResponse(uuid));
+        Assertions.assertSame(failure, error);
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        UUID uuid = coordinator.createUUID();
+        CompletableFuture<Object> response = coordinator.getResponse(uuid);
+        ExecutionException error = Assertions.assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(error.getCause() instanceof RegistryException);
+        Assertions.assertTrue(error.getCause().getCause() instanceof TimeoutException);
+
+        // a late response is ignored
+        coordinator.notifyResponse(uuid, "late");
+        Assertions.assertTrue(response.isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.storage.RegistryStorageException;
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.sql.KafkaSqlStore;
+import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
+
+public class KafkaSqlSnapshotterTest {
+
+    private static final String TOPIC = "kafkasql-journal";
+
+    private Path dir;
+
+    @BeforeEach
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("ksql-snapshot");
+    }
+
+    @AfterEach
+    public void deleteDir() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testSnapshotAndRestore() throws Exception {
+        TestStore store = new TestStore();
+        KafkaSqlSnapshotter snapshotter = snapshotter(TOPIC, dir.toString(), store);
+
+        AtomicInteger applied = new AtomicInteger();
+        store.data = "v1";
+        snapshotter.apply(records(0, 0, 1, 2), applied::incrementAndGet);
+        snapshotter.apply(records(1, 5), applied::incrementAndGet);
+        Assertions.assertEquals(2, applied.get());
+        Assertions.assertEquals(2, store.snapshots);
+
+        // only the latest script is kept, and it holds the latest data
+        store.data = "v2";
+        snapshotter.apply(records(0, 3), applied::incrementAndGet);
+        Assertions.assertEquals(1, scripts().size());
+
+        Properties snapshot = new Properties();
+        try (InputStream is = Files.newInputStream(dir.resolve("snapshot.properties"))) {
+            snapshot.load(is);
+        }
+        Assertions.assertEquals(TOPIC, snapshot.getProperty("topic"));
+        Assertions.assertEquals(scripts().get(0).getFileName().toString(), snapshot.getProperty("script"));
+
+        // a new node restores the data, and resumes after the last applied offset of each partition
+        TestStore restored = new TestStore();
+        Map<TopicPartition, Long> offsets = snapshotter(TOPIC, dir.toString(), restored).restore();
+        Map<TopicPartition, Long> expected = new HashMap<>();
+        expected.put(new TopicPartition(TOPIC, 0), 4L);
+        expected.put(new TopicPartition(TOPIC, 1), 6L);
+        Assertions.assertEquals(expected, offsets);
+        Assertions.assertEquals("v2", restored.data);
+        Assertions.assertEquals(0, restored.resets);
+    }
+
+    @Test
+    public void testNoSnapshot() throws Exception {
+        TestStore store = new TestStore();
+        Assertions.assertEquals(Collections.emptyMap(), snapshotter(TOPIC, dir.toString(), store).restore());
+        Assertions.assertNull(store.data);
+
+        // disabled -- records are applied, but nothing is written
+        KafkaSqlSnapshotter disabled = snapshotter(TOPIC, null, store);
+        AtomicInteger applied = new AtomicInteger();
+        disabled.apply(records(0, 0), applied::incrementAndGet);
+        Assertions.assertEquals(1, applied.get());
+        Assertions.assertEquals(0, store.snapshots);
+        Assertions.assertEquals(Collections.emptyMap(), disabled.restore());
+    }
+
+    @Test
+    public void testUnusableSnapshot() throws Exception {
+        TestStore store = new TestStore();
+        store.data = "v1";
+        snapshotter(TOPIC, dir.toString(), store).apply(records(0, 0), () -> {});
+
+        // taken from another topic
+        TestStore other = new TestStore();
+        Assertions.assertEquals(Collections.emptyMap(), snapshotter("other-topic", dir.toString(), other).restore());
+        Assertions.assertNull(other.data);
+
+        // failed restore -- the store is reset, and the whole journal is replayed
+        TestStore failing = new TestStore();
+        failing.failRestore = true;
+        Assertions.assertEquals(Collections.emptyMap(), snapshotter(TOPIC, dir.toString(), failing).restore());
+        Assertions.assertEquals(1, failing.resets);
+    }
+
+    private List<Path> scripts() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".sql.gz")).collect(Collectors.toList());
+        }
+    }
+
+    private static List<ConsumerRecord<MessageKey, MessageValue>> records(int partition, long... offsets) {
+        List<ConsumerRecord<MessageKey, MessageValue>> records = new ArrayList<>();
+        Arrays.stream(offsets).forEach(offset -> records.add(new ConsumerRecord<>(TOPIC, partition, offset, null, null)));
+        return records;
+    }
+
+    private static KafkaSqlSnapshotter snapshotter(String topic, String snapshotDir, KafkaSqlStore store) {
+        KafkaSqlSnapshotter snapshotter = new KafkaSqlSnapshotter();
+        snapshotter.configuration = new TestConfiguration(topic, snapshotDir);
+        snapshotter.sqlStore = store;
+        return snapshotter;
+    }
+
+    /**
+     * Keeps its "database" in a string, so snapshots are simple files.
+     */
+    private static class TestStore extends KafkaSqlStore {
+        String data;
+        int snapshots;
+        int resets;
+        boolean failRestore;
+
+        @Override
+        public boolean isSnapshotSupported() {
+            return true;
+        }
+
+        @Override
+        public void createSnapshot(Path file) throws RegistryStorageException {
+            try {
+                Files.write(file, String.valueOf(data).getBytes(StandardCharsets.UTF_8));
+                snapshots++;
+            } catch (IOException e) {
+                throw new RegistryStorageException(e);
+            }
+        }
+
+        @Override
+        public void restoreSnapshot(Path file) throws RegistryStorageException {
+            if (failRestore) {
+                throw new RegistryStorageException("Corrupted snapshot: " + file);
+            }
+            try {
+                data = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new RegistryStorageException(e);
+            }
+        }
+
+        @Override
+        public void resetDatabase() throws RegistryStorageException {
+            data = null;
+            resets++;
+        }
+    }
+
+    /**
+     * Snapshots on every batch.
+     */
+    private static class TestConfiguration implements KafkaSqlConfiguration {
+        private final String topic;
+        private final String snapshotDir;
+
+        TestConfiguration(String topic, String snapshotDir) {
+            this.topic = topic;
+            this.snapshotDir = snapshotDir;
+        }
+
+        @Override
+        public String bootstrapServers() {
+            return "localhost:9092";
+        }
+
+        @Override
+        public String topic() {
+            return topic;
+        }
+
+        @Override
+        public Properties topicProperties() {
+            return new Properties();
+        }
+
+        @Override
+        public boolean isTopicAutoCreate() {
+            return false;
+        }
+
+        @Override
+        public Integer startupLag() {
+            return 0;
+        }
+
+        @Override
+        public Integer pollTimeout() {
+            return 100;
+        }
+
+        @Override
+        public Integer baseOffset() {
+            return 0;
+        }
+
+        @Override
+        public Integer responseTimeout() {
+            return 1000;
+        }
+
+        @Override
+        public Integer responseThreads() {
+            return 1;
+        }
+
+        @Override
+        public boolean isSinkBatchEnabled() {
+            return true;
+        }
+
+        @Override
+        public Integer sinkQueueSize() {
+            return 0;
+        }
+
+        @Override
+        public String snapshotDir() {
+            return snapshotDir;
+        }
+
+        @Override
+        public Integer snapshotInterval() {
+            return 0;
+        }
+
+        @Override
+        public Properties producerProperties() {
+            return new Properties();
+        }
+
+        @Override
+        public Properties consumerProperties() {
+            return new Properties();
+        }
+
+        @Override
+        public Properties adminProperties() {
+            return new Properties();
+        }
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.storage.EditableArtifactMetaDataDto;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ContentKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.serde.KafkaSqlPartitioner;
+import io.apicurio.registry.storage.impl.kafkasql.values.ActionType;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ContentValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.utils.kafka.ProducerActions;
+
+public class KafkaSqlSubmitterTest {
+
+    private static final String TOPIC = "kafkasql-journal";
+    private static final int PARTITIONS = 4;
+
+    private final List<ProducerRecord<MessageKey, MessageValue>> records = new ArrayList<>();
+    private final List<UUID> uuids = new ArrayList<>();
+    private boolean failContent;
+
+    private KafkaSqlSubmitter submitter;
+
+    @BeforeEach
+    public void createSubmitter() {
+        submitter = new KafkaSqlSubmitter();
+        submitter.configuration = (KafkaSqlConfiguration) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{KafkaSqlConfiguration.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("topic")) {
+                        return TOPIC;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        submitter.coordinator = new KafkaSqlCoordinator() {
+            @Override
+            public UUID createUUID() {
+                UUID uuid = UUID.randomUUID();
+                uuids.add(uuid);
+                return uuid;
+            }
+        };
+        submitter.producer = new TestProducer();
+    }
+
+    @Test
+    public void testSubmitArtifactWithContent() throws Exception {
+        ContentHandle content = ContentHandle.create("{\"type\":\"string\"}");
+        UUID reqId = submitter.submitArtifactWithContent("tenant", "artifact-1", ActionType.Create, ArtifactType.AVRO, "hash-1",
+                content, "user", new Date(), new EditableArtifactMetaDataDto()).get();
+
+        // one response to wait for -- the artifact's
+        Assertions.assertEquals(1, uuids.size());
+        Assertions.assertEquals(uuids.get(0), reqId);
+
+        // content first, then the artifact, both on the artifact's partition
+        Assertions.assertEquals(2, records.size());
+        ProducerRecord<MessageKey, MessageValue> contentRecord = records.get(0);
+        ProducerRecord<MessageKey, MessageValue> artifactRecord = records.get(1);
+        Assertions.assertTrue(contentRecord.key() instanceof ContentKey);
+        Assertions.assertTrue(contentRecord.value() instanceof ContentValue);
+        Assertions.assertEquals("hash-1", ((ContentKey) contentRecord.key()).getContentHash());
+        Assertions.assertTrue(artifactRecord.key() instanceof ArtifactKey);
+        Assertions.assertTrue(artifactRecord.value() instanceof ArtifactValue);
+        Assertions.assertEquals("hash-1", ((ArtifactValue) artifactRecord.value()).getContentHash());
+        Assertions.assertEquals(artifactRecord.key().getPartitionKey(), contentRecord.key().getPartitionKey());
+
+        // only the artifact carries a request id
+        Assertions.assertNull(contentRecord.headers().lastHeader("req"));
+        Header req = artifactRecord.headers().lastHeader("req");
+        Assertions.assertNotNull(req);
+        Assertions.assertEquals(reqId.toString(), new String(req.value()));
+    }
+
+    @Test
+    public void testSubmitArtifactWithFailedContent() throws Exception {
+        failContent = true;
+        ContentHandle content = ContentHandle.create("{\"type\":\"string\"}");
+        CompletableFuture<UUID> submitted = submitter.submitArtifactWithContent("tenant", "artifact-1", ActionType.Create, ArtifactType.AVRO, "hash-1",
+                content, "user", new Date(), new EditableArtifactMetaDataDto());
+
+        // the artifact is never sent without its content
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, submitted::get);
+        Assertions.assertEquals("content send failed", e.getCause().getMessage());
+        Assertions.assertTrue(records.isEmpty());
+        Assertions.assertTrue(uuids.isEmpty());
+    }
+
+    @Test
+    public void testSubmitArtifact() throws Exception {
+        UUID reqId = submitter.submitArtifact("tenant", "artifact-1", ActionType.Update, ArtifactType.AVRO, "hash-1",
+                "user", new Date(), new EditableArtifactMetaDataDto()).get();
+
+        Assertions.assertEquals(1, records.size());
+        Assertions.assertTrue(records.get(0).key() instanceof ArtifactKey);
+        Assertions.assertEquals(reqId.toString(), new String(records.get(0).headers().lastHeader("req").value()));
+    }
+
+    @Test
+    public void testReplaySharedContent() throws Exception {
+        // two artifacts on different partitions, using the same content
+        String artifactA = "artifact-a";
+        String artifactB = IntStream.range(0, 100).mapToObj(i -> "artifact-b" + i)
+                .filter(id -> partition(id) != partition(artifactA))
+                .findFirst().get();
+        ContentHandle content = ContentHandle.create("{\"type\":\"string\"}");
+        submitter.submitArtifactWithContent("tenant", artifactA, ActionType.Create, ArtifactType.AVRO, "shared-hash",
+                content, "user", new Date(), new EditableArtifactMetaDataDto()).get();
+        // the content already exists by now, but it's still sent on the second artifact's partition
+        submitter.submitArtifactWithContent("tenant", artifactB, ActionType.Create, ArtifactType.AVRO, "shared-hash",
+                content, "user", new Date(), new EditableArtifactMetaDataDto()).get();
+
+        // Replay the partitions one after the other, in either order -- every artifact finds its content
+        // (applied by its own partition), and the second copy of the content is simply skipped.
+        List<Integer> partitions = records.stream().map(ProducerRecord::partition).distinct().collect(Collectors.toList());
+        Assertions.assertEquals(2, partitions.size());
+        replay(partitions);
+        Collections.reverse(partitions);
+        replay(partitions);
+    }
+
+    private void replay(List<Integer> partitions) {
+        Set<String> contents = new HashSet<>();
+        int applied = 0;
+        for (Integer partition : partitions) {
+            for (ProducerRecord<MessageKey, MessageValue> record : records) {
+                if (record.partition().equals(partition)) {
+                    if (record.key() instanceof ContentKey) {
+                        contents.add(((ContentKey) record.key()).getContentHash());
+                    } else {
+                        Assertions.assertTrue(contents.contains(((ArtifactValue) record.value()).getContentHash()),
+                                "Artifact replayed before its content: " + record.key());
+                        applied++;
+                    }
+                }
+            }
+        }
+        Assertions.assertEquals(2, applied);
+    }
+
+    private static int partition(String artifactId) {
+        return new KafkaSqlPartitioner().partition(TOPIC, ArtifactKey.create("tenant", artifactId), new byte[0], null, null, cluster());
+    }
+
+    private static Cluster cluster() {
+        Node node = new Node(0, "localhost", 9092);
+        List<PartitionInfo> partitions = IntStream.range(0, PARTITIONS)
+                .mapToObj(p -> new PartitionInfo(TOPIC, p, node, new Node[]{node}, new Node[]{node}))
+                .collect(Collectors.toList());
+        return new Cluster("test", Collections.singletonList(node), partitions, Collections.emptySet(), Collections.emptySet());
+    }
+
+    /**
+     * Places the records like the producer would, with the {@link KafkaSqlPartitioner}.
+     */
+    private class TestProducer implements ProducerActions<MessageKey, MessageValue> {
+        @Override
+        public CompletableFuture<RecordMetadata> apply(ProducerRecord<MessageKey, MessageValue> record) {
+            if (failContent && record.key() instanceof ContentKey) {
+                CompletableFuture<RecordMetadata> failed = new CompletableFuture<>();
+                failed.completeExceptionally(new IllegalStateException("content send failed"));
+                return failed;
+            }
+            int partition = new KafkaSqlPartitioner().partition(TOPIC, record.key(), new byte[0], record.value(), null, cluster());
+            records.add(new ProducerRecord<>(record.topic(), partition, record.key(), record.value(), record.headers()));
+            return CompletableFuture.completedFuture(new RecordMetadata(new TopicPartition(TOPIC, partition), 0, records.size() - 1, 0, 0L, 0, 0));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
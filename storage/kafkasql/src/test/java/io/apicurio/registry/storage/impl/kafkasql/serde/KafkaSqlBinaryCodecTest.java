@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql.serde;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.storage.EditableArtifactMetaDataDto;
+import io.apicurio.registry.storage.RuleConfigurationDto;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactRuleKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactVersionKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ContentKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.GlobalRuleKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageType;
+import io.apicurio.registry.storage.impl.kafkasql.values.ActionType;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactRuleValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactVersionValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ContentValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.GlobalRuleValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
+import io.apicurio.registry.types.ArtifactState;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.types.RuleType;
+
+public class KafkaSqlBinaryCodecTest {
+
+    private static final String TOPIC = "kafkasql-journal";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void testKeys() throws Exception {
+        List<MessageKey> keys = Arrays.asList(
+                GlobalRuleKey.create("tenant", RuleType.COMPATIBILITY),
+                ContentKey.create("tenant", "artifact", "hash"),
+                ArtifactKey.create("tenant", "artifact"),
+                ArtifactRuleKey.create("tenant", "artifact", RuleType.VALIDITY),
+                ArtifactVersionKey.create("tenant", "artifact", 3),
+                ArtifactVersionKey.create(null, "artifact", null));
+        assertAllTypes(keys, MessageKey::getType);
+
+        for (MessageKey key : keys) {
+            byte[] binary = new KafkaSqlKeySerializer(true).serialize(TOPIC, key);
+            Assertions.assertTrue(KafkaSqlBinaryCodec.isBinary(binary), key.toString());
+            byte[] json = new KafkaSqlKeySerializer(false).serialize(TOPIC, key);
+            Assertions.assertFalse(KafkaSqlBinaryCodec.isBinary(json), key.toString());
+
+            // both encodings can be read, so the journal can hold a mix of them
+            assertKey(key, new KafkaSqlKeyDeserializer().deserialize(TOPIC, binary));
+            assertKey(key, new KafkaSqlKeyDeserializer().deserialize(TOPIC, json));
+
+            // a key read back is written out the same, e.g. for the sink's tombstones
+            Assertions.assertArrayEquals(binary, new KafkaSqlKeySerializer(true).serialize(TOPIC,
+                    new KafkaSqlKeyDeserializer().deserialize(TOPIC, binary)), key.toString());
+        }
+    }
+
+    @Test
+    public void testValues() throws Exception {
+        EditableArtifactMetaDataDto metaData = new EditableArtifactMetaDataDto();
+        metaData.setName("name");
+        metaData.setDescription("description \u00e9\u00e8");
+        metaData.setLabels(Arrays.asList("label-1", "label-2"));
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("key-1", "value-1");
+        properties.put("key-2", "");
+        metaData.setProperties(properties);
+
+        // null labels, properties and strings
+        EditableArtifactMetaDataDto emptyMetaData = new EditableArtifactMetaDataDto();
+
+        RuleConfigurationDto config = new RuleConfigurationDto();
+        config.setConfiguration("BACKWARD");
+
+        ArtifactValue artifact = ArtifactValue.create(ActionType.Create, ArtifactType.AVRO, "hash", "user",
+                new Date(1234567890L), metaData);
+        artifact.setState(ArtifactState.DEPRECATED);
+
+        List<MessageValue> values = Arrays.asList(
+                GlobalRuleValue.create(ActionType.Create, config),
+                GlobalRuleValue.create(ActionType.Delete, null),
+                ContentValue.create(ActionType.Create, ArtifactType.PROTOBUF, ContentHandle.create("syntax = \"proto3\";")),
+                artifact,
+                ArtifactValue.create(ActionType.Update, ArtifactType.JSON, "hash", null, null, emptyMetaData),
+                ArtifactValue.create(ActionType.Delete, null, null, null, null, null),
+                ArtifactRuleValue.create(ActionType.Update, config),
+                ArtifactVersionValue.create(ActionType.Update, ArtifactState.DISABLED, metaData),
+                ArtifactVersionValue.create(ActionType.Update, null, emptyMetaData),
+                ArtifactVersionValue.create(ActionType.Delete, null, null));
+        assertAllTypes(values, MessageValue::getType);
+
+        for (MessageValue value : values) {
+            byte[] binary = new KafkaSqlValueSerializer(true).serialize(TOPIC, value);
+            byte[] json = new KafkaSqlValueSerializer(false).serialize(TOPIC, value);
+            assertValue(value, new KafkaSqlValueDeserializer().deserialize(TOPIC, binary));
+            assertValue(value, new KafkaSqlValueDeserializer().deserialize(TOPIC, json));
+        }
+    }
+
+    @Test
+    public void testDefaultsToJson() throws Exception {
+        MessageKey key = ArtifactKey.create("tenant", "artifact");
+        Assertions.assertFalse(KafkaSqlBinaryCodec.isBinary(new KafkaSqlKeySerializer().serialize(TOPIC, key)));
+        MessageValue value = ArtifactRuleValue.create(ActionType.Delete, null);
+        Assertions.assertFalse(KafkaSqlBinaryCodec.isBinary(new KafkaSqlValueSerializer().serialize(TOPIC, value)));
+    }
+
+    private static <T> void assertAllTypes(List<T> messages, Function<T, MessageType> type) {
+        Set<MessageType> types = EnumSet.noneOf(MessageType.class);
+        messages.forEach(message -> types.add(type.apply(message)));
+        Assertions.assertEquals(EnumSet.allOf(MessageType.class), types);
+    }
+
+    private static void assertKey(MessageKey expected, MessageKey actual) throws Exception {
+        Assertions.assertEquals(expected.getClass(), actual.getClass());
+        Assertions.assertEquals(expected.getType(), actual.getType());
+        Assertions.assertEquals(expected.getTenantId(), actual.getTenantId());
+        if (expected instanceof ArtifactKey) {
+            Assertions.assertEquals(((ArtifactKey) expected).getArtifactId(), ((ArtifactKey) actual).getArtifactId());
+            Assertions.assertEquals(((ArtifactKey) expected).getUuid(), ((ArtifactKey) actual).getUuid());
+        } else if (expected instanceof ContentKey) {
+            // the artifactId is only used for partitioning, it isn't written
+            Assertions.assertEquals(((ContentKey) expected).getContentHash(), ((ContentKey) actual).getContentHash());
+        } else {
+            Assertions.assertEquals(MAPPER.writeValueAsString(expected), MAPPER.writeValueAsString(actual));
+        }
+    }
+
+    private static void assertValue(MessageValue expected, MessageValue actual) throws Exception {
+        Assertions.assertEquals(expected.getClass(), actual.getClass());
+        if (expected instanceof ContentValue) {
+            ContentValue expectedContent = (ContentValue) expected;
+            ContentValue actualContent = (ContentValue) actual;
+            Assertions.assertEquals(expectedContent.getAction(), actualContent.getAction());
+            Assertions.assertEquals(expectedContent.getArtifactType(), actualContent.getArtifactType());
+            Assertions.assertEquals(expectedContent.getContent().content(), actualContent.getContent().content());
+        } else {
+            Assertions.assertEquals(toMap(expected), toMap(actual), expected.toString());
+        }
+    }
+
+    private static Map<?, ?> toMap(MessageValue value) {
+        return MAPPER.convertValue(value, Map.class);
+    }
+}
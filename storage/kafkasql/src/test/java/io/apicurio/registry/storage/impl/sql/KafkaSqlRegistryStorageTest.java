@@ -16,11 +16,23 @@
 
 package io.apicurio.registry.storage.impl.sql;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import javax.inject.Inject;
 
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.content.ContentHandle;
 import io.apicurio.registry.storage.AbstractRegistryStorageTest;
+import io.apicurio.registry.storage.ArtifactAlreadyExistsException;
+import io.apicurio.registry.storage.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.RegistryStorage;
 import io.apicurio.registry.storage.impl.kafkasql.KafkaSqlRegistryStorage;
+import io.apicurio.registry.types.ArtifactType;
 import io.quarkus.test.junit.QuarkusTest;
 
 /**
@@ -28,10 +40,10 @@ import io.quarkus.test.junit.QuarkusTest;
  */
 @QuarkusTest
 public class KafkaSqlRegistryStorageTest extends AbstractRegistryStorageTest {
-    
+
     @Inject
     KafkaSqlRegistryStorage storage;
-    
+
     /**
      * @see io.apicurio.registry.storage.AbstractRegistryStorageTest#storage()
      */
@@ -39,5 +51,68 @@ public class KafkaSqlRegistryStorageTest extends AbstractRegistryStorageTest {
     protected RegistryStorage storage() {
         return storage;
     }
-    
+
+    @Test
+    public void testBatchedWrites() throws Exception {
+        // A burst of writes ends up in the same journal polls, so they are applied in batches.
+        String artifactIdPrefix = "testBatchedWrites-";
+        List<CompletableFuture<ArtifactMetaDataDto>> futures = new ArrayList<>();
+        for (int idx = 0; idx < 50; idx++) {
+            String content = OPENAPI_CONTENT_TEMPLATE.replace("VERSION", String.valueOf(idx));
+            futures.add(createArtifact(artifactIdPrefix + idx, content));
+        }
+        // Both creates (usually) pass the up-front check, so the second only fails when it is applied.  The
+        // batch holding it is rolled back and re-applied record by record, so nobody else sees the error.
+        String duplicateId = artifactIdPrefix + "duplicate";
+        CompletableFuture<ArtifactMetaDataDto> first = createArtifact(duplicateId, OPENAPI_CONTENT);
+        CompletableFuture<ArtifactMetaDataDto> second = createArtifact(duplicateId, OPENAPI_CONTENT);
+
+        for (int idx = 0; idx < 50; idx++) {
+            ArtifactMetaDataDto dto = futures.get(idx).get();
+            Assertions.assertEquals(artifactIdPrefix + idx, dto.getId());
+            Assertions.assertEquals(1, dto.getVersion());
+            Assertions.assertEquals(OPENAPI_CONTENT_TEMPLATE.replace("VERSION", String.valueOf(idx)),
+                    storage().getArtifact(artifactIdPrefix + idx).getContent().content());
+        }
+
+        Assertions.assertEquals(1, first.get().getVersion());
+        ExecutionException error = Assertions.assertThrows(ExecutionException.class, second::get);
+        Assertions.assertTrue(error.getCause() instanceof ArtifactAlreadyExistsException, String.valueOf(error.getCause()));
+        Assertions.assertEquals(1, storage().getArtifactVersions(duplicateId).size());
+    }
+
+    @Test
+    public void testWritesWithNewContent() throws Exception {
+        // New content travels with its artifact, existing content is only referenced -- either way it's one response.
+        String artifactId = "testWritesWithNewContent";
+        String content1 = OPENAPI_CONTENT_TEMPLATE.replace("VERSION", "new-content-1");
+        String content2 = OPENAPI_CONTENT_TEMPLATE.replace("VERSION", "new-content-2");
+
+        ArtifactMetaDataDto created = createArtifact(artifactId, content1).get();
+        Assertions.assertEquals(1, created.getVersion());
+        ArtifactMetaDataDto updated = storage().updateArtifact(artifactId, ArtifactType.OPENAPI, ContentHandle.create(content2))
+                .toCompletableFuture().get();
+        Assertions.assertEquals(2, updated.getVersion());
+        ArtifactMetaDataDto reused = storage().updateArtifact(artifactId, ArtifactType.OPENAPI, ContentHandle.create(content1))
+                .toCompletableFuture().get();
+        Assertions.assertEquals(3, reused.getVersion());
+        ArtifactMetaDataDto other = createArtifact(artifactId + "-other", content2).get();
+
+        Assertions.assertEquals(content1, storage().getArtifactVersion(artifactId, 1).getContent().content());
+        Assertions.assertEquals(content2, storage().getArtifactVersion(artifactId, 2).getContent().content());
+        Assertions.assertEquals(content1, storage().getArtifactVersion(artifactId, 3).getContent().content());
+        Assertions.assertEquals(content2, storage().getArtifactVersion(updated.getGlobalId()).getContent().content());
+        Assertions.assertEquals(content2, storage().getArtifactVersion(other.getGlobalId()).getContent().content());
+    }
+
+    private CompletableFuture<ArtifactMetaDataDto> createArtifact(String artifactId, String content) {
+        try {
+            return storage().createArtifact(artifactId, ArtifactType.OPENAPI, ContentHandle.create(content)).toCompletableFuture();
+        } catch (ArtifactAlreadyExistsException e) {
+            CompletableFuture<ArtifactMetaDataDto> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
 }
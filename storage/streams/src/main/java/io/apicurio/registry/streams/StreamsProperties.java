@@ -11,6 +11,9 @@ public interface StreamsProperties {
     long getBaseOffset();
     String getStorageStoreName();
     String getGlobalIdStoreName();
+    String getVersionStoreName();
+    String getContentStoreName();
+    boolean isPersistentStore();
     String getStorageTopic();
     String getApplicationServer();
     boolean ignoreAutoCreate();
@@ -1,5 +1,6 @@
 package io.apicurio.registry.streams;
 
+import io.apicurio.registry.streams.utils.RegistryRocksDBConfigSetter;
 import org.apache.kafka.streams.StreamsConfig;
 
 import java.util.Properties;
@@ -12,6 +13,9 @@ public class StreamsPropertiesImpl implements StreamsProperties {
 
     public StreamsPropertiesImpl(Properties properties) {
         this.properties = properties;
+        if (isPersistentStore()) {
+            properties.putIfAbsent(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, RegistryRocksDBConfigSetter.class.getName());
+        }
     }
 
     public Properties getProperties() {
@@ -36,6 +40,19 @@ public class StreamsPropertiesImpl implements StreamsProperties {
         return properties.getProperty("global.id.store", "global-id-store");
     }
 
+    public String getVersionStoreName() {
+        return properties.getProperty("version.store", "version-store");
+    }
+
+    public String getContentStoreName() {
+        return properties.getProperty("content.store", "content-store");
+    }
+
+    // RocksDB instead of in-memory stores, see RegistryRocksDBConfigSetter for the tuning
+    public boolean isPersistentStore() {
+        return Boolean.parseBoolean(properties.getProperty("persistent.store", "false"));
+    }
+
     public String getStorageTopic() {
         return properties.getProperty("storage.topic", "storage-topic");
     }
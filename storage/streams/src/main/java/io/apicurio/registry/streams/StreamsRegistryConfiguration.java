@@ -182,6 +182,50 @@ public class StreamsRegistryConfiguration {
         close(store);
     }
 
+    @Produces
+    @ApplicationScoped
+    public ExtReadOnlyKeyValueStore<String, Str.ArtifactValue> versionKeyValueStore(
+        KafkaStreams streams,
+        HostInfo storageLocalHost,
+        StreamsProperties properties
+    ) {
+        return new DistributedReadOnlyKeyValueStore<>(
+            streams,
+            storageLocalHost,
+            properties.getVersionStoreName(),
+            Serdes.String(), ProtoSerde.parsedWith(Str.ArtifactValue.parser()),
+            new DefaultGrpcChannelProvider(),
+            true,
+            (filter, over, key, version) -> true
+        );
+    }
+
+    public void destroyVersionStore(@Observes ShutdownEvent event, ExtReadOnlyKeyValueStore<String, Str.ArtifactValue> store) {
+        close(store);
+    }
+
+    @Produces
+    @ApplicationScoped
+    public ExtReadOnlyKeyValueStore<String, Str.ContentValue> contentKeyValueStore(
+        KafkaStreams streams,
+        HostInfo storageLocalHost,
+        StreamsProperties properties
+    ) {
+        return new DistributedReadOnlyKeyValueStore<>(
+            streams,
+            storageLocalHost,
+            properties.getContentStoreName(),
+            Serdes.String(), ProtoSerde.parsedWith(Str.ContentValue.parser()),
+            new DefaultGrpcChannelProvider(),
+            true,
+            (filter, over, hash, content) -> true
+        );
+    }
+
+    public void destroyContentStore(@Observes ShutdownEvent event, ExtReadOnlyKeyValueStore<String, Str.ContentValue> store) {
+        close(store);
+    }
+
     @Produces
     @ApplicationScoped
     public ReadOnlyKeyValueStore<Long, Str.TupleValue> globalIdKeyValueStore(
@@ -373,6 +417,14 @@ public class StreamsRegistryConfiguration {
                     props.getStorageStoreName(),
                     Serdes.String(), ProtoSerde.parsedWith(Str.Data.parser())
                 )
+                .register(
+                    props.getVersionStoreName(),
+                    Serdes.String(), ProtoSerde.parsedWith(Str.ArtifactValue.parser())
+                )
+                .register(
+                    props.getContentStoreName(),
+                    Serdes.String(), ProtoSerde.parsedWith(Str.ContentValue.parser())
+                )
                 .register(
                     props.getGlobalIdStoreName(),
                     Serdes.Long(), ProtoSerde.parsedWith(Str.TupleValue.parser())
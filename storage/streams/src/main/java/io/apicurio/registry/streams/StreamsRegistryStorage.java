@@ -57,6 +57,7 @@ import io.apicurio.registry.utils.kafka.Submitter;
 import io.apicurio.registry.utils.streams.diservice.AsyncBiFunctionService;
 import io.apicurio.registry.utils.streams.distore.ExtReadOnlyKeyValueStore;
 import io.apicurio.registry.utils.streams.distore.FilterPredicate;
+import io.apicurio.registry.utils.streams.distore.FilterResult;
 import io.quarkus.security.identity.SecurityIdentity;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -71,7 +72,7 @@ import org.eclipse.microprofile.metrics.annotation.Timed;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -98,6 +99,8 @@ import static io.apicurio.registry.metrics.MetricIDs.STORAGE_OPERATION_COUNT;
 import static io.apicurio.registry.metrics.MetricIDs.STORAGE_OPERATION_COUNT_DESC;
 import static io.apicurio.registry.metrics.MetricIDs.STORAGE_OPERATION_TIME;
 import static io.apicurio.registry.metrics.MetricIDs.STORAGE_OPERATION_TIME_DESC;
+import static io.apicurio.registry.streams.StreamsTopologyProvider.isValid;
+import static io.apicurio.registry.streams.StreamsTopologyProvider.toState;
 import static org.eclipse.microprofile.metrics.MetricUnits.MILLISECONDS;
 
 /**
@@ -129,6 +132,12 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
     @Inject
     ExtReadOnlyKeyValueStore<String, Str.Data> storageStore;
 
+    @Inject
+    ExtReadOnlyKeyValueStore<String, Str.ArtifactValue> versionStore;
+
+    @Inject
+    ExtReadOnlyKeyValueStore<String, Str.ContentValue> contentStore;
+
     @Inject
     ReadOnlyKeyValueStore<Long, Str.TupleValue> globalIdStore;
 
@@ -157,14 +166,31 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
         return storageProducer.apply(record);
     }
 
-    private static StoredArtifact addContent(Str.ArtifactValue value) {
-        Map<String, String> contents = new HashMap<>(value.getMetadataMap());
-        MetaDataKeys.putContent(contents, value.getContent().toByteArray());
-        return AbstractMapRegistryStorage.toStoredArtifact(contents);
+    // the versions and content are stored (and partitioned) by the artifact, so look them up by it
+    private Str.ArtifactValue getVersion(String artifactId, long version) {
+        return versionStore.get(StreamsTopologyProvider.versionKey(artifactId, version), artifactId);
     }
 
-    private static boolean isValid(Str.ArtifactValue value) {
-        return !value.equals(Str.ArtifactValue.getDefaultInstance());
+    private Str.ArtifactValue requireVersion(String artifactId, long version) {
+        Str.ArtifactValue value = getVersion(artifactId, version);
+        if (value == null) {
+            throw new VersionNotFoundException(artifactId, version);
+        }
+        return value;
+    }
+
+    private byte[] getContent(String artifactId, Str.ArtifactValue value) {
+        Str.ContentValue content = contentStore.get(value.getMetadataOrThrow(MetaDataKeys.CONTENT_HASH), artifactId);
+        if (content == null) {
+            throw new ArtifactNotFoundException(artifactId);
+        }
+        return content.getContent().toByteArray();
+    }
+
+    private StoredArtifact addContent(String artifactId, Str.ArtifactValue value) {
+        Map<String, String> contents = new HashMap<>(value.getMetadataMap());
+        MetaDataKeys.putContent(contents, getContent(artifactId, value));
+        return AbstractMapRegistryStorage.toStoredArtifact(contents);
     }
 
     private static boolean isGlobalRules(String artifactId) {
@@ -178,20 +204,18 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
 
     private Str.ArtifactValue getLastArtifact(String artifactId, Str.Data data) {
         if (data != null) {
-            int count = data.getArtifactsCount();
-            if (count > 0) {
-                List<Str.ArtifactValue> list = data.getArtifactsList();
-                int index = count - 1;
-                while (index >= 0) {
-                    Str.ArtifactValue value = list.get(index);
-                    if (isValid(value)) {
-                        ArtifactState state = ArtifactStateExt.getState(value.getMetadataMap());
-                        if (ArtifactStateExt.ACTIVE_STATES.contains(state)) {
-                            ArtifactStateExt.logIfDeprecated(artifactId, state, index + 1);
-                            return value;
+            for (int index = data.getVersionsCount() - 1; index >= 0; index--) {
+                Str.VersionValue value = data.getVersions(index);
+                if (isValid(value)) {
+                    ArtifactState state = toState(value);
+                    if (ArtifactStateExt.ACTIVE_STATES.contains(state)) {
+                        ArtifactStateExt.logIfDeprecated(artifactId, state, index + 1);
+                        Str.ArtifactValue artifact = getVersion(artifactId, index + 1);
+                        if (artifact != null) {
+                            return artifact;
                         }
+                        break; // deleted in the meantime
                     }
-                    index--;
                 }
             }
         }
@@ -199,46 +223,47 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
     }
 
     static FilterPredicate<String, Str.Data> createFilterPredicate() {
-        return (filter, over, artifactId, data) -> (findMetadata(filter, over, data) != null);
+        return new FilterPredicate<String, Str.Data>() {
+            @Override
+            public boolean test(String filter, String over, String artifactId, Str.Data data) {
+                return findMetadata(filter, over, data) != null;
+            }
+
+            // same as SearchUtil#compare -- by name, or by id if there is no name
+            @Override
+            public String sortKey(String artifactId, Str.Data data) {
+                String name = data.getLatestMap().get(MetaDataKeys.NAME);
+                return name != null ? name : artifactId;
+            }
+        };
     }
 
     private static Map<String, String> findMetadata(String filter, String over, Str.Data data) {
-        int count = data.getArtifactsCount();
-        if (count > 0) {
-            List<Str.ArtifactValue> list = data.getArtifactsList();
-            int index = count - 1;
-            while (index >= 0) {
-                Str.ArtifactValue value = list.get(index);
-                if (isValid(value)) {
-                    Map<String, String> metadata = value.getMetadataMap();
-                    ArtifactState state = ArtifactStateExt.getState(metadata);
-                    if (ArtifactStateExt.ACTIVE_STATES.contains(state)) {
-                        String artifactId = metadata.get(MetaDataKeys.ARTIFACT_ID);
-                        String name = metadata.get(MetaDataKeys.NAME);
-                        String desc = metadata.get(MetaDataKeys.DESCRIPTION);
-                        String labels = metadata.get(MetaDataKeys.LABELS);
-                        SearchOver so = SearchOver.fromValue(over);
-                        switch (so) {
-                            case name:
-                                if (stringMetadataContainsFilter(filter, name) || stringMetadataContainsFilter(filter, artifactId)) {
-                                    return metadata;
-                                }
-                            case description:
-                                if (stringMetadataContainsFilter(filter, desc)) {
-                                    return metadata;
-                                }
-                            case labels:
-                                if (stringMetadataContainsFilter(filter, labels)) {
-                                    return metadata;
-                                }
-                            default:
-                                if (metaDataContainsFilter(filter, metadata.values())) {
-                                    return metadata;
-                                }
-                        }
+        // only the latest active version is in the header
+        Map<String, String> metadata = data.getLatestMap();
+        if (!metadata.isEmpty()) {
+            String artifactId = metadata.get(MetaDataKeys.ARTIFACT_ID);
+            String name = metadata.get(MetaDataKeys.NAME);
+            String desc = metadata.get(MetaDataKeys.DESCRIPTION);
+            String labels = metadata.get(MetaDataKeys.LABELS);
+            SearchOver so = SearchOver.fromValue(over);
+            switch (so) {
+                case name:
+                    if (stringMetadataContainsFilter(filter, name) || stringMetadataContainsFilter(filter, artifactId)) {
+                        return metadata;
+                    }
+                case description:
+                    if (stringMetadataContainsFilter(filter, desc)) {
+                        return metadata;
+                    }
+                case labels:
+                    if (stringMetadataContainsFilter(filter, labels)) {
+                        return metadata;
+                    }
+                default:
+                    if (metaDataContainsFilter(filter, metadata.values())) {
+                        return metadata;
                     }
-                }
-                index--;
             }
         }
         return null;
@@ -256,13 +281,11 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
         Str.Data data = storageStore.get(artifactId);
         if (data != null) {
             int index = (int) (version - 1);
-            List<Str.ArtifactValue> list = data.getArtifactsList();
-            if (index < list.size()) {
-                Str.ArtifactValue value = list.get(index);
+            if (index >= 0 && index < data.getVersionsCount()) {
+                Str.VersionValue value = data.getVersions(index);
                 if (isValid(value)) {
-                    ArtifactState state = ArtifactStateExt.getState(value.getMetadataMap());
-                    ArtifactStateExt.validateState(states, state, artifactId, version);
-                    return handler.apply(value);
+                    ArtifactStateExt.validateState(states, toState(value), artifactId, version);
+                    return handler.apply(requireVersion(artifactId, version));
                 }
             }
             throw new VersionNotFoundException(artifactId, version);
@@ -273,12 +296,11 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
 
     private void updateArtifactState(Str.Data data, Integer version, ArtifactState state) {
         String artifactId = data.getArtifactId();
-        ArtifactState current = handleVersion(
-            artifactId,
-            version,
-            null,
-            av -> ArtifactStateExt.getState(av.getMetadataMap())
-        );
+        int index = version - 1;
+        if (index < 0 || index >= data.getVersionsCount() || !isValid(data.getVersions(index))) {
+            throw new VersionNotFoundException(artifactId, version);
+        }
+        ArtifactState current = toState(data.getVersions(index));
 
         ArtifactStateExt.applyState(
             s -> ConcurrentUtil.get(
@@ -294,9 +316,8 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
     private boolean exists(String artifactId) {
         Str.Data data = storageStore.get(artifactId);
         if (data != null) {
-            for (int i = 0; i < data.getArtifactsCount(); i++) {
-                Str.ArtifactValue artifact = data.getArtifacts(i);
-                if (isValid(artifact)) {
+            for (int i = 0; i < data.getVersionsCount(); i++) {
+                if (isValid(data.getVersions(i))) {
                     return true; // we found a valid one
                 }
             }
@@ -325,7 +346,7 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
     public void updateArtifactState(String artifactId, ArtifactState state) {
         Str.Data data = storageStore.get(artifactId);
         if (data != null) {
-            updateArtifactState(data, data.getArtifactsCount(), state);
+            updateArtifactState(data, data.getVersionsCount(), state);
         } else {
             throw new ArtifactNotFoundException(artifactId);
         }
@@ -345,7 +366,7 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
     public CompletionStage<ArtifactMetaDataDto> createArtifact(String artifactId, ArtifactType artifactType, ContentHandle content) throws ArtifactAlreadyExistsException, RegistryStorageException {
         Str.Data data = storageStore.get(artifactId);
         if (data != null) {
-            if (data.getArtifactsCount() > 0) {
+            if (data.getVersionsCount() > 0) {
                 throw new ArtifactAlreadyExistsException(artifactId);
             }
         }
@@ -355,13 +376,13 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
                        .thenApply(rd -> {
                            RecordMetadata rmd = rd.getRmd();
                            Str.Data d = rd.getData();
-                           Str.ArtifactValue first = d.getArtifacts(0);
+                           Str.VersionValue first = d.getVersions(0);
                            long globalId = properties.toGlobalId(rmd.offset(), rmd.partition());
                            if (first.getId() != globalId) {
                                // somebody beat us to it ...
                                throw new ArtifactAlreadyExistsException(artifactId);
                            }
-                           return MetaDataKeys.toArtifactMetaData(first.getMetadataMap());
+                           return MetaDataKeys.toArtifactMetaData(requireVersion(artifactId, ARTIFACT_FIRST_VERSION).getMetadataMap());
                        });
     }
 
@@ -376,7 +397,7 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
     public SortedSet<Long> deleteArtifact(String artifactId) throws ArtifactNotFoundException, RegistryStorageException {
         Str.Data data = storageStore.get(artifactId);
         if (data != null) {
-            if (data.getArtifactsCount() == 0) {
+            if (data.getVersionsCount() == 0) {
                 throw new ArtifactNotFoundException(artifactId);
             }
 
@@ -386,9 +407,8 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
             ConcurrentUtil.get(submitter.submitArtifact(Str.ActionType.DELETE, artifactId, -1, null, null, null));
 
             SortedSet<Long> result = new TreeSet<>();
-            List<Str.ArtifactValue> list = data.getArtifactsList();
-            for (int i = 0; i < list.size(); i++) {
-                if (isValid(list.get(i))) {
+            for (int i = 0; i < data.getVersionsCount(); i++) {
+                if (isValid(data.getVersions(i))) {
                     result.add((long) (i + 1));
                 }
             }
@@ -401,14 +421,14 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
 
     @Override
     public StoredArtifact getArtifact(String artifactId) throws ArtifactNotFoundException, RegistryStorageException {
-        return addContent(getLastArtifact(artifactId));
+        return addContent(artifactId, getLastArtifact(artifactId));
     }
 
     @Override
     public CompletionStage<ArtifactMetaDataDto> updateArtifact(String artifactId, ArtifactType artifactType, ContentHandle content) throws ArtifactNotFoundException, RegistryStorageException {
         Str.Data data = storageStore.get(artifactId);
         if (data != null) {
-            if (data.getArtifactsCount() == 0) {
+            if (data.getVersionsCount() == 0) {
                 throw new ArtifactNotFoundException(artifactId);
             }
         }
@@ -419,10 +439,10 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
                            RecordMetadata rmd = rd.getRmd();
                            Str.Data d = rd.getData();
                            long globalId = properties.toGlobalId(rmd.offset(), rmd.partition());
-                           for (int i = d.getArtifactsCount() - 1; i >= 0; i--) {
-                               Str.ArtifactValue value = d.getArtifacts(i);
-                               if (value.getId() == globalId) {
-                                   ArtifactMetaDataDto artifactMetaDataDto = MetaDataKeys.toArtifactMetaData(value.getMetadataMap());
+                           for (int i = d.getVersionsCount() - 1; i >= 0; i--) {
+                               Str.VersionValue value = d.getVersions(i);
+                               if (isValid(value) && value.getId() == globalId) {
+                                   ArtifactMetaDataDto artifactMetaDataDto = MetaDataKeys.toArtifactMetaData(requireVersion(artifactId, i + 1).getMetadataMap());
 
                                    if (artifactMetaDataDto.getVersion() != ARTIFACT_FIRST_VERSION) {
                                        ArtifactVersionMetaDataDto firstVersionContent = getArtifactVersionMetaData(artifactId, ARTIFACT_FIRST_VERSION);
@@ -461,23 +481,47 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
         return ids;
     }
 
+    @Override
+    public List<String> getArtifactIds(String after, int limit) {
+        List<String> ids = new ArrayList<>(limit);
+        String cursor = after;
+        // page over the keys first, so exists is only called for the candidates
+        while (ids.size() < limit) {
+            int wanted = limit - ids.size();
+            List<String> candidates;
+            try (Stream<String> stream = storageStore.allKeys()) {
+                candidates = SearchUtil.page(stream, cursor, wanted);
+            }
+            for (String id : candidates) {
+                if (!GLOBAL_RULES_ID.equals(id) && exists(id)) {
+                    ids.add(id);
+                }
+            }
+            if (candidates.size() < wanted) {
+                break; // no more keys
+            }
+            cursor = candidates.get(candidates.size() - 1);
+        }
+        return ids;
+    }
+
     @Override
     public ArtifactSearchResults searchArtifacts(String search, int offset, int limit, SearchOver searchOver, SortOrder sortOrder) {
-        LongAdder itemsCount = new LongAdder();
-        List<SearchedArtifact> matchedArtifacts = storageStore.filter(search, searchOver.value())
-            .peek((kv) -> itemsCount.increment())
+        // each node only returns the keys of its own top (offset + limit) matches, so only the
+        // requested page is looked up
+        int top = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        FilterResult<String> result = storageStore.filter(search, searchOver.value(), sortOrder == SortOrder.desc, top);
+        List<SearchedArtifact> matchedArtifacts = result.getKeys()
+            .stream()
+            .skip(offset)
             .map(kv -> getArtifactMetaDataOrNull(kv.key))
             .filter(Objects::nonNull)
-            .sorted((art1, art2) -> SearchUtil.compare(sortOrder, art1, art2))
-            .skip(offset)
-            .limit(limit)
             .map(SearchUtil::buildSearchedArtifact)
-            .filter(Objects::nonNull)
             .collect(Collectors.toList());
 
         final ArtifactSearchResults artifactSearchResults = new ArtifactSearchResults();
         artifactSearchResults.setArtifacts(matchedArtifacts);
-        artifactSearchResults.setCount(itemsCount.intValue());
+        artifactSearchResults.setCount((int) result.getCount());
 
         return artifactSearchResults;
     }
@@ -526,27 +570,30 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
             ArtifactTypeUtilProvider provider = factory.getArtifactTypeProvider(metaData.getType());
             ContentCanonicalizer canonicalizer = provider.getContentCanonicalizer();
             
-            byte[] contentToCompare;
+            String hashToCompare;
             if (canonical) {
                 ContentHandle canonicalContent = canonicalizer.canonicalize(content);
-                contentToCompare = canonicalContent.bytes();
+                hashToCompare = MetaDataKeys.hash(canonicalContent.bytes());
             } else {
-                contentToCompare = content.bytes();
+                hashToCompare = MetaDataKeys.hash(content.bytes());
             }
 
-            for (int i = data.getArtifactsCount() - 1; i >= 0; i--) {
-                Str.ArtifactValue candidateArtifact = data.getArtifacts(i);
-                if (isValid(candidateArtifact)) {
-                    ContentHandle candidateContent = ContentHandle.create(candidateArtifact.getContent().toByteArray());
-                    byte[] candidateBytes;
-                    if (canonical) {
-                        ContentHandle canonicalCandidateContent = canonicalizer.canonicalize(candidateContent);
-                        candidateBytes = canonicalCandidateContent.bytes();
-                    } else {
-                        candidateBytes = candidateContent.bytes();
-                    }
-                    if (Arrays.equals(contentToCompare, candidateBytes)) {
-                        return MetaDataKeys.toArtifactVersionMetaData(candidateArtifact.getMetadataMap());
+            String key = MetaDataKeys.contentIndexKey(canonical, hashToCompare);
+            if (data.containsContentIndex(key)) {
+                Str.ArtifactValue artifact = getVersion(artifactId, data.getContentIndexOrThrow(key));
+                if (artifact != null) {
+                    return MetaDataKeys.toArtifactVersionMetaData(artifact.getMetadataMap());
+                }
+            } else if (data.getContentIndexCount() == 0) {
+                // headers written before the content index, scan the versions
+                for (int i = data.getVersionsCount() - 1; i >= 0; i--) {
+                    Str.ArtifactValue candidateArtifact = isValid(data.getVersions(i)) ? getVersion(artifactId, i + 1) : null;
+                    if (candidateArtifact != null) {
+                        String candidateHash = MetaDataKeys.getContentHash(candidateArtifact.getMetadataMap(), canonical,
+                            () -> ContentHandle.create(getContent(artifactId, candidateArtifact)), canonicalizer);
+                        if (hashToCompare.equals(candidateHash)) {
+                            return MetaDataKeys.toArtifactVersionMetaData(candidateArtifact.getMetadataMap());
+                        }
                     }
                 }
             }
@@ -675,9 +722,8 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
         Str.Data data = storageStore.get(artifactId);
         if (data != null) {
             SortedSet<Long> result = new TreeSet<>();
-            List<Str.ArtifactValue> list = data.getArtifactsList();
-            for (int i = 0; i < list.size(); i++) {
-                if (isValid(list.get(i))) {
+            for (int i = 0; i < data.getVersionsCount(); i++) {
+                if (isValid(data.getVersions(i))) {
                     result.add((long) (i + 1));
                 }
             }
@@ -718,7 +764,7 @@ public class StreamsRegistryStorage extends AbstractRegistryStorage {
 
     @Override
     public StoredArtifact getArtifactVersion(String artifactId, long version) throws ArtifactNotFoundException, VersionNotFoundException, RegistryStorageException {
-        return handleVersion(artifactId, version, ArtifactStateExt.ACTIVE_STATES, StreamsRegistryStorage::addContent);
+        return handleVersion(artifactId, version, ArtifactStateExt.ACTIVE_STATES, value -> addContent(artifactId, value));
     }
 
     @Override
@@ -35,6 +35,7 @@ import io.apicurio.registry.types.provider.ArtifactTypeUtilProvider;
 import io.apicurio.registry.types.provider.ArtifactTypeUtilProviderFactory;
 import io.apicurio.registry.utils.kafka.ProtoSerde;
 import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.Topology;
@@ -43,6 +44,7 @@ import org.apache.kafka.streams.kstream.ForeachAction;
 import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.processor.AbstractProcessor;
 import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.state.KeyValueBytesStoreSupplier;
 import org.apache.kafka.streams.state.KeyValueStore;
 import org.apache.kafka.streams.state.StoreBuilder;
 import org.apache.kafka.streams.state.Stores;
@@ -58,6 +60,9 @@ import static io.apicurio.registry.utils.StringUtil.isEmpty;
 /**
  * Request --> Storage (topic / store) --> GlobalId (topic / store)
  *
+ * The storage store only has a small header per artifact, versions and their content
+ * are kept in the version and content stores, so an update only rewrites what changed.
+ *
  * @author Ales Justin
  */
 public class StreamsTopologyProvider implements Supplier<Topology> {
@@ -75,6 +80,24 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
         this.factory = factory;
     }
 
+    /**
+     * The key of a version record -- the version number is always after the last separator.
+     */
+    static String versionKey(String artifactId, long version) {
+        return artifactId + "@" + version;
+    }
+
+    /**
+     * A deleted version is kept (as an empty summary), so that the version numbers don't move.
+     */
+    static boolean isValid(Str.VersionValue value) {
+        return value.getState() != Str.ArtifactState.__LIMBO;
+    }
+
+    static ArtifactState toState(Str.VersionValue value) {
+        return ArtifactState.valueOf(value.getState().name());
+    }
+
     @Override
     public Topology get() {
         StreamsBuilder builder = new StreamsBuilder();
@@ -94,41 +117,53 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
             Consumed.with(Serdes.String(), ProtoSerde.parsedWith(Str.StorageValue.parser()))
         );
 
-        // Data structure holds all artifact information
+        // Data structure holds the (small) artifact header -- version summaries, rules and latest metadata
         // Global rules are Data as well, with constant artifactId (GLOBAL_RULES variable)
         String storageStoreName = properties.getStorageStoreName();
-        StoreBuilder<KeyValueStore<String /* artifactId */, Str.Data>> storageStoreBuilder =
-            Stores
-                .keyValueStoreBuilder(
-                    Stores.inMemoryKeyValueStore(storageStoreName),
-                    Serdes.String(), ProtoSerde.parsedWith(Str.Data.parser())
-                )
-                .withCachingEnabled()
-                .withLoggingEnabled(configuration);
+        builder.addStateStore(
+            storeBuilder(storageStoreName, Serdes.String(), ProtoSerde.parsedWith(Str.Data.parser()), configuration)
+        );
 
-        builder.addStateStore(storageStoreBuilder);
+        // Version metadata, one record per <artifactId, version>, without the content
+        String versionStoreName = properties.getVersionStoreName();
+        builder.addStateStore(
+            storeBuilder(versionStoreName, Serdes.String(), ProtoSerde.parsedWith(Str.ArtifactValue.parser()), configuration)
+        );
 
-        String globalIdStoreName = properties.getGlobalIdStoreName();
-        StoreBuilder<KeyValueStore<Long /* globalId */, Str.TupleValue>> globalIdStoreBuilder =
-                Stores
-                        .keyValueStoreBuilder(
-                                Stores.inMemoryKeyValueStore(globalIdStoreName),
-                                Serdes.Long(), ProtoSerde.parsedWith(Str.TupleValue.parser())
-                        )
-                        .withCachingEnabled()
-                        .withLoggingEnabled(configuration);
+        // Content, stored once per content hash (per partition)
+        String contentStoreName = properties.getContentStoreName();
+        builder.addStateStore(
+            storeBuilder(contentStoreName, Serdes.String(), ProtoSerde.parsedWith(Str.ContentValue.parser()), configuration)
+        );
 
-        builder.addStateStore(globalIdStoreBuilder);
+        String globalIdStoreName = properties.getGlobalIdStoreName();
+        builder.addStateStore(
+            storeBuilder(globalIdStoreName, Serdes.Long(), ProtoSerde.parsedWith(Str.TupleValue.parser()), configuration)
+        );
 
         // We process <artifactId, Data> into simple mapping <globalId, <artifactId, version>>
         storageRequest.process(
                 () -> new StorageProcessor(properties, dataDispatcher, factory),
-                storageStoreName, globalIdStoreName
+                storageStoreName, versionStoreName, contentStoreName, globalIdStoreName
             );
 
         return builder.build(properties.getProperties());
     }
 
+    private <K, V> StoreBuilder<KeyValueStore<K, V>> storeBuilder(String name, Serde<K> keySerde, Serde<V> valSerde, Map<String, String> configuration) {
+        // persistent stores keep the data off-heap, and their local state survives restarts
+        KeyValueBytesStoreSupplier supplier = properties.isPersistentStore() ?
+            Stores.persistentKeyValueStore(name) :
+            Stores.inMemoryKeyValueStore(name);
+        return Stores
+            .keyValueStoreBuilder(
+                supplier,
+                keySerde, valSerde
+            )
+            .withCachingEnabled()
+            .withLoggingEnabled(configuration);
+    }
+
     private static class StorageProcessor extends AbstractProcessor<String, Str.StorageValue> {
         private static final Logger log = LoggerFactory.getLogger(StorageProcessor.class);
 
@@ -138,6 +173,8 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
 
         private ProcessorContext context;
         private KeyValueStore<String, Str.Data> dataStore;
+        private KeyValueStore<String, Str.ArtifactValue> versionStore;
+        private KeyValueStore<String, Str.ContentValue> contentStore;
         private KeyValueStore<Long, Str.TupleValue> idStore;
 
         public StorageProcessor(
@@ -156,6 +193,10 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
             //noinspection unchecked
             dataStore = (KeyValueStore<String, Str.Data>) context.getStateStore(properties.getStorageStoreName());
             //noinspection unchecked
+            versionStore = (KeyValueStore<String, Str.ArtifactValue>) context.getStateStore(properties.getVersionStoreName());
+            //noinspection unchecked
+            contentStore = (KeyValueStore<String, Str.ContentValue>) context.getStateStore(properties.getContentStoreName());
+            //noinspection unchecked
             idStore = (KeyValueStore<Long, Str.TupleValue>) context.getStateStore(properties.getGlobalIdStoreName());
         }
 
@@ -181,7 +222,7 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
                 case UPDATE:
                     Str.TupleValue tupleValue = Str.TupleValue.newBuilder()
                             .setArtifactId(artifactId)
-                            .setVersion(data.getArtifactsCount()) // data should not be null
+                            .setVersion(data.getVersionsCount()) // data should not be null
                             .build();
                     idStore.put(globalId, tupleValue);
                     break;
@@ -223,6 +264,86 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
             }
         }
 
+        // the latest active version's metadata is kept in the header, so search doesn't need the versions
+        private void updateLatest(String artifactId, Str.Data.Builder builder) {
+            builder.clearLatest();
+            for (int index = builder.getVersionsCount() - 1; index >= 0; index--) {
+                Str.VersionValue value = builder.getVersions(index);
+                if (isValid(value) && ArtifactStateExt.ACTIVE_STATES.contains(toState(value))) {
+                    Str.ArtifactValue artifact = versionStore.get(versionKey(artifactId, index + 1));
+                    if (artifact != null) {
+                        builder.putAllLatest(artifact.getMetadataMap());
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void retainContent(String hash, Str.ArtifactValue artifact) {
+            Str.ContentValue content = contentStore.get(hash);
+            if (content == null) {
+                content = Str.ContentValue.newBuilder().setContent(artifact.getContent()).setReferences(1).build();
+            } else {
+                content = Str.ContentValue.newBuilder(content).setReferences(content.getReferences() + 1).build();
+            }
+            contentStore.put(hash, content);
+        }
+
+        private void releaseContent(String hash) {
+            Str.ContentValue content = contentStore.get(hash);
+            if (content != null) {
+                if (content.getReferences() > 1) {
+                    contentStore.put(hash, Str.ContentValue.newBuilder(content).setReferences(content.getReferences() - 1).build());
+                } else {
+                    contentStore.delete(hash);
+                }
+            }
+        }
+
+        private Str.ArtifactValue deleteVersion(String artifactId, long version) {
+            String key = versionKey(artifactId, version);
+            Str.ArtifactValue artifact = versionStore.delete(key);
+            if (artifact != null && artifact.containsMetadata(MetaDataKeys.CONTENT_HASH)) {
+                releaseContent(artifact.getMetadataOrThrow(MetaDataKeys.CONTENT_HASH));
+            }
+            return artifact;
+        }
+
+        private static void indexContent(Str.Data.Builder builder, Map<String, String> contents, long version) {
+            for (boolean canonical : new boolean[]{false, true}) {
+                String hash = contents.get(canonical ? MetaDataKeys.CANONICAL_HASH : MetaDataKeys.CONTENT_HASH);
+                if (hash != null) {
+                    // the latest version with the content wins
+                    builder.putContentIndex(MetaDataKeys.contentIndexKey(canonical, hash), version);
+                }
+            }
+        }
+
+        // the deleted version is already gone from the builder's versions
+        private void unindexContent(String artifactId, Str.Data.Builder builder, Str.ArtifactValue artifact, long version) {
+            for (boolean canonical : new boolean[]{false, true}) {
+                String hashKey = canonical ? MetaDataKeys.CANONICAL_HASH : MetaDataKeys.CONTENT_HASH;
+                String hash = artifact.getMetadataOrDefault(hashKey, null);
+                if (hash == null) {
+                    continue;
+                }
+                String key = MetaDataKeys.contentIndexKey(canonical, hash);
+                if (builder.getContentIndexOrDefault(key, 0L) == version) {
+                    builder.removeContentIndex(key);
+                    // re-point the hash to the latest remaining version with the same content, if any
+                    for (int index = builder.getVersionsCount() - 1; index >= 0; index--) {
+                        if (isValid(builder.getVersions(index))) {
+                            Str.ArtifactValue candidate = versionStore.get(versionKey(artifactId, index + 1));
+                            if (candidate != null && hash.equals(candidate.getMetadataOrDefault(hashKey, null))) {
+                                builder.putContentIndex(key, index + 1);
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
         private Str.Data consumeRule(Str.Data data, Str.StorageValue rv, Str.ActionType type, long offset) {
             Str.Data.Builder builder = Str.Data.newBuilder(data).setLastProcessedOffset(offset);
             Str.RuleValue rule = rv.getRule();
@@ -276,24 +397,29 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
 
         private Str.Data consumeState(Str.Data data, Str.StorageValue rv, String artifactId, long version, long offset) {
             Str.Data.Builder builder = Str.Data.newBuilder(data).setLastProcessedOffset(offset);
-            if (version > builder.getArtifactsCount()) {
+            if (version > builder.getVersionsCount()) {
                 log.warn("Version not found: {} [{}]", version, artifactId);
             } else {
-                int index = (int)(version >= 0 ? version : data.getArtifactsCount()) - 1;
+                int index = (int)(version >= 0 ? version : data.getVersionsCount()) - 1;
+
+                Str.VersionValue value = builder.getVersions(index);
+                String key = versionKey(artifactId, index + 1);
+                Str.ArtifactValue artifact = isValid(value) ? versionStore.get(key) : null;
+                if (artifact == null) {
+                    log.warn("Version not found: {} [{}]", version, artifactId);
+                    return builder.build();
+                }
 
-                Str.ArtifactValue artifact = data.getArtifacts(index);
-                ArtifactState currentState = ArtifactStateExt.getState(artifact.getMetadataMap());
+                ArtifactState currentState = toState(value);
                 ArtifactState newState = ArtifactState.valueOf(rv.getState().name());
 
-                Str.ArtifactValue.Builder ab = Str.ArtifactValue.newBuilder(artifact);
-
                 if (ArtifactStateExt.canTransition(currentState, newState) == false) {
                     log.error(InvalidArtifactStateException.errorMsg(currentState, newState));
                 } else {
-                    ab.putMetadata(MetaDataKeys.STATE, newState.name());
+                    versionStore.put(key, Str.ArtifactValue.newBuilder(artifact).putMetadata(MetaDataKeys.STATE, newState.name()).build());
+                    builder.setVersions(index, Str.VersionValue.newBuilder(value).setState(rv.getState()));
+                    updateLatest(artifactId, builder);
                 }
-
-                builder.setArtifacts(index, ab.build());
             }
             return builder.build();
         }
@@ -302,34 +428,29 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
             Str.Data.Builder builder = Str.Data.newBuilder(data).setLastProcessedOffset(offset);
             Str.MetaDataValue metaData = rv.getMetadata();
 
-            int count = builder.getArtifactsCount();
+            int count = builder.getVersionsCount();
             if (version > count) {
                 log.warn("Version not found: {} [{}]", version, artifactId);
             } else {
-                Str.ArtifactValue av = null;
-
                 int index;
                 if (version > 0) {
                     index = (int)(version - 1);
-                    av = builder.getArtifacts(index);
-                    ArtifactState state = ArtifactStateExt.getState(av.getMetadataMap());
-                    if (ArtifactStateExt.ACTIVE_STATES.contains(state) == false) {
+                    Str.VersionValue value = builder.getVersions(index);
+                    if (!isValid(value) || ArtifactStateExt.ACTIVE_STATES.contains(toState(value)) == false) {
                         log.warn(String.format("Not an active artifact, cannot modify metadata: %s [%s]", artifactId, version));
-                        av = null;
+                        index = -1;
                     }
                 } else {
                     for (index = count - 1; index >= 0; index--) {
-                        av = builder.getArtifacts(index);
-                        ArtifactState state = ArtifactStateExt.getState(av.getMetadataMap());
-                        if (ArtifactStateExt.ACTIVE_STATES.contains(state)) {
+                        Str.VersionValue value = builder.getVersions(index);
+                        if (isValid(value) && ArtifactStateExt.ACTIVE_STATES.contains(toState(value))) {
                             break;
                         }
                     }
-                    if (index < 0) {
-                        av = null; // not found
-                    }
                 }
 
+                String key = versionKey(artifactId, index + 1);
+                Str.ArtifactValue av = index >= 0 ? versionStore.get(key) : null;
                 if (av != null) {
                     Str.ArtifactValue.Builder avb = Str.ArtifactValue.newBuilder(av);
 
@@ -348,7 +469,8 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
                         avb.removeMetadata(MetaDataKeys.LABELS);
                         avb.removeMetadata(MetaDataKeys.PROPERTIES);
                     }
-                    builder.setArtifacts(index, avb.build()); // override with new value
+                    versionStore.put(key, avb.build()); // override with new value
+                    updateLatest(artifactId, builder);
                 }
             }
             return builder.build();
@@ -361,13 +483,23 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
                 createOrUpdateArtifact(builder, artifactId, globalId, artifact, type == Str.ActionType.CREATE);
             } else if (type == Str.ActionType.DELETE) {
                 if (version >= 0) {
-                    if (version > builder.getArtifactsCount()) {
+                    if (version > builder.getVersionsCount()) {
                         log.warn("Version not found: {} [{}]", version, artifactId);
                     } else {
+                        Str.ArtifactValue deleted = deleteVersion(artifactId, version);
                         // set default as deleted
-                        builder.setArtifacts((int) (version - 1), Str.ArtifactValue.getDefaultInstance());
+                        builder.setVersions((int) (version - 1), Str.VersionValue.getDefaultInstance());
+                        if (deleted != null) {
+                            unindexContent(artifactId, builder, deleted, version);
+                        }
+                        updateLatest(artifactId, builder);
                     }
                 } else {
+                    for (int i = 0; i < builder.getVersionsCount(); i++) {
+                        if (isValid(builder.getVersions(i))) {
+                            deleteVersion(artifactId, i + 1);
+                        }
+                    }
                     return null; // this will remove artifacts from the store
                 }
             }
@@ -377,7 +509,7 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
         private void createOrUpdateArtifact(Str.Data.Builder builder, String artifactId, long globalId, Str.ArtifactValue artifact, boolean create) {
             builder.setArtifactId(artifactId);
 
-            int count = builder.getArtifactsCount();
+            int count = builder.getVersionsCount();
             if (create && count > 0) {
                 log.warn("Artifact already exists: {}", artifactId);
                 return;
@@ -391,7 +523,7 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
             avb.setId(globalId);
 
             // +1 on version
-            int version = builder.getArtifactsCount() + 1;
+            int version = count + 1;
 
             ArtifactType type = ArtifactType.values()[artifact.getArtifactType()];
 
@@ -410,8 +542,8 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
             contents.put(MetaDataKeys.STATE, ArtifactState.ENABLED.name());
 
             if (!create) {
-                Str.ArtifactValue previous = builder.getArtifacts(count - 1); // last one
-                Map<String, String> prevContents = previous.getMetadataMap();
+                Str.ArtifactValue previous = versionStore.get(versionKey(artifactId, count)); // last one
+                Map<String, String> prevContents = previous != null ? previous.getMetadataMap() : null;
                 if (prevContents != null) {
                     if (prevContents.containsKey(MetaDataKeys.NAME)) {
                         checkNull(artifactId, version, contents, MetaDataKeys.NAME, prevContents.get(MetaDataKeys.NAME));
@@ -423,8 +555,11 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
             }
 
             ArtifactTypeUtilProvider provider = factory.getArtifactTypeProvider(type);
+            ContentHandle content = ContentHandle.create(artifact.getContent().toByteArray());
+            MetaDataKeys.putContentHashes(contents, content, provider.getContentCanonicalizer());
+
             ContentExtractor extractor = provider.getContentExtractor();
-            EditableMetaData emd = extractor.extract(ContentHandle.create(artifact.getContent().toByteArray()));
+            EditableMetaData emd = extractor.extract(content);
             if (extractor.isExtracted(emd)) {
                 if (!isEmpty(emd.getName())) {
                     checkNull(artifactId, version, contents, MetaDataKeys.NAME, emd.getName());
@@ -436,7 +571,23 @@ public class StreamsTopologyProvider implements Supplier<Topology> {
 
             avb.putAllMetadata(contents);
 
-            builder.addArtifacts(avb);
+            // the content is kept (once) in the content store, the version record only has its hash
+            retainContent(contents.get(MetaDataKeys.CONTENT_HASH), artifact);
+            avb.clearContent();
+            versionStore.put(versionKey(artifactId, version), avb.build());
+
+            if (builder.getContentIndexCount() == 0) {
+                // a header written before the content index, index its existing versions first
+                for (int index = 0; index < builder.getVersionsCount(); index++) {
+                    Str.ArtifactValue existing = isValid(builder.getVersions(index)) ? versionStore.get(versionKey(artifactId, index + 1)) : null;
+                    if (existing != null) {
+                        indexContent(builder, existing.getMetadataMap(), index + 1);
+                    }
+                }
+            }
+            builder.addVersions(Str.VersionValue.newBuilder().setId(globalId).setState(Str.ArtifactState.ENABLED));
+            indexContent(builder, contents, version);
+            builder.clearLatest().putAllLatest(avb.getMetadataMap());
         }
 
         private static void checkNull(String artifactId, int version, Map<String, String> contents, String key, String value) {
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.streams.utils;
+
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Cache;
+import org.rocksdb.CompressionType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * Tunes the RocksDB (persistent) stores of the Streams storage.
+ * All the stores share a single block cache, so its size bounds the off-heap memory used for reads.
+ */
+public class RegistryRocksDBConfigSetter implements RocksDBConfigSetter {
+    private static final Logger log = LoggerFactory.getLogger(RegistryRocksDBConfigSetter.class);
+
+    public static final String BLOCK_CACHE_SIZE = "rocksdb.block.cache.size";
+    public static final String COMPRESSION_TYPE = "rocksdb.compression.type";
+
+    private static final long DEFAULT_BLOCK_CACHE_SIZE = 64 * 1024 * 1024L;
+    private static final String DEFAULT_COMPRESSION_TYPE = "lz4";
+
+    private static Cache cache;
+
+    private static synchronized Cache cache(long size) {
+        if (cache == null) {
+            cache = new LRUCache(size);
+        }
+        return cache;
+    }
+
+    private static String config(Map<String, Object> configs, String key, String defaultValue) {
+        Object value = configs.get(key);
+        return value != null ? String.valueOf(value) : defaultValue;
+    }
+
+    @Override
+    public void setConfig(String storeName, Options options, Map<String, Object> configs) {
+        long cacheSize = Long.parseLong(config(configs, BLOCK_CACHE_SIZE, String.valueOf(DEFAULT_BLOCK_CACHE_SIZE)));
+        CompressionType compression = CompressionType.getCompressionType(config(configs, COMPRESSION_TYPE, DEFAULT_COMPRESSION_TYPE));
+        log.debug("RocksDB store {}: block cache size {}, compression {}", storeName, cacheSize, compression);
+
+        BlockBasedTableConfig tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+        tableConfig.setBlockCache(cache(cacheSize));
+        // index and filter blocks count against the (bounded) cache as well
+        tableConfig.setCacheIndexAndFilterBlocks(true);
+        options.setTableFormatConfig(tableConfig);
+        options.setCompressionType(compression);
+    }
+
+    @Override
+    public void close(String storeName, Options options) {
+        // the cache is shared between the stores, so it is never closed
+    }
+}
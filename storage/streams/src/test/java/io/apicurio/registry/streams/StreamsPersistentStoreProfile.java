@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.streams;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+/**
+ * RocksDB stores, in a fresh state dir -- with their own application and topic,
+ * so they don't see the in-memory tests' data.
+ */
+public class StreamsPersistentStoreProfile implements QuarkusTestProfile {
+
+    public static final String STATE_DIR = new File(System.getProperty("java.io.tmpdir"), "registry-streams-" + UUID.randomUUID()).getPath();
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        Map<String, String> overrides = new HashMap<>();
+        overrides.put("registry.streams.topology.persistent.store", "true");
+        overrides.put("registry.streams.topology.state.dir", STATE_DIR);
+        overrides.put("registry.streams.topology.application.id", "apicurio-registry-persistent");
+        overrides.put("registry.streams.topology.storage.topic", "persistent-storage-topic");
+        return overrides;
+    }
+
+}
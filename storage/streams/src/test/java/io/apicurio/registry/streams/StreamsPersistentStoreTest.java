@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.streams;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.types.ArtifactType;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+/**
+ * Runs the Streams storage tests against RocksDB stores.
+ */
+@QuarkusTest
+@TestProfile(StreamsPersistentStoreProfile.class)
+public class StreamsPersistentStoreTest extends StreamsRegistryStorageTest {
+
+    @Test
+    public void testRocksDBStores() throws Exception {
+        storage().createArtifact("testRocksDBStores", ArtifactType.OPENAPI, ContentHandle.create(OPENAPI_CONTENT)).toCompletableFuture().get();
+
+        // <state.dir>/<application.id>/<task>/rocksdb/<store>
+        Set<String> stores;
+        try (Stream<Path> files = Files.walk(Paths.get(StreamsPersistentStoreProfile.STATE_DIR))) {
+            stores = files.filter(Files::isDirectory)
+                .filter(dir -> dir.getParent() != null && dir.getParent().getFileName().toString().equals("rocksdb"))
+                .map(dir -> dir.getFileName().toString())
+                .collect(Collectors.toSet());
+        }
+        Assertions.assertTrue(stores.contains("storage-store"), stores.toString());
+        Assertions.assertTrue(stores.contains("version-store"), stores.toString());
+        Assertions.assertTrue(stores.contains("content-store"), stores.toString());
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.streams;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.rest.beans.ArtifactSearchResults;
+import io.apicurio.registry.rest.beans.SearchOver;
+import io.apicurio.registry.rest.beans.SortOrder;
+import io.apicurio.registry.storage.AbstractRegistryStorageTest;
+import io.apicurio.registry.storage.ArtifactMetaDataDto;
+import io.apicurio.registry.storage.ArtifactNotFoundException;
+import io.apicurio.registry.storage.EditableArtifactMetaDataDto;
+import io.apicurio.registry.storage.RegistryStorage;
+import io.apicurio.registry.types.ArtifactState;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.utils.tests.TestUtils;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+public class StreamsRegistryStorageTest extends AbstractRegistryStorageTest {
+
+    @Inject
+    StreamsRegistryStorage storage;
+
+    /**
+     * @see io.apicurio.registry.storage.AbstractRegistryStorageTest#storage()
+     */
+    @Override
+    protected RegistryStorage storage() {
+        return storage;
+    }
+
+    @Test
+    public void testSharedContent() throws Exception {
+        // versions with the same content share one content record, which outlives any single version
+        String artifactId = "testStreamsSharedContent";
+        String content1 = OPENAPI_CONTENT_TEMPLATE.replace("VERSION", "shared-content-1");
+        String content2 = OPENAPI_CONTENT_TEMPLATE.replace("VERSION", "shared-content-2");
+
+        createArtifact(artifactId, content1);
+        ArtifactMetaDataDto v2 = updateArtifact(artifactId, content2);
+        ArtifactMetaDataDto v3 = updateArtifact(artifactId, content1);
+        ArtifactMetaDataDto other = createArtifact(artifactId + "-other", content1);
+        Assertions.assertEquals(3, v3.getVersion());
+
+        Assertions.assertEquals(content1, storage().getArtifactVersion(artifactId, 1).getContent().content());
+        Assertions.assertEquals(content2, storage().getArtifactVersion(v2.getGlobalId()).getContent().content());
+        Assertions.assertEquals(content1, storage().getArtifactVersion(v3.getGlobalId()).getContent().content());
+
+        storage().deleteArtifactVersion(artifactId, 3);
+        TestUtils.retry(() -> Assertions.assertThrows(ArtifactNotFoundException.class, () -> storage().getArtifactVersion(artifactId, 3)));
+        // still used by v1, and looked up by content it now points to v1
+        Assertions.assertEquals(content1, storage().getArtifactVersion(artifactId, 1).getContent().content());
+        Assertions.assertEquals(1, storage().getArtifactVersionMetaData(artifactId, false, ContentHandle.create(content1)).getVersion());
+
+        storage().deleteArtifact(artifactId);
+        TestUtils.retry(() -> Assertions.assertThrows(ArtifactNotFoundException.class, () -> storage().getArtifact(artifactId)));
+        Assertions.assertThrows(ArtifactNotFoundException.class, () -> storage().getArtifactVersion(v2.getGlobalId()));
+        Assertions.assertEquals(content1, storage().getArtifact(artifactId + "-other").getContent().content());
+        Assertions.assertEquals(content1, storage().getArtifactVersion(other.getGlobalId()).getContent().content());
+    }
+
+    @Test
+    public void testVersionMetaData() throws Exception {
+        // every version has its own record, so updating one leaves the others alone
+        String artifactId = "testStreamsVersionMetaData";
+        createArtifact(artifactId, OPENAPI_CONTENT);
+        updateArtifact(artifactId, OPENAPI_CONTENT_V2);
+
+        storage().updateArtifactVersionMetaData(artifactId, 1, new EditableArtifactMetaDataDto("v1-name", "v1-description", null, null));
+        TestUtils.retry(() -> Assertions.assertEquals("v1-name", storage().getArtifactVersionMetaData(artifactId, 1).getName()));
+        Assertions.assertEquals("Empty API 2", storage().getArtifactVersionMetaData(artifactId, 2).getName());
+        Assertions.assertEquals("Empty API 2", storage().getArtifactMetaData(artifactId).getName());
+        Assertions.assertEquals(OPENAPI_CONTENT, storage().getArtifactVersion(artifactId, 1).getContent().content());
+        Assertions.assertEquals(OPENAPI_CONTENT_V2, storage().getArtifact(artifactId).getContent().content());
+    }
+
+    @Test
+    public void testSearchLatestVersion() throws Exception {
+        // search filters on the header's copy of the latest active version's metadata
+        String artifactId = "testStreamsSearchLatestVersion";
+        createArtifact(artifactId, OPENAPI_CONTENT);
+        storage().updateArtifactVersionMetaData(artifactId, 1, new EditableArtifactMetaDataDto(artifactId + "-old", null, null, null));
+        updateArtifact(artifactId, OPENAPI_CONTENT_V2);
+        storage().updateArtifactVersionMetaData(artifactId, 2, new EditableArtifactMetaDataDto(artifactId + "-new", null, null, null));
+
+        TestUtils.retry(() -> Assertions.assertEquals(1, search(artifactId + "-new").getCount()));
+        Assertions.assertEquals(0, search(artifactId + "-old").getCount());
+
+        storage().updateArtifactState(artifactId, ArtifactState.DISABLED, 2);
+        TestUtils.retry(() -> Assertions.assertEquals(1, search(artifactId + "-old").getCount()));
+        Assertions.assertEquals(0, search(artifactId + "-new").getCount());
+        Assertions.assertEquals(artifactId + "-old", search(artifactId + "-old").getArtifacts().get(0).getName());
+    }
+
+    private ArtifactSearchResults search(String name) {
+        return storage().searchArtifacts(name, 0, 10, SearchOver.name, SortOrder.asc);
+    }
+
+    private ArtifactMetaDataDto createArtifact(String artifactId, String content) throws Exception {
+        return storage().createArtifact(artifactId, ArtifactType.OPENAPI, ContentHandle.create(content)).toCompletableFuture().get();
+    }
+
+    private ArtifactMetaDataDto updateArtifact(String artifactId, String content) throws Exception {
+        return storage().updateArtifact(artifactId, ArtifactType.OPENAPI, ContentHandle.create(content)).toCompletableFuture().get();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.streams.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.kafka.streams.StreamsConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.CompressionType;
+import org.rocksdb.Options;
+
+import io.apicurio.registry.streams.StreamsPropertiesImpl;
+
+public class RegistryRocksDBConfigSetterTest {
+
+    @Test
+    public void testSetConfig() {
+        RegistryRocksDBConfigSetter setter = new RegistryRocksDBConfigSetter();
+
+        try (Options options = options()) {
+            setter.setConfig("storage-store", options, new HashMap<>());
+            Assertions.assertEquals(CompressionType.LZ4_COMPRESSION, options.compressionType());
+            Assertions.assertTrue(((BlockBasedTableConfig) options.tableFormatConfig()).cacheIndexAndFilterBlocks());
+            setter.close("storage-store", options);
+        }
+
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(RegistryRocksDBConfigSetter.BLOCK_CACHE_SIZE, 1024 * 1024L);
+        configs.put(RegistryRocksDBConfigSetter.COMPRESSION_TYPE, "zstd");
+        try (Options options = options()) {
+            setter.setConfig("content-store", options, configs);
+            Assertions.assertEquals(CompressionType.ZSTD_COMPRESSION, options.compressionType());
+            Assertions.assertTrue(((BlockBasedTableConfig) options.tableFormatConfig()).cacheIndexAndFilterBlocks());
+            setter.close("content-store", options);
+        }
+    }
+
+    @Test
+    public void testRegistration() {
+        // in-memory stores by default, without the setter
+        StreamsPropertiesImpl inMemory = new StreamsPropertiesImpl(new Properties());
+        Assertions.assertFalse(inMemory.isPersistentStore());
+        Assertions.assertNull(inMemory.getProperties().get(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG));
+
+        Properties properties = new Properties();
+        properties.put("persistent.store", "true");
+        StreamsPropertiesImpl persistent = new StreamsPropertiesImpl(properties);
+        Assertions.assertTrue(persistent.isPersistentStore());
+        Assertions.assertEquals(RegistryRocksDBConfigSetter.class.getName(),
+                persistent.getProperties().get(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG));
+
+        // a configured setter is kept
+        Properties custom = new Properties();
+        custom.put("persistent.store", "true");
+        custom.put(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, "org.example.CustomConfigSetter");
+        Assertions.assertEquals("org.example.CustomConfigSetter",
+                new StreamsPropertiesImpl(custom).getProperties().get(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG));
+    }
+
+    // Streams hands the setter options with a block based table config already set
+    private static Options options() {
+        Options options = new Options();
+        options.setTableFormatConfig(new BlockBasedTableConfig());
+        return options;
+    }
+}
@@ -25,11 +25,16 @@ import io.apicurio.registry.utils.converter.json.FormatStrategy;
 import io.apicurio.registry.utils.converter.json.PrettyFormatStrategy;
 import io.apicurio.registry.utils.serde.AbstractKafkaStrategyAwareSerDe;
 import io.apicurio.registry.utils.serde.SchemaCache;
+import org.apache.kafka.common.cache.Cache;
+import org.apache.kafka.common.cache.LRUCache;
+import org.apache.kafka.common.cache.SynchronizedCache;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaAndValue;
 import org.apache.kafka.connect.json.JsonConverter;
 import org.apache.kafka.connect.json.JsonConverterConfig;
 import org.apache.kafka.connect.storage.Converter;
+import org.apache.kafka.connect.storage.ConverterConfig;
+import org.apache.kafka.connect.storage.ConverterType;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -48,6 +53,12 @@ public class ExtJsonConverter extends AbstractKafkaStrategyAwareSerDe<String, Ex
 
     private SchemaCache<JsonNode> cache;
 
+    // (topic, Connect schema instance) -> artifact id and JSON schema, and global id -> Connect schema,
+    // so that converting records with an already seen schema doesn't redo any schema work;
+    // the global id is still resolved by the id strategy, which caches (and refreshes) it as configured
+    private Cache<TopicSchema, ArtifactSchema> artifactSchemas;
+    private Cache<Long, Schema> connectSchemas;
+
     public ExtJsonConverter() {
         this(null);
     }
@@ -57,6 +68,12 @@ public class ExtJsonConverter extends AbstractKafkaStrategyAwareSerDe<String, Ex
         this.jsonConverter = new JsonConverter();
         this.mapper = new ObjectMapper();
         this.formatStrategy = new PrettyFormatStrategy();
+        initSchemaCaches(JsonConverterConfig.SCHEMAS_CACHE_SIZE_DEFAULT);
+    }
+
+    private void initSchemaCaches(int size) {
+        this.artifactSchemas = new SynchronizedCache<>(new LRUCache<>(size));
+        this.connectSchemas = new SynchronizedCache<>(new LRUCache<>(size));
     }
 
     public ExtJsonConverter setFormatStrategy(FormatStrategy formatStrategy) {
@@ -69,7 +86,10 @@ public class ExtJsonConverter extends AbstractKafkaStrategyAwareSerDe<String, Ex
         super.configure(configs, isKey);
         Map<String, Object> wrapper = new HashMap<>(configs);
         wrapper.put(JsonConverterConfig.SCHEMAS_ENABLE_CONFIG, false);
+        wrapper.put(ConverterConfig.TYPE_CONFIG, (isKey ? ConverterType.KEY : ConverterType.VALUE).getName());
         jsonConverter.configure(wrapper, isKey);
+        initSchemaCaches(new JsonConverterConfig(wrapper).schemaCacheSize());
+        getCache().configure(configs);
     }
 
     private synchronized SchemaCache<JsonNode> getCache() {
@@ -90,9 +110,15 @@ public class ExtJsonConverter extends AbstractKafkaStrategyAwareSerDe<String, Ex
 
     @Override
     public byte[] fromConnectData(String topic, Schema schema, Object value) {
-        String schemaString = jsonConverter.asJsonSchema(schema).toString();
-        String artifactId = getArtifactIdStrategy().artifactId(topic, isKey(), schemaString);
-        long globalId = getGlobalIdStrategy().findId(getClient(), artifactId, ArtifactType.KCONNECT, schemaString);
+        TopicSchema key = new TopicSchema(topic, schema);
+        ArtifactSchema as = artifactSchemas.get(key);
+        if (as == null) {
+            String schemaString = jsonConverter.asJsonSchema(schema).toString();
+            as = new ArtifactSchema(getArtifactIdStrategy().artifactId(topic, isKey(), schemaString), schemaString);
+            artifactSchemas.put(key, as);
+        }
+        // the (same) schema string instance is passed on, so identity based strategy caches hit
+        long globalId = getGlobalIdStrategy().findId(getClient(), as.artifactId, ArtifactType.KCONNECT, as.schema);
 
         byte[] payload = jsonConverter.fromConnectData(topic, schema, value);
 
@@ -104,12 +130,56 @@ public class ExtJsonConverter extends AbstractKafkaStrategyAwareSerDe<String, Ex
         FormatStrategy.IdPayload ip = formatStrategy.toConnectData(value);
 
         long globalId = ip.getGlobalId();
-        JsonNode schemaNode = getCache().getSchema(globalId);
-        Schema schema = jsonConverter.asConnectSchema(schemaNode);
+        Schema schema = connectSchemas.get(globalId);
+        if (schema == null) {
+            JsonNode schemaNode = getCache().getSchema(globalId);
+            schema = jsonConverter.asConnectSchema(schemaNode);
+            connectSchemas.put(globalId, schema);
+        }
 
         byte[] payload = ip.getPayload();
         SchemaAndValue sav = jsonConverter.toConnectData(topic, payload);
 
         return new SchemaAndValue(schema, sav.value());
     }
+
+    private static final class ArtifactSchema {
+        private final String artifactId;
+        private final String schema;
+
+        ArtifactSchema(String artifactId, String schema) {
+            this.artifactId = artifactId;
+            this.schema = schema;
+        }
+    }
+
+    /**
+     * Cache key, Connect schemas are compared by identity (their equals/hashCode walk the whole schema).
+     */
+    private static final class TopicSchema {
+        private final String topic;
+        private final Schema schema;
+
+        TopicSchema(String topic, Schema schema) {
+            this.topic = topic;
+            this.schema = schema;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TopicSchema)) {
+                return false;
+            }
+            TopicSchema other = (TopicSchema) o;
+            return schema == other.schema && Objects.equals(topic, other.topic);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(topic) + System.identityHashCode(schema);
+        }
+    }
 }
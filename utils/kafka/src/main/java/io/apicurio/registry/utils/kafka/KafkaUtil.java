@@ -40,6 +40,11 @@ import java.util.stream.Collectors;
 public class KafkaUtil {
     private static final Logger log = LoggerFactory.getLogger(KafkaUtil.class);
 
+    /**
+     * Topic "config" with the number of partitions to create a new topic with (default is 1).
+     */
+    public static final String NUM_PARTITIONS = "num.partitions";
+
     public static <T> T result(KafkaFuture<T> kf) {
         CompletionStage<T> cs = toCompletionStage(kf);
         return ConcurrentUtil.result(cs);
@@ -133,7 +138,12 @@ public class KafkaUtil {
                 }
                 int minimumInSyncReplicas = Math.max(replicationFactor - 1, 1);
                 configs.putIfAbsent(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, String.valueOf(minimumInSyncReplicas));
-                return new NewTopic(topicName, 1, (short) replicationFactor).configs(configs);
+                // not a topic config, just the number of partitions of the new topic
+                int partitions = 1;
+                if (configs.containsKey(NUM_PARTITIONS)) {
+                    partitions = Integer.parseInt(configs.remove(NUM_PARTITIONS));
+                }
+                return new NewTopic(topicName, partitions, (short) replicationFactor).configs(configs);
             }).whenComplete((nt, t) -> log.info("Created new topic: {}", topicName, t));
             topicsToCreate.add(toCompletionStage(newTopicKF));
         }
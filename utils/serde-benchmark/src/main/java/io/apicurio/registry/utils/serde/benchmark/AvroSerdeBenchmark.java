@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.utils.serde.benchmark;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.apicurio.registry.client.RegistryRestClient;
+import io.apicurio.registry.utils.serde.AvroKafkaDeserializer;
+import io.apicurio.registry.utils.serde.AvroKafkaSerializer;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvroSerdeBenchmark {
+
+    private static final Schema SCHEMA = new Schema.Parser().parse(
+        "{\"type\":\"record\",\"name\":\"User\",\"namespace\":\"io.apicurio.benchmark\",\"fields\":[" +
+        "{\"name\":\"name\",\"type\":\"string\"}," +
+        "{\"name\":\"email\",\"type\":\"string\"}," +
+        "{\"name\":\"age\",\"type\":\"int\"}," +
+        "{\"name\":\"score\",\"type\":\"double\"}," +
+        "{\"name\":\"tags\",\"type\":{\"type\":\"array\",\"items\":\"string\"}}" +
+        "]}"
+    );
+
+    @Param({"default", "legacy"})
+    public String idHandler;
+
+    @Param({"false", "true"})
+    public boolean useHeaders;
+
+    private AvroKafkaSerializer<GenericRecord> serializer;
+    private AvroKafkaDeserializer<GenericRecord> deserializer;
+
+    private GenericRecord record;
+    private Headers headers;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        RegistryRestClient client = RegistryStub.createClient();
+        Map<String, Object> configs = BenchmarkConfigs.configs(idHandler, useHeaders);
+
+        serializer = new AvroKafkaSerializer<>(client);
+        serializer.configure(configs, false);
+        deserializer = new AvroKafkaDeserializer<>(client);
+        deserializer.configure(configs, false);
+
+        record = new GenericData.Record(SCHEMA);
+        record.put("name", "Jane Doe");
+        record.put("email", "jane.doe@example.com");
+        record.put("age", 42);
+        record.put("score", 0.75d);
+        record.put("tags", Arrays.asList("kafka", "avro", "registry"));
+
+        headers = new RecordHeaders();
+        payload = serializer.serialize(BenchmarkConfigs.TOPIC, headers, record);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(BenchmarkConfigs.TOPIC, new RecordHeaders(), record);
+    }
+
+    @Benchmark
+    public GenericRecord deserialize() {
+        return deserializer.deserialize(BenchmarkConfigs.TOPIC, headers, payload);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.utils.serde.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.apicurio.registry.utils.serde.SerdeConfig;
+import io.apicurio.registry.utils.serde.strategy.DefaultIdHandler;
+import io.apicurio.registry.utils.serde.strategy.Legacy4ByteIdHandler;
+
+/**
+ * Serde configuration shared by the benchmarks.
+ */
+final class BenchmarkConfigs {
+
+    static final String TOPIC = "benchmark";
+
+    private BenchmarkConfigs() {
+    }
+
+    /**
+     * @param idHandler "default" or "legacy"
+     * @param useHeaders pass global id in headers instead of the payload
+     */
+    static Map<String, Object> configs(String idHandler, boolean useHeaders) {
+        Map<String, Object> configs = new HashMap<>();
+        switch (idHandler) {
+            case "default":
+                configs.put(SerdeConfig.ID_HANDLER, DefaultIdHandler.class.getName());
+                break;
+            case "legacy":
+                configs.put(SerdeConfig.ID_HANDLER, Legacy4ByteIdHandler.class.getName());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown id handler: " + idHandler);
+        }
+        configs.put(SerdeConfig.USE_HEADERS, String.valueOf(useHeaders));
+        return configs;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.utils.serde.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.apicurio.registry.client.RegistryRestClient;
+import io.apicurio.registry.utils.IoUtil;
+import io.apicurio.registry.utils.serde.JsonSchemaKafkaDeserializer;
+import io.apicurio.registry.utils.serde.JsonSchemaKafkaSerializer;
+
+/**
+ * The JSON Schema serde classes always pass the global id in the headers, so there is
+ * no id handler parameter here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSchemaSerdeBenchmark {
+
+    private static final String SCHEMA = "{" +
+        "\"$schema\":\"http://json-schema.org/draft-07/schema#\"," +
+        "\"type\":\"object\"," +
+        "\"properties\":{" +
+        "\"name\":{\"type\":\"string\"}," +
+        "\"email\":{\"type\":\"string\"}," +
+        "\"age\":{\"type\":\"integer\",\"minimum\":0}," +
+        "\"score\":{\"type\":\"number\"}," +
+        "\"tags\":{\"type\":\"array\",\"items\":{\"type\":\"string\"}}" +
+        "}," +
+        "\"required\":[\"name\",\"age\"]" +
+        "}";
+
+    public static class User {
+        private String name;
+        private String email;
+        private int age;
+        private double score;
+        private List<String> tags;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public void setScore(double score) {
+            this.score = score;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    @Param({"true", "false"})
+    public boolean validationEnabled;
+
+    private JsonSchemaKafkaSerializer<User> serializer;
+    private JsonSchemaKafkaDeserializer<User> deserializer;
+
+    private User user;
+    private Headers headers;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        RegistryStub stub = new RegistryStub();
+        // TopicIdStrategy
+        stub.register(BenchmarkConfigs.TOPIC + "-value", IoUtil.toBytes(SCHEMA));
+        RegistryRestClient client = RegistryStub.createClient(stub);
+
+        serializer = new JsonSchemaKafkaSerializer<>(client, validationEnabled);
+        serializer.configure(new HashMap<>(), false);
+        deserializer = new JsonSchemaKafkaDeserializer<>(client, validationEnabled);
+        deserializer.configure(new HashMap<>(), false);
+
+        user = new User();
+        user.setName("Jane Doe");
+        user.setEmail("jane.doe@example.com");
+        user.setAge(42);
+        user.setScore(0.75d);
+        user.setTags(Arrays.asList("kafka", "json", "registry"));
+
+        headers = new RecordHeaders();
+        payload = serializer.serialize(BenchmarkConfigs.TOPIC, headers, user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(BenchmarkConfigs.TOPIC, new RecordHeaders(), user);
+    }
+
+    @Benchmark
+    public User deserialize() {
+        return deserializer.deserialize(BenchmarkConfigs.TOPIC, headers, payload);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.utils.serde.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Field;
+import com.google.protobuf.SourceContext;
+import com.google.protobuf.Syntax;
+import com.google.protobuf.Type;
+
+import io.apicurio.registry.client.RegistryRestClient;
+import io.apicurio.registry.utils.serde.ProtobufKafkaDeserializer;
+import io.apicurio.registry.utils.serde.ProtobufKafkaSerializer;
+
+/**
+ * Uses the well-known {@link Type} message, whose schema imports other files
+ * (source_context.proto, any.proto), so schema handling of imports is covered too.
+ * The protobuf serde classes only support passing the global id in the payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtobufSerdeBenchmark {
+
+    @Param({"default", "legacy"})
+    public String idHandler;
+
+    private ProtobufKafkaSerializer<Type> serializer;
+    private ProtobufKafkaDeserializer deserializer;
+
+    private Type message;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        RegistryRestClient client = RegistryStub.createClient();
+        Map<String, Object> configs = BenchmarkConfigs.configs(idHandler, false);
+
+        serializer = new ProtobufKafkaSerializer<>(client);
+        serializer.configure(configs, false);
+        deserializer = new ProtobufKafkaDeserializer(client);
+        deserializer.configure(configs, false);
+
+        Type.Builder builder = Type.newBuilder()
+                                   .setName("io.apicurio.benchmark.User")
+                                   .setSyntax(Syntax.SYNTAX_PROTO3)
+                                   .setSourceContext(SourceContext.newBuilder().setFileName("user.proto"));
+        String[] names = {"name", "email", "age", "score", "tags"};
+        for (int i = 0; i < names.length; i++) {
+            builder.addFields(Field.newBuilder()
+                                   .setName(names[i])
+                                   .setNumber(i + 1)
+                                   .setKind(Field.Kind.TYPE_STRING)
+                                   .setCardinality(Field.Cardinality.CARDINALITY_OPTIONAL));
+        }
+        message = builder.build();
+
+        payload = serializer.serialize(BenchmarkConfigs.TOPIC, message);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(BenchmarkConfigs.TOPIC, new RecordHeaders(), message);
+    }
+
+    @Benchmark
+    public DynamicMessage deserialize() {
+        return deserializer.deserialize(BenchmarkConfigs.TOPIC, payload);
+    }
+}
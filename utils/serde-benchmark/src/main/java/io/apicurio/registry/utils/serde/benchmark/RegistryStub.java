@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.utils.serde.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.apicurio.registry.client.RegistryRestClient;
+import io.apicurio.registry.client.exception.ArtifactNotFoundException;
+import io.apicurio.registry.rest.beans.ArtifactMetaData;
+import io.apicurio.registry.rest.beans.Error;
+import io.apicurio.registry.utils.IoUtil;
+
+/**
+ * In-memory stand-in for the registry, so that the serde classes can be benchmarked without a server.
+ * Only the operations used by the serde classes (and their default strategies) are supported.
+ */
+public class RegistryStub implements InvocationHandler {
+
+    private final AtomicLong globalIds = new AtomicLong();
+    private final Map<Long, byte[]> contentByGlobalId = new ConcurrentHashMap<>();
+    private final Map<ByteBuffer, ArtifactMetaData> metaDataByContent = new ConcurrentHashMap<>();
+    private final Map<String, ArtifactMetaData> latestByArtifactId = new ConcurrentHashMap<>();
+
+    public static RegistryRestClient createClient() {
+        return createClient(new RegistryStub());
+    }
+
+    public static RegistryRestClient createClient(RegistryStub stub) {
+        return (RegistryRestClient) Proxy.newProxyInstance(
+            RegistryStub.class.getClassLoader(),
+            new Class<?>[]{RegistryRestClient.class},
+            stub
+        );
+    }
+
+    /**
+     * Registers the content under given artifact id, unless the same content is already registered.
+     */
+    public ArtifactMetaData register(String artifactId, byte[] content) {
+        ArtifactMetaData amd = metaDataByContent.computeIfAbsent(ByteBuffer.wrap(content), key -> {
+            long globalId = globalIds.incrementAndGet();
+            contentByGlobalId.put(globalId, content);
+            ArtifactMetaData metaData = new ArtifactMetaData();
+            metaData.setId(artifactId);
+            metaData.setGlobalId(globalId);
+            metaData.setVersion(1);
+            return metaData;
+        });
+        latestByArtifactId.put(artifactId, amd);
+        return amd;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getArtifactMetaDataByContent":
+                return register((String) args[0], IoUtil.toBytes((InputStream) args[2]));
+            case "getArtifactMetaData": {
+                ArtifactMetaData amd = latestByArtifactId.get((String) args[0]);
+                if (amd == null) {
+                    throw notFound("No such artifact: " + args[0]);
+                }
+                return amd;
+            }
+            case "getArtifactByGlobalId": {
+                byte[] content = contentByGlobalId.get((Long) args[0]);
+                if (content == null) {
+                    throw notFound("No artifact with global id: " + args[0]);
+                }
+                return new ByteArrayInputStream(content);
+            }
+            case "getHeaders":
+                return Collections.emptyMap();
+            case "setNextRequestHeaders":
+            case "close":
+                return null;
+            case "toString":
+                return "RegistryStub";
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                throw new UnsupportedOperationException("Not supported by the registry stub: " + method.getName());
+        }
+    }
+
+    private static ArtifactNotFoundException notFound(String message) {
+        Error error = new Error();
+        error.setErrorCode(404);
+        error.setMessage(message);
+        return new ArtifactNotFoundException(error);
+    }
+}
@@ -17,20 +17,44 @@
 
 package io.apicurio.registry.utils.serde;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
 
 import io.apicurio.registry.client.RegistryRestClient;
+import io.apicurio.registry.utils.serde.util.Utils;
 
 /**
  * @author Ales Justin
  */
 public abstract class AbstractKafkaDeserializer<T, U, S extends AbstractKafkaDeserializer<T, U, S>> extends AbstractKafkaSerDe<S> implements Deserializer<U> {
+    public static final int DEFAULT_PREFETCH_PARALLELISM = 4;
+    public static final int DEFAULT_WARM_UP_GLOBAL_IDS_MAX = 100;
+
     private SchemaCache<T> cache;
+    private ExecutorService prefetchExecutor;
+    private int prefetchParallelism = DEFAULT_PREFETCH_PARALLELISM;
+    private Path warmUpFile;
+    private int warmUpMax = DEFAULT_WARM_UP_GLOBAL_IDS_MAX;
 
     public AbstractKafkaDeserializer() {
     }
@@ -54,6 +78,22 @@ public abstract class AbstractKafkaDeserializer<T, U, S extends AbstractKafkaDes
     @Override
     public void configure(Map<String, ?> configs, boolean isKey) {
         super.configure(configs, isKey);
+        getCache().configure(configs);
+
+        Long parallelism = Utils.toLong(configs.get(SerdeConfig.PREFETCH_PARALLELISM));
+        if (parallelism != null) {
+            prefetchParallelism = parallelism.intValue();
+        }
+        Long max = Utils.toLong(configs.get(SerdeConfig.WARM_UP_GLOBAL_IDS_MAX));
+        if (max != null) {
+            warmUpMax = max.intValue();
+        }
+        Object file = configs.get(SerdeConfig.WARM_UP_GLOBAL_IDS_FILE);
+        if (file != null) {
+            // key and value deserializers of a consumer would otherwise overwrite each other's ids
+            warmUpFile = Paths.get(file + (isKey ? ".key" : ".value"));
+        }
+        warmUp(toList(configs.get(SerdeConfig.WARM_UP_ARTIFACT_IDS)));
     }
 
     @Override
@@ -62,6 +102,134 @@ public abstract class AbstractKafkaDeserializer<T, U, S extends AbstractKafkaDes
         super.reset();
     }
 
+    @Override
+    public void close() {
+        storeWarmUpIds();
+        synchronized (this) {
+            if (prefetchExecutor != null) {
+                prefetchExecutor.shutdownNow();
+                prefetchExecutor = null;
+            }
+        }
+        super.close();
+    }
+
+    /**
+     * Fetches the schemas for the given global ids in parallel, so that records using them
+     * can be deserialized without a registry round trip.
+     *
+     * @param globalIds the global ids
+     * @return future completed once all the schemas are loaded
+     */
+    public CompletableFuture<Void> prefetch(Iterable<Long> globalIds) {
+        return getCache().prefetch(globalIds, getPrefetchExecutor());
+    }
+
+    /**
+     * Fetches the schemas used by a batch of (not yet deserialized) records in parallel, e.g. when
+     * consuming raw bytes and deserializing them afterwards.
+     *
+     * @param records the polled records
+     * @return future completed once all the schemas are loaded
+     */
+    public CompletableFuture<Void> prefetch(ConsumerRecords<byte[], byte[]> records) {
+        List<Long> ids = new ArrayList<>();
+        for (ConsumerRecord<byte[], byte[]> record : records) {
+            byte[] data = isKey() ? record.key() : record.value();
+            if (data == null || data.length == 0) {
+                continue;
+            }
+            if (data[0] == MAGIC_BYTE) {
+                ids.add(getIdHandler().readId(getByteBuffer(data)));
+            } else if (headerUtils != null) {
+                ids.add(headerUtils.getGlobalId(record.headers()));
+            }
+        }
+        return prefetch(ids);
+    }
+
+    private synchronized ExecutorService getPrefetchExecutor() {
+        if (prefetchExecutor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            prefetchExecutor = Executors.newFixedThreadPool(prefetchParallelism, r -> {
+                Thread thread = new Thread(r, "apicurio-schema-prefetch-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return prefetchExecutor;
+    }
+
+    private void warmUp(List<String> artifactIds) {
+        List<Long> ids = loadWarmUpIds();
+        if (!ids.isEmpty()) {
+            prefetch(ids).whenComplete((v, t) -> {
+                if (t != null) {
+                    log.warn("Error warming up schema cache with global ids: " + ids, t);
+                }
+            });
+        }
+        for (String artifactId : artifactIds) {
+            CompletableFuture.supplyAsync(() -> toGlobalId(artifactId, null), getPrefetchExecutor())
+                             .thenCompose(id -> prefetch(Collections.singletonList(id)))
+                             .whenComplete((v, t) -> {
+                                 if (t != null) {
+                                     log.warn("Error warming up schema cache with artifact: " + artifactId, t);
+                                 }
+                             });
+        }
+    }
+
+    private List<Long> loadWarmUpIds() {
+        if (warmUpFile == null || !Files.isReadable(warmUpFile)) {
+            return new ArrayList<>();
+        }
+        try {
+            return Files.readAllLines(warmUpFile, StandardCharsets.UTF_8)
+                        .stream()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty())
+                        .map(Long::valueOf)
+                        .collect(Collectors.toList());
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Cannot read global ids from warm-up file: " + warmUpFile, e);
+            return new ArrayList<>();
+        }
+    }
+
+    private void storeWarmUpIds() {
+        if (warmUpFile == null || cache == null) {
+            return;
+        }
+        List<Long> ids = cache.getIds();
+        // keep the most recently used ones
+        List<String> lines = ids.subList(Math.max(0, ids.size() - warmUpMax), ids.size())
+                                .stream()
+                                .map(String::valueOf)
+                                .collect(Collectors.toList());
+        try {
+            Files.write(warmUpFile, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Cannot write global ids to warm-up file: " + warmUpFile, e);
+        }
+    }
+
+    private static List<String> toList(Object value) {
+        List<String> list = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object o : (Collection<?>) value) {
+                list.add(o.toString().trim());
+            }
+        } else if (value != null) {
+            for (String s : value.toString().split(",")) {
+                if (!s.trim().isEmpty()) {
+                    list.add(s.trim());
+                }
+            }
+        }
+        return list;
+    }
+
     protected abstract T toSchema(InputStream schemaData);
 
     protected abstract U readData(T schema, ByteBuffer buffer, int start, int length);
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 /**
@@ -36,7 +37,11 @@ import java.util.concurrent.Callable;
  */
 public abstract class AbstractKafkaSerializer<T, U, S extends AbstractKafkaSerializer<T, U, S>> extends AbstractKafkaStrategyAwareSerDe<T, S> implements Serializer<U> {
 
+    // larger buffers are not kept around for reuse
+    private static final int MAX_REUSED_BUFFER_SIZE = 1024 * 1024;
+
     private SchemaCache<T> cache;
+    private final ThreadLocal<ByteArrayOutputStream> buffers = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(1024));
 
     public AbstractKafkaSerializer() {
         this(null);
@@ -66,6 +71,12 @@ public abstract class AbstractKafkaSerializer<T, U, S extends AbstractKafkaSeria
         return cache;
     }
 
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        super.configure(configs, isKey);
+        getCache().configure(configs);
+    }
+
     protected abstract T readSchema(InputStream response);
 
     protected abstract T toSchema(U data);
@@ -97,16 +108,24 @@ public abstract class AbstractKafkaSerializer<T, U, S extends AbstractKafkaSeria
             // GlobalId strategies that create or update the schema or those which find global id by schema content
             // already populate the cache properly, so no retry should be required.
             schema = retry(() -> getCache().getSchema(id), 5); // use registry's schema!
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            if (headerUtils != null) {
-                headerUtils.addSchemaHeaders(headers, artifactId, id);
-                serializeData(headers, schema, data, out);
-            } else {
-                out.write(MAGIC_BYTE);
-                getIdHandler().writeId(id, out);
-                serializeData(schema, data, out);
+            // the (already grown) buffer is reused, only the final copy is allocated per record
+            ByteArrayOutputStream out = buffers.get();
+            out.reset();
+            try {
+                if (headerUtils != null) {
+                    headerUtils.addSchemaHeaders(headers, artifactId, id);
+                    serializeData(headers, schema, data, out);
+                } else {
+                    out.write(MAGIC_BYTE);
+                    getIdHandler().writeId(id, out);
+                    serializeData(schema, data, out);
+                }
+                return out.toByteArray();
+            } finally {
+                if (out.size() > MAX_REUSED_BUFFER_SIZE) {
+                    buffers.remove();
+                }
             }
-            return out.toByteArray();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
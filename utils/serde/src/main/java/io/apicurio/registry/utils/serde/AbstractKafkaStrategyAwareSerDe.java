@@ -79,4 +79,13 @@ public abstract class AbstractKafkaStrategyAwareSerDe<T, S extends AbstractKafka
         instantiate(GlobalIdStrategy.class, gis, this::setGlobalIdStrategy);
         getGlobalIdStrategy().configure(configs, isKey);
     }
+
+    @Override
+    public void close() {
+        try {
+            getGlobalIdStrategy().close();
+        } finally {
+            super.close();
+        }
+    }
 }
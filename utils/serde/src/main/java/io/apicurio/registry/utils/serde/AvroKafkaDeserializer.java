@@ -27,6 +27,7 @@ import java.util.Objects;
 import java.util.function.Consumer;
 
 import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DecoderFactory;
 import org.apache.kafka.common.header.Headers;
@@ -42,6 +43,7 @@ import io.apicurio.registry.utils.serde.util.ResponseUtils;
  */
 public class AvroKafkaDeserializer<U> extends AbstractKafkaDeserializer<Schema, U, AvroKafkaDeserializer<U>> {
     private final DecoderFactory decoderFactory = DecoderFactory.get();
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
     private AvroDatumProvider<U> avroDatumProvider;
     private AvroEncoding configEncoding;
 
@@ -99,12 +101,12 @@ public class AvroKafkaDeserializer<U> extends AbstractKafkaDeserializer<Schema,
         try {
             DatumReader<U> reader = avroDatumProvider.createDatumReader(schema);
             if( encoding == AvroEncoding.JSON) {
-                // copy the data into a new byte[]
-                byte[] msgData = new byte[length];
-                System.arraycopy(buffer.array(), start, msgData, 0, length);
-                return reader.read(null, decoderFactory.jsonDecoder(schema, new ByteArrayInputStream(msgData)));
+                return reader.read(null, decoderFactory.jsonDecoder(schema, new ByteArrayInputStream(buffer.array(), start, length)));
             } else {
-                return reader.read(null, decoderFactory.binaryDecoder(buffer.array(), start, length, null));
+                // re-configures and returns the previous decoder instance, if any
+                BinaryDecoder decoder = decoderFactory.binaryDecoder(buffer.array(), start, length, decoders.get());
+                decoders.set(decoder);
+                return reader.read(null, decoder);
             }
 
         } catch (IOException e) {
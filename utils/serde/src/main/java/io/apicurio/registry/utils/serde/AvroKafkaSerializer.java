@@ -26,6 +26,7 @@ import java.util.Objects;
 import java.util.function.Consumer;
 
 import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.Encoder;
 import org.apache.avro.io.EncoderFactory;
@@ -47,6 +48,7 @@ import io.apicurio.registry.utils.serde.util.Utils;
  */
 public class AvroKafkaSerializer<U> extends AbstractKafkaSerializer<Schema, U, AvroKafkaSerializer<U>> {
     private final EncoderFactory encoderFactory = EncoderFactory.get();
+    private final ThreadLocal<BinaryEncoder> encoders = new ThreadLocal<>();
     private AvroDatumProvider<U> avroDatumProvider = new DefaultAvroDatumProvider<>();
     private AvroEncoding encoding;
 
@@ -132,7 +134,10 @@ public class AvroKafkaSerializer<U> extends AbstractKafkaSerializer<Schema, U, A
         if(encoding == AvroEncoding.JSON) {
             return encoderFactory.jsonEncoder(schema, os);
         } else {
-            return encoderFactory.directBinaryEncoder(os, null);
+            // re-configures and returns the previous encoder instance, if any
+            BinaryEncoder encoder = encoderFactory.directBinaryEncoder(os, encoders.get());
+            encoders.set(encoder);
+            return encoder;
         }
     }
 }
@@ -84,6 +84,7 @@ public class JsonSchemaKafkaSerDe<S extends JsonSchemaKafkaSerDe<S>> extends Abs
         }
         
         headerUtils = new HeaderUtils((Map<String, Object>) configs, isKey);
+        getSchemaCache().configure(configs);
 
         // TODO allow the schema to be configured here
     }
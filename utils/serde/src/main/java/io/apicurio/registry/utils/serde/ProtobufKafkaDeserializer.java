@@ -16,27 +16,26 @@
 
 package io.apicurio.registry.utils.serde;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.List;
 
 import org.apache.kafka.common.header.Headers;
 
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
 
 import io.apicurio.registry.client.RegistryRestClient;
 import io.apicurio.registry.common.proto.Serde;
 import io.apicurio.registry.utils.IoUtil;
+import io.apicurio.registry.utils.serde.protobuf.ProtobufSchema;
 
 /**
  * @author Ales Justin
  * @author Hiram Chirino
  */
-public class ProtobufKafkaDeserializer extends AbstractKafkaDeserializer<byte[], DynamicMessage, ProtobufKafkaDeserializer> {
+public class ProtobufKafkaDeserializer extends AbstractKafkaDeserializer<ProtobufSchema, DynamicMessage, ProtobufKafkaDeserializer> {
     public ProtobufKafkaDeserializer() {
     }
 
@@ -45,39 +44,37 @@ public class ProtobufKafkaDeserializer extends AbstractKafkaDeserializer<byte[],
     }
 
     @Override
-    protected byte[] toSchema(InputStream schemaData) {
-        return IoUtil.toBytes(schemaData);
+    protected ProtobufSchema toSchema(InputStream schemaData) {
+        try {
+            return ProtobufSchema.parseFrom(IoUtil.toBytes(schemaData));
+        } catch (IOException | Descriptors.DescriptorValidationException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     @Override
-    protected DynamicMessage readData(byte[] schema, ByteBuffer buffer, int start, int length) {
+    protected DynamicMessage readData(ProtobufSchema schema, ByteBuffer buffer, int start, int length) {
         try {
-            Serde.Schema s = Serde.Schema.parseFrom(schema);
-            Descriptors.FileDescriptor fileDescriptor = toFileDescriptor(s);
-
-            byte[] bytes = new byte[length];
-            System.arraycopy(buffer.array(), start, bytes, 0, length);
-            ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+            // parse directly from the record's buffer, no need to copy the payload
+            CodedInputStream is = CodedInputStream.newInstance(buffer.array(), start, length);
 
-            Serde.Ref ref = Serde.Ref.parseDelimitedFrom(is);
+            int refSize = is.readRawVarint32();
+            int oldLimit = is.pushLimit(refSize);
+            Serde.Ref ref = Serde.Ref.parseFrom(is);
+            is.popLimit(oldLimit);
 
-            Descriptors.Descriptor descriptor = fileDescriptor.findMessageTypeByName(ref.getName());
+            Descriptors.Descriptor descriptor = schema.findMessageTypeByName(ref.getName());
+            if (descriptor == null) {
+                throw new IllegalStateException("No such message type in schema: " + ref.getName());
+            }
             return DynamicMessage.parseFrom(descriptor, is);
-        } catch (IOException | Descriptors.DescriptorValidationException e) {
+        } catch (IOException e) {
             throw new IllegalStateException(e);
         }
     }
 
     @Override
-    protected DynamicMessage readData(Headers headers, byte[] schema, ByteBuffer buffer, int start, int length) {
+    protected DynamicMessage readData(Headers headers, ProtobufSchema schema, ByteBuffer buffer, int start, int length) {
         return readData(schema, buffer, start, length);
     }
-
-    private Descriptors.FileDescriptor toFileDescriptor(Serde.Schema s) throws Descriptors.DescriptorValidationException {
-        List<Descriptors.FileDescriptor> imports = new ArrayList<>();
-        for (Serde.Schema i : s.getImportList()) {
-            imports.add(toFileDescriptor(i));
-        }
-        return Descriptors.FileDescriptor.buildFrom(s.getFile(), imports.toArray(new Descriptors.FileDescriptor[0]));
-    }
 }
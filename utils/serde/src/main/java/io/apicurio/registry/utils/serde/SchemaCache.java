@@ -17,18 +17,74 @@
 package io.apicurio.registry.utils.serde;
 
 import io.apicurio.registry.client.RegistryRestClient;
+import io.apicurio.registry.client.exception.NotFoundException;
+import io.apicurio.registry.utils.serde.util.Utils;
 
 import java.io.InputStream;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 /**
+ * Bounded cache of schemas by global id.
+ * <p>
+ * Lookups of cached schemas are lock-free.  Entries are evicted in (approximate) LRU order once the
+ * cache grows over its max size -- in batches, by the thread that inserts over the limit -- and
+ * can optionally expire after a TTL.  Concurrent lookups of the same (missing) global id share a single registry
+ * request, while lookups of other ids are not blocked by it.  Optionally, "not found" responses
+ * are remembered for a (exponentially growing) backoff period, so that a stream of records
+ * with an unknown global id does not hit the registry for every record.
+ *
  * @author Ales Justin
  */
 public abstract class SchemaCache<T> {
+    public static final long DEFAULT_MAX_SIZE = 10_000;
+    public static final long DEFAULT_MISS_MAX_BACKOFF_MS = 30_000;
+
+    // share of the entries evicted at once, so eviction cost is amortized over many inserts
+    private static final int EVICTION_BATCH_DIVISOR = 10;
+    private static final long ACCESS_GRANULARITY_NANOS = 1_000_000L;
+
+    private static class Entry<T> {
+        final T schema;
+        final long expiresAt;
+        volatile long accessed;
+
+        Entry(T schema, long expiresAt) {
+            this.schema = schema;
+            this.expiresAt = expiresAt;
+            this.accessed = System.nanoTime();
+        }
+    }
+
+    private static class Miss {
+        final int count;
+        final long retryAt;
+
+        Miss(int count, long retryAt) {
+            this.count = count;
+            this.retryAt = retryAt;
+        }
+    }
+
     private final RegistryRestClient client;
-    private final Map<Long, T> schemas = new ConcurrentHashMap<>();
+    private final Map<Long, Entry<T>> schemas = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Map<Long, CompletableFuture<T>> loading = new ConcurrentHashMap<>();
+    private final Map<Long, Miss> misses = new ConcurrentHashMap<>();
+
+    private volatile long maxSize = DEFAULT_MAX_SIZE;
+    private volatile long ttl;
+    private volatile long missBackoff;
+    private volatile long missMaxBackoff = DEFAULT_MISS_MAX_BACKOFF_MS;
 
     public SchemaCache(RegistryRestClient client) {
         this.client = Objects.requireNonNull(client);
@@ -36,29 +92,240 @@ public abstract class SchemaCache<T> {
 
     protected abstract T toSchema(InputStream schemaData);
 
+    public void configure(Map<String, ?> configs) {
+        Long size = Utils.toLong(configs.get(SerdeConfig.SCHEMA_CACHE_MAX_SIZE));
+        if (size != null) {
+            setMaxSize(size);
+        }
+        Long ttlMs = Utils.toLong(configs.get(SerdeConfig.SCHEMA_CACHE_TTL_MS));
+        if (ttlMs != null) {
+            setTtl(ttlMs);
+        }
+        Long backoff = Utils.toLong(configs.get(SerdeConfig.SCHEMA_CACHE_MISS_BACKOFF_MS));
+        if (backoff != null) {
+            setMissBackoff(backoff);
+        }
+        Long maxBackoff = Utils.toLong(configs.get(SerdeConfig.SCHEMA_CACHE_MISS_MAX_BACKOFF_MS));
+        if (maxBackoff != null) {
+            setMissMaxBackoff(maxBackoff);
+        }
+    }
+
+    /**
+     * @param maxSize max number of cached schemas, non-positive means unbounded
+     */
+    public SchemaCache<T> setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * @param ttl time (in millis) after which a cached schema is fetched again, non-positive means never
+     */
+    public SchemaCache<T> setTtl(long ttl) {
+        this.ttl = ttl;
+        return this;
+    }
+
+    /**
+     * @param missBackoff initial time (in millis) during which a "not found" response is remembered,
+     *                    non-positive disables negative caching
+     */
+    public SchemaCache<T> setMissBackoff(long missBackoff) {
+        this.missBackoff = missBackoff;
+        return this;
+    }
+
+    /**
+     * @param missMaxBackoff upper bound (in millis) for the growing "not found" backoff
+     */
+    public SchemaCache<T> setMissMaxBackoff(long missMaxBackoff) {
+        this.missMaxBackoff = missMaxBackoff;
+        return this;
+    }
+
     public void putSchema(long id, T schema) {
-        schemas.putIfAbsent(id, schema);
+        if (getCached(id) == null) {
+            put(id, schema);
+        }
+        misses.remove(id);
     }
 
     public T getSchema(long id) {
-        return schemas.computeIfAbsent(id, key -> {
-            try {
-                InputStream artifactResponse = client.getArtifactByGlobalId(key);
-                return toSchema(artifactResponse);
-            } catch (Exception e) {
-                throw new IllegalStateException(
-                        String.format(
-                            "Error [%s] retrieving schema: %s",
-                            e.getMessage(),
-                            key
-                        ),
-                        e
-                    );
+        T schema = getCached(id);
+        if (schema != null) {
+            return schema;
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> inFlight = loading.putIfAbsent(id, future);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            // a previous load could have finished in the meantime
+            schema = getCached(id);
+            if (schema == null) {
+                schema = load(id);
+                put(id, schema);
             }
-        });
+            future.complete(schema);
+            return schema;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(id, future);
+        }
+    }
+
+    public boolean contains(long id) {
+        return getCached(id) != null;
+    }
+
+    /**
+     * @return ids of the cached schemas, least recently used first
+     */
+    public List<Long> getIds() {
+        return byAccess().stream().map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the number of cached schemas (including the expired ones not yet evicted)
+     */
+    public int size() {
+        return schemas.size();
+    }
+
+    /**
+     * Loads the schemas which are not cached yet in parallel, using the given executor.
+     * Records that use these ids can later be handled without a registry round trip.
+     *
+     * @param ids the global ids
+     * @param executor the executor to run the loads on
+     * @return future completed once all the schemas are loaded, or exceptionally if any of the loads failed
+     */
+    public CompletableFuture<Void> prefetch(Iterable<Long> ids, Executor executor) {
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (Long id : ids) {
+            if (id != null && !contains(id)) {
+                futures.add(CompletableFuture.supplyAsync(() -> getSchema(id), executor));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
     public void clear() {
         schemas.clear();
+        misses.clear();
+    }
+
+    private T getCached(long id) {
+        Entry<T> entry = schemas.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt != Long.MAX_VALUE && entry.expiresAt < System.currentTimeMillis()) {
+            schemas.remove(id, entry);
+            return null;
+        }
+        long now = System.nanoTime();
+        // only touch the (shared) entry once in a while, a coarse access time is good enough for LRU
+        if (now - entry.accessed > ACCESS_GRANULARITY_NANOS) {
+            entry.accessed = now;
+        }
+        return entry.schema;
+    }
+
+    private void put(long id, T schema) {
+        schemas.put(id, new Entry<>(schema, expiresAt()));
+        long maxSize = this.maxSize;
+        if (maxSize > 0 && schemas.size() > maxSize && evictionLock.tryLock()) {
+            try {
+                evict(maxSize);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    // drops the least recently used entries, plus a batch more so that not every insert has to evict
+    private void evict(long maxSize) {
+        int excess = (int) (schemas.size() - maxSize);
+        if (excess <= 0) {
+            return;
+        }
+        int count = excess + (int) (maxSize / EVICTION_BATCH_DIVISOR);
+        List<Map.Entry<Long, Long>> candidates = byAccess();
+        for (int i = 0; i < count && i < candidates.size(); i++) {
+            schemas.remove(candidates.get(i).getKey());
+        }
+    }
+
+    // snapshot of (id, access time) pairs, least recently used first
+    private List<Map.Entry<Long, Long>> byAccess() {
+        List<Map.Entry<Long, Long>> list = new ArrayList<>(schemas.size());
+        schemas.forEach((id, entry) -> list.add(new AbstractMap.SimpleImmutableEntry<>(id, entry.accessed)));
+        list.sort(Map.Entry.comparingByValue());
+        return list;
+    }
+
+    private long expiresAt() {
+        long ttl = this.ttl;
+        return ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
+    }
+
+    private T load(long id) {
+        Miss miss = misses.get(id);
+        if (miss != null && miss.retryAt > System.currentTimeMillis()) {
+            throw new IllegalStateException(
+                String.format(
+                    "Schema not found (cached, %s attempts): %s",
+                    miss.count,
+                    id
+                )
+            );
+        }
+        try {
+            InputStream artifactResponse = client.getArtifactByGlobalId(id);
+            T schema = toSchema(artifactResponse);
+            misses.remove(id);
+            return schema;
+        } catch (Exception e) {
+            if (e instanceof NotFoundException) {
+                recordMiss(id);
+            }
+            throw new IllegalStateException(
+                    String.format(
+                        "Error [%s] retrieving schema: %s",
+                        e.getMessage(),
+                        id
+                    ),
+                    e
+                );
+        }
+    }
+
+    private void recordMiss(long id) {
+        long backoff = missBackoff;
+        if (backoff > 0) {
+            misses.compute(id, (key, miss) -> {
+                int count = miss != null ? miss.count + 1 : 1;
+                long delay = Math.min(missMaxBackoff, backoff << Math.min(count - 1, 20));
+                return new Miss(count, System.currentTimeMillis() + delay);
+            });
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
     }
 }
@@ -91,9 +91,62 @@ public class SerdeConfig {
     public static final String GLOBAL_ID_STRATEGY = "apicurio.registry.global-id";
     /**
      * Indicates how long to cache the global id in a global-id strategy.  If not included, the global id will
-     * be fetched every time.
+     * be fetched every time.  Once the period expires, the cached global id is still used while it is being
+     * refreshed in the background.
      */
     public static final String CHECK_PERIOD_MS = "apicurio.registry.check-period-ms";
+    /**
+     * Number of threads (per global-id strategy) refreshing the cached global ids in the background, see
+     * <code>CHECK_PERIOD_MS</code>.  Default value is
+     * {@link io.apicurio.registry.utils.serde.strategy.CheckPeriodIdStrategy#DEFAULT_REFRESH_THREADS}.
+     */
+    public static final String CHECK_PERIOD_REFRESH_THREADS = "apicurio.registry.check-period.refresh-threads";
+
+    /**
+     * Max number of schemas kept (per serde instance) in the schema cache, least recently used ones are evicted
+     * first.  A non-positive value means the cache is unbounded.  Default value is {@link SchemaCache#DEFAULT_MAX_SIZE}.
+     */
+    public static final String SCHEMA_CACHE_MAX_SIZE = "apicurio.registry.schema-cache.max-size";
+    /**
+     * Indicates how long (in millis) a schema is kept in the schema cache before it is fetched again.  If not
+     * included, cached schemas do not expire.
+     */
+    public static final String SCHEMA_CACHE_TTL_MS = "apicurio.registry.schema-cache.ttl-ms";
+    /**
+     * Indicates how long (in millis) a "schema not found" response is remembered by the schema cache; the period
+     * doubles with every subsequent miss.  If not included, misses are not cached and every lookup of an unknown
+     * global id hits the registry.
+     */
+    public static final String SCHEMA_CACHE_MISS_BACKOFF_MS = "apicurio.registry.schema-cache.miss-backoff-ms";
+    /**
+     * Upper bound (in millis) of the "schema not found" backoff period.  Default value is
+     * {@link SchemaCache#DEFAULT_MISS_MAX_BACKOFF_MS}.
+     */
+    public static final String SCHEMA_CACHE_MISS_MAX_BACKOFF_MS = "apicurio.registry.schema-cache.miss-max-backoff-ms";
+
+    /**
+     * Number of threads used by the <em>Deserializer</em> serde classes to fetch schemas in parallel, when warming up
+     * or when explicitly asked to prefetch schemas.  Default value is
+     * {@link AbstractKafkaDeserializer#DEFAULT_PREFETCH_PARALLELISM}.
+     */
+    public static final String PREFETCH_PARALLELISM = "apicurio.registry.prefetch.parallelism";
+    /**
+     * Comma separated list (or a {@link java.util.Collection}) of artifact ids whose latest schema is fetched in the
+     * background when the <em>Deserializer</em> serde class is configured.
+     */
+    public static final String WARM_UP_ARTIFACT_IDS = "apicurio.registry.warm-up.artifact-ids";
+    /**
+     * Path of a local file in which the <em>Deserializer</em> serde class remembers the most recently used global ids
+     * when it is closed.  The schemas for these ids are fetched in the background when the deserializer is configured
+     * again, e.g. after a consumer restart.  The key and value deserializers use separate files, with a
+     * <code>.key</code> or <code>.value</code> suffix appended to this path.
+     */
+    public static final String WARM_UP_GLOBAL_IDS_FILE = "apicurio.registry.warm-up.global-ids-file";
+    /**
+     * Max number of global ids remembered in the <code>WARM_UP_GLOBAL_IDS_FILE</code>.  Default value is
+     * {@link AbstractKafkaDeserializer#DEFAULT_WARM_UP_GLOBAL_IDS_MAX}.
+     */
+    public static final String WARM_UP_GLOBAL_IDS_MAX = "apicurio.registry.warm-up.global-ids-max";
 
     /**
      * Config prefix that allows configuration of arbitrary HTTP client request headers used by
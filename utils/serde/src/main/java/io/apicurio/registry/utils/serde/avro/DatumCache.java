@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.utils.serde.avro;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Size bounded cache of datum writers / readers by schema.
+ * Lookups are lock-free; once the cache grows over its max size, arbitrary entries are dropped
+ * (they are cheap to re-create, it is only the per-record creation we want to avoid).
+ */
+class DatumCache<K, V> {
+    static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final Map<K, V> map = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    DatumCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    DatumCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    V get(K key, Function<K, V> fn) {
+        V value = map.get(key);
+        if (value == null) {
+            value = map.computeIfAbsent(key, fn);
+            if (map.size() > maxSize) {
+                evict(key);
+            }
+        }
+        return value;
+    }
+
+    int size() {
+        return map.size();
+    }
+
+    void clear() {
+        map.clear();
+    }
+
+    private void evict(K keep) {
+        Iterator<K> iterator = map.keySet().iterator();
+        while (map.size() > maxSize && iterator.hasNext()) {
+            if (!keep.equals(iterator.next())) {
+                iterator.remove();
+            }
+        }
+    }
+}
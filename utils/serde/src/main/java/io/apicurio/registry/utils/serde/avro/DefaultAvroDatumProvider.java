@@ -28,14 +28,17 @@ import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.avro.specific.SpecificRecord;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Ales Justin
  */
 public class DefaultAvroDatumProvider<T> implements AvroDatumProvider<T> {
     private Boolean useSpecificAvroReader;
-    private Map<String, Schema> schemas = new ConcurrentHashMap<>();
+    private DatumCache<String, Schema> schemas = new DatumCache<>();
+    // writers and readers resolve the schema on creation, so we re-use them
+    private DatumCache<Schema, DatumWriter<T>> specificWriters = new DatumCache<>();
+    private DatumCache<Schema, DatumWriter<T>> genericWriters = new DatumCache<>();
+    private DatumCache<Schema, DatumReader<T>> readers = new DatumCache<>();
 
     public DefaultAvroDatumProvider() {
     }
@@ -46,6 +49,7 @@ public class DefaultAvroDatumProvider<T> implements AvroDatumProvider<T> {
 
     public DefaultAvroDatumProvider<T> setUseSpecificAvroReader(boolean useSpecificAvroReader) {
         this.useSpecificAvroReader = useSpecificAvroReader;
+        readers.clear();
         return this;
     }
 
@@ -58,7 +62,7 @@ public class DefaultAvroDatumProvider<T> implements AvroDatumProvider<T> {
 
     @SuppressWarnings("unchecked")
     private Schema getReaderSchema(Schema schema) {
-        return schemas.computeIfAbsent(schema.getFullName(), k -> {
+        return schemas.get(schema.getFullName(), k -> {
             Class<SpecificRecord> readerClass = SpecificData.get().getClass(schema);
             if (readerClass != null) {
                 try {
@@ -81,14 +85,18 @@ public class DefaultAvroDatumProvider<T> implements AvroDatumProvider<T> {
     @Override
     public DatumWriter<T> createDatumWriter(T data, Schema schema) {
         if (data instanceof SpecificRecord) {
-            return new SpecificDatumWriter<>(schema);
+            return specificWriters.get(schema, SpecificDatumWriter::new);
         } else {
-            return new GenericDatumWriter<>(schema);
+            return genericWriters.get(schema, GenericDatumWriter::new);
         }
     }
 
     @Override
     public DatumReader<T> createDatumReader(Schema schema) {
+        return readers.get(schema, this::newDatumReader);
+    }
+
+    private DatumReader<T> newDatumReader(Schema schema) {
         // do not use SpecificDatumReader if schema is a primitive
         if (useSpecificAvroReader != null && useSpecificAvroReader) {
             if (AvroSchemaUtils.isPrimitive(schema) == false) {
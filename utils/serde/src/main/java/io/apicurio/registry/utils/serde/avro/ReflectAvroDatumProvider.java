@@ -28,6 +28,9 @@ import org.apache.avro.reflect.ReflectDatumWriter;
 public class ReflectAvroDatumProvider<T> implements AvroDatumProvider<T> {
 
     private Schema readerSchema;
+    // writers and readers resolve the schema on creation, so we re-use them
+    private DatumCache<Schema, DatumWriter<T>> writers = new DatumCache<>();
+    private DatumCache<Schema, DatumReader<T>> readers = new DatumCache<>();
 
     public ReflectAvroDatumProvider() {
     }
@@ -38,11 +41,15 @@ public class ReflectAvroDatumProvider<T> implements AvroDatumProvider<T> {
 
     @Override
     public DatumWriter<T> createDatumWriter(T data, Schema schema) {
-        return new ReflectDatumWriter<>(schema);
+        return writers.get(schema, ReflectDatumWriter::new);
     }
 
     @Override
     public DatumReader<T> createDatumReader(Schema schema) {
+        return readers.get(schema, this::newDatumReader);
+    }
+
+    private DatumReader<T> newDatumReader(Schema schema) {
         if (readerSchema == null) {
             return new ReflectDatumReader<>(schema);
         } else {
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.utils.serde.protobuf;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import io.apicurio.registry.common.proto.Serde;
+
+/**
+ * A fully built protobuf schema, as used by the deserializer.  Building the
+ * {@link Descriptors.FileDescriptor} tree (including all imports) is expensive,
+ * so it is done once per schema and the result is kept in the schema cache.
+ */
+public class ProtobufSchema {
+    private final Descriptors.FileDescriptor fileDescriptor;
+    private final Map<String, Descriptors.Descriptor> messageTypes = new HashMap<>();
+
+    public ProtobufSchema(Descriptors.FileDescriptor fileDescriptor) {
+        this.fileDescriptor = Objects.requireNonNull(fileDescriptor);
+        for (Descriptors.Descriptor descriptor : fileDescriptor.getMessageTypes()) {
+            messageTypes.put(descriptor.getName(), descriptor);
+        }
+    }
+
+    public static ProtobufSchema parseFrom(byte[] schema) throws InvalidProtocolBufferException, Descriptors.DescriptorValidationException {
+        Serde.Schema s = Serde.Schema.parseFrom(schema);
+        return new ProtobufSchema(toFileDescriptor(s, new HashMap<>()));
+    }
+
+    private static Descriptors.FileDescriptor toFileDescriptor(Serde.Schema s, Map<String, Descriptors.FileDescriptor> built) throws Descriptors.DescriptorValidationException {
+        // the same import can be reachable through several paths, build it only once
+        String name = s.getFile().getName();
+        Descriptors.FileDescriptor fd = built.get(name);
+        if (fd == null) {
+            Descriptors.FileDescriptor[] imports = new Descriptors.FileDescriptor[s.getImportCount()];
+            for (int i = 0; i < imports.length; i++) {
+                imports[i] = toFileDescriptor(s.getImport(i), built);
+            }
+            fd = Descriptors.FileDescriptor.buildFrom(s.getFile(), imports);
+            built.put(name, fd);
+        }
+        return fd;
+    }
+
+    public Descriptors.FileDescriptor getFileDescriptor() {
+        return fileDescriptor;
+    }
+
+    /**
+     * Finds the top-level message type with the given name.
+     *
+     * @param name the message type name
+     * @return the descriptor or null if no such message type exists
+     */
+    public Descriptors.Descriptor findMessageTypeByName(String name) {
+        return messageTypes.get(name);
+    }
+}
@@ -21,8 +21,9 @@ import io.apicurio.registry.rest.beans.ArtifactMetaData;
 import io.apicurio.registry.types.ArtifactType;
 import io.apicurio.registry.utils.IoUtil;
 import io.apicurio.registry.utils.serde.SchemaCache;
+import org.apache.avro.SchemaNormalization;
 
-import java.io.InputStream;
+import java.io.ByteArrayInputStream;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -30,34 +31,44 @@ import java.util.concurrent.ConcurrentHashMap;
  * We first check client-side cache for matching schema,
  * if none matches, we check server-side,
  * create new if none matches (and cache it).
+ * <p>
+ * The client-side cache is first checked for the schema object itself (cheap for a schema
+ * instance that is re-used for many records), then for a 64-bit fingerprint of the schema content.
  *
  * @author Ales Justin
  */
 public class CachedSchemaIdStrategy<T> extends AbstractCrudIdStrategy<T> {
 
-    /* We use string for the key ... */
-    private Map<String, Long> mapping = new ConcurrentHashMap<>();
+    /* By schema instance (identity), entries go away together with the schema instances. */
+    private WeakIdentityMap<T, Long> schemaMapping = new WeakIdentityMap<>();
+    /* We use content fingerprint for the key ... */
+    private Map<Long, Long> mapping = new ConcurrentHashMap<>();
 
     @Override
     protected long initialLookup(RegistryRestClient client, String artifactId, ArtifactType artifactType, T schema, SchemaCache<T> cache) {
-        InputStream stream = toStream(schema);
-        String content = IoUtil.toString(stream);
+        Long id = schemaMapping.get(schema);
+        if (id != null) {
+            return id;
+        }
+        byte[] content = IoUtil.toBytes(toStream(schema));
         // TODO add an option to search by strict content
-        return mapping.computeIfAbsent(
-            content,
+        id = mapping.computeIfAbsent(
+            SchemaNormalization.fingerprint64(content),
             k -> {
-                Long id = client.getArtifactMetaDataByContent(artifactId, true, toStream(schema)).getGlobalId();
-                populateCache(schema, id, cache);
-                return id;
+                Long globalId = client.getArtifactMetaDataByContent(artifactId, true, new ByteArrayInputStream(content)).getGlobalId();
+                populateCache(schema, globalId, cache);
+                return globalId;
             }
         );
+        schemaMapping.put(schema, id);
+        return id;
     }
 
     @Override
     protected void afterCreateArtifact(T schema, ArtifactMetaData amd, SchemaCache<T> cache) {
-        InputStream stream = toStream(schema);
-        String content = IoUtil.toString(stream);
-        mapping.put(content, amd.getGlobalId());
+        byte[] content = IoUtil.toBytes(toStream(schema));
+        mapping.put(SchemaNormalization.fingerprint64(content), amd.getGlobalId());
+        schemaMapping.put(schema, amd.getGlobalId());
         super.afterCreateArtifact(schema, amd, cache);
     }
 }
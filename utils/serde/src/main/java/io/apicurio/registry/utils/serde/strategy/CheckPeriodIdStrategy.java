@@ -20,28 +20,50 @@ import io.apicurio.registry.client.RegistryRestClient;
 import io.apicurio.registry.types.ArtifactType;
 import io.apicurio.registry.utils.serde.SchemaCache;
 import io.apicurio.registry.utils.serde.SerdeConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Caches the found global id per artifact for the configured check period.
+ * <p>
+ * Once the period expires, the cached id is still returned, while a single background
+ * refresh of the id is triggered.  Only the very first lookup of an artifact blocks.
+ * Refreshes run on a small pool of daemon threads owned by this strategy (see {@link SerdeConfig#CHECK_PERIOD_REFRESH_THREADS}),
+ * with the most recently seen schema of the artifact.  A hanging registry call only holds up its own thread,
+ * and never the refreshes of other serde instances.  The pool is stopped by {@link #close()}.
+ *
  * @author Ales Justin
  */
 public abstract class CheckPeriodIdStrategy<T> implements GlobalIdStrategy<T> {
 
+    private static final Logger log = LoggerFactory.getLogger(CheckPeriodIdStrategy.class);
+
+    public static final int DEFAULT_REFRESH_THREADS = 2;
+
     static class CheckValue {
         public CheckValue(long ts, long id) {
             this.ts = ts;
             this.id = id;
         }
 
-        long ts;
-        long id;
+        final long ts;
+        final long id;
     }
 
     private long checkPeriod;
+    private int refreshThreads = DEFAULT_REFRESH_THREADS;
+    // at most one pending refresh per artifact, so the queue is bounded by the number of artifacts
+    private ExecutorService refreshExecutor;
     private Map<String, CheckValue> checkMap = new ConcurrentHashMap<>();
+    private Map<String, Boolean> refreshing = new ConcurrentHashMap<>();
+    private Map<String, T> latestSchemas = new ConcurrentHashMap<>();
 
     @Override
     public void configure(Map<String, ?> configs, boolean isKey) {
@@ -62,25 +84,81 @@ public abstract class CheckPeriodIdStrategy<T> implements GlobalIdStrategy<T> {
             }
             this.checkPeriod = checkPeriodParam;
         }
+        Object rt = configs.get(SerdeConfig.CHECK_PERIOD_REFRESH_THREADS);
+        if (rt != null) {
+            int refreshThreadsParam = rt instanceof Number ? ((Number) rt).intValue() : Integer.parseInt(rt.toString());
+            if (refreshThreadsParam < 1) {
+                throw new IllegalArgumentException("Refresh threads must be positive: " + refreshThreadsParam);
+            }
+            this.refreshThreads = refreshThreadsParam;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+            refreshExecutor = null;
+        }
+    }
+
+    private synchronized ExecutorService getRefreshExecutor() {
+        if (refreshExecutor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            refreshExecutor = Executors.newFixedThreadPool(refreshThreads, r -> {
+                Thread thread = new Thread(r, "apicurio-global-id-refresh-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return refreshExecutor;
     }
 
     abstract long findIdInternal(RegistryRestClient client, String artifactId, ArtifactType artifactType, T schema, SchemaCache<T> cache);
 
     public long findId(RegistryRestClient client, String artifactId, ArtifactType artifactType, T schema, SchemaCache<T> cache) {
-        CheckValue cv = checkMap.compute(artifactId, (aID, v) -> {
-            long now = System.currentTimeMillis();
-            if (v == null) {
-                long id = findIdInternal(client, artifactId, artifactType, schema, cache);
-                return new CheckValue(now, id);
-            } else {
-                if (v.ts + checkPeriod < now) {
+        if (checkPeriod <= 0) {
+            // no caching, fetch every time
+            return findIdInternal(client, artifactId, artifactType, schema, cache);
+        }
+        // remember the latest schema for the background refresh, only written when the schema changes
+        if (latestSchemas.get(artifactId) != schema) {
+            latestSchemas.put(artifactId, schema);
+        }
+        CheckValue cv = checkMap.get(artifactId);
+        if (cv == null) {
+            // first lookup, concurrent lookups of the same artifact wait for this one
+            cv = checkMap.computeIfAbsent(
+                artifactId,
+                aID -> new CheckValue(System.currentTimeMillis(), findIdInternal(client, aID, artifactType, schema, cache))
+            );
+        } else if (cv.ts + checkPeriod < System.currentTimeMillis()) {
+            refresh(client, artifactId, artifactType, cache, cv);
+        }
+        return cv.id;
+    }
+
+    private void refresh(RegistryRestClient client, String artifactId, ArtifactType artifactType, SchemaCache<T> cache, CheckValue cv) {
+        if (refreshing.putIfAbsent(artifactId, Boolean.TRUE) != null) {
+            return; // already in progress
+        }
+        try {
+            getRefreshExecutor().execute(() -> {
+                try {
+                    T schema = latestSchemas.get(artifactId);
                     long id = findIdInternal(client, artifactId, artifactType, schema, cache);
-                    v.ts = now;
-                    v.id = id;
+                    checkMap.put(artifactId, new CheckValue(System.currentTimeMillis(), id));
+                } catch (Exception e) {
+                    log.warn(String.format("Error refreshing global id for artifact [%s], keeping %s", artifactId, cv.id), e);
+                    // try again after another check period
+                    checkMap.replace(artifactId, cv, new CheckValue(System.currentTimeMillis(), cv.id));
+                } finally {
+                    refreshing.remove(artifactId);
                 }
-                return v;
-            }
-        });
-        return cv.id;
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(artifactId);
+            throw e;
+        }
     }
 }
@@ -82,6 +82,12 @@ public interface GlobalIdStrategy<T> {
     default void configure(Map<String, ?> configs, boolean isKey) {
     }
 
+    /**
+     * Release any resources (e.g. background threads), called when the serde is closed.
+     */
+    default void close() {
+    }
+
     /**
      * Create InputStream from schema.
      * By default we just take string bytes.
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.utils.serde.strategy;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent map with weakly referenced keys, compared by identity.
+ * Lookups are lock-free and never hash the key's content, entries go away together with their keys.
+ */
+class WeakIdentityMap<K, V> {
+    private final Map<Object, V> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+
+    V get(K key) {
+        return map.get(new Lookup(key));
+    }
+
+    void put(K key, V value) {
+        expunge();
+        map.put(new WeakKey<>(key, queue), value);
+    }
+
+    int size() {
+        expunge();
+        return map.size();
+    }
+
+    private void expunge() {
+        Reference<? extends K> ref;
+        while ((ref = queue.poll()) != null) {
+            map.remove(ref);
+        }
+    }
+
+    private static boolean same(Object key, Object other) {
+        return other instanceof Key && key != null && key == ((Key) other).key();
+    }
+
+    private interface Key {
+        Object key();
+    }
+
+    private static class WeakKey<K> extends WeakReference<K> implements Key {
+        private final int hash;
+
+        WeakKey(K key, ReferenceQueue<K> queue) {
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public Object key() {
+            return get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            // a cleared key is only equal to itself, so it can still be removed
+            return this == o || same(get(), o);
+        }
+    }
+
+    private static class Lookup implements Key {
+        private final Object key;
+
+        Lookup(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public Object key() {
+            return key;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || same(key, o);
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package io.apicurio.registry.utils.serde.util;
 
+import java.time.Duration;
+
 /**
  * @author Ales Justin
  */
@@ -34,4 +36,26 @@ public class Utils {
         return false;
     }
 
+    /**
+     * Converts a numeric config parameter to a long; durations are converted to millis.
+     *
+     * @param parameter the config parameter value
+     * @return the long value or null if parameter is null
+     */
+    public static Long toLong(Object parameter) {
+        if (parameter == null) {
+            return null;
+        }
+        if (parameter instanceof Number) {
+            return ((Number) parameter).longValue();
+        }
+        if (parameter instanceof String) {
+            return Long.parseLong((String) parameter);
+        }
+        if (parameter instanceof Duration) {
+            return ((Duration) parameter).toMillis();
+        }
+        throw new IllegalArgumentException("Config param type unsupported (must be a Number, String, or Duration): " + parameter);
+    }
+
 }
@@ -0,0 +1,65 @@
+package io.apicurio.registry.utils.serde;
+
+import io.apicurio.registry.utils.serde.strategy.GlobalIdStrategy;
+import io.apicurio.registry.utils.serde.strategy.TopicIdStrategy;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class AvroSerdeTest {
+
+    @Test
+    public void testRoundTripWithReusedBuffers() throws Exception {
+        Schema schema = SchemaBuilder.record("Greeting").fields().requiredString("message").requiredInt("count").endRecord();
+
+        TestRegistryClient client = new TestRegistryClient().on(
+            "getArtifactByGlobalId",
+            args -> new ByteArrayInputStream(schema.toString().getBytes(StandardCharsets.UTF_8))
+        );
+        GlobalIdStrategy<Schema> idStrategy = (c, artifactId, artifactType, s, cache) -> 1L;
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (AvroKafkaSerializer<GenericRecord> serializer = new AvroKafkaSerializer<>(client.create(), new TopicIdStrategy<>(), idStrategy);
+             AvroKafkaDeserializer<GenericRecord> deserializer = new AvroKafkaDeserializer<>(client.create())) {
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    // records of different sizes, so a reused buffer / decoder must not leak data between them
+                    for (int i = 0; i < 100; i++) {
+                        GenericRecord record = new GenericData.Record(schema);
+                        StringBuilder message = new StringBuilder("t" + thread);
+                        for (int j = 0; j < i % 10; j++) {
+                            message.append("-").append(i);
+                        }
+                        record.put("message", message.toString());
+                        record.put("count", i);
+
+                        byte[] bytes = serializer.serialize("topic", record);
+                        GenericRecord copy = deserializer.deserialize("topic", bytes);
+                        Assertions.assertEquals(message.toString(), copy.get("message").toString());
+                        Assertions.assertEquals(i, copy.get("count"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.apicurio.registry.utils.serde;
+
+import io.apicurio.registry.client.RegistryRestClient;
+import io.apicurio.registry.utils.IoUtil;
+import org.apache.kafka.common.header.Headers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class DeserializerWarmUpTest {
+
+    // the "schema" is the content, and the deserialized value is just the schema
+    static class SchemaDeserializer extends AbstractKafkaDeserializer<String, String, SchemaDeserializer> {
+        SchemaDeserializer(RegistryRestClient client) {
+            super(client);
+        }
+
+        @Override
+        protected String toSchema(InputStream schemaData) {
+            return IoUtil.toString(schemaData);
+        }
+
+        @Override
+        protected String readData(String schema, ByteBuffer buffer, int start, int length) {
+            return schema;
+        }
+
+        @Override
+        protected String readData(Headers headers, String schema, ByteBuffer buffer, int start, int length) {
+            return schema;
+        }
+    }
+
+    private static TestRegistryClient client() {
+        return new TestRegistryClient().on(
+            "getArtifactByGlobalId",
+            args -> new ByteArrayInputStream(("schema-" + args[0]).getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    private static byte[] record(long id) {
+        ByteBuffer buffer = ByteBuffer.allocate(9);
+        buffer.put(AbstractKafkaSerDe.MAGIC_BYTE);
+        buffer.putLong(id);
+        return buffer.array();
+    }
+
+    private static void awaitCalls(TestRegistryClient client, int calls) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (client.calls("getArtifactByGlobalId") < calls && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(calls, client.calls("getArtifactByGlobalId"));
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        TestRegistryClient client = client();
+        try (SchemaDeserializer deserializer = new SchemaDeserializer(client.create())) {
+            deserializer.configure(Collections.emptyMap(), false);
+            deserializer.prefetch(Arrays.asList(1L, 2L, 3L)).get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(3, client.calls("getArtifactByGlobalId"));
+
+            Assertions.assertEquals("schema-2", deserializer.deserialize("topic", record(2)));
+            // already cached ids are not fetched again
+            deserializer.prefetch(Arrays.asList(1L, 3L)).get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(3, client.calls("getArtifactByGlobalId"));
+        }
+    }
+
+    @Test
+    public void testWarmUpFilePerKeyAndValue() throws Exception {
+        Path dir = Files.createTempDirectory("warm-up");
+        String file = dir.resolve("ids").toString();
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(SerdeConfig.WARM_UP_GLOBAL_IDS_FILE, file);
+        try {
+            TestRegistryClient client = client();
+            try (SchemaDeserializer keys = new SchemaDeserializer(client.create());
+                 SchemaDeserializer values = new SchemaDeserializer(client.create())) {
+                keys.configure(configs, true);
+                values.configure(configs, false);
+                keys.deserialize("topic", record(1));
+                values.deserialize("topic", record(2));
+                values.deserialize("topic", record(3));
+            }
+            Assertions.assertEquals(Collections.singletonList("1"), Files.readAllLines(Paths.get(file + ".key")));
+            List<String> valueIds = Files.readAllLines(Paths.get(file + ".value"));
+            Assertions.assertEquals(2, valueIds.size());
+            Assertions.assertTrue(valueIds.containsAll(Arrays.asList("2", "3")));
+
+            // a restarted consumer fetches the remembered schemas in the background
+            TestRegistryClient restarted = client();
+            try (SchemaDeserializer values = new SchemaDeserializer(restarted.create())) {
+                values.configure(configs, false);
+                awaitCalls(restarted, 2);
+                Assertions.assertEquals("schema-3", values.deserialize("topic", record(3)));
+                Assertions.assertEquals(2, restarted.calls("getArtifactByGlobalId"));
+            }
+        } finally {
+            Files.deleteIfExists(Paths.get(file + ".key"));
+            Files.deleteIfExists(Paths.get(file + ".value"));
+            Files.deleteIfExists(dir);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.apicurio.registry.utils.serde;
+
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.DynamicMessage;
+import io.apicurio.registry.common.proto.Serde;
+import io.apicurio.registry.utils.serde.strategy.GlobalIdStrategy;
+import io.apicurio.registry.utils.serde.strategy.TopicIdStrategy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+
+public class ProtobufSerdeTest {
+
+    @Test
+    public void testDescriptorsAreBuiltOnce() {
+        // Serde.Schema imports descriptor.proto, so the schema has an import tree
+        Serde.Schema record = Serde.Schema.newBuilder()
+                                          .setFile(DescriptorProtos.FileDescriptorProto.newBuilder().setName("foo.proto"))
+                                          .build();
+
+        TestRegistryClient client = new TestRegistryClient();
+        GlobalIdStrategy<byte[]> idStrategy = (c, artifactId, artifactType, schema, cache) -> {
+            client.on("getArtifactByGlobalId", args -> new ByteArrayInputStream(schema));
+            cache.putSchema(1L, schema);
+            return 1L;
+        };
+
+        try (ProtobufKafkaSerializer<Serde.Schema> serializer = new ProtobufKafkaSerializer<>(client.create(), new TopicIdStrategy<>(), idStrategy);
+             ProtobufKafkaDeserializer deserializer = new ProtobufKafkaDeserializer(client.create())) {
+
+            byte[] bytes = serializer.serialize("topic", record);
+
+            DynamicMessage first = deserializer.deserialize("topic", bytes);
+            DynamicMessage second = deserializer.deserialize("topic", bytes);
+
+            Assertions.assertArrayEquals(record.toByteArray(), first.toByteArray());
+            Assertions.assertEquals(Serde.Schema.getDescriptor().getFullName(), first.getDescriptorForType().getFullName());
+            // the schema is fetched and its descriptors are built only once
+            Assertions.assertSame(first.getDescriptorForType(), second.getDescriptorForType());
+            Assertions.assertEquals(1, client.calls("getArtifactByGlobalId"));
+        }
+    }
+}
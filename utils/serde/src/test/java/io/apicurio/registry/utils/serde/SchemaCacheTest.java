@@ -0,0 +1,135 @@
+package io.apicurio.registry.utils.serde;
+
+import io.apicurio.registry.client.exception.ArtifactNotFoundException;
+import io.apicurio.registry.client.RegistryRestClient;
+import io.apicurio.registry.rest.beans.Error;
+import io.apicurio.registry.utils.IoUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SchemaCacheTest {
+
+    private static SchemaCache<String> cache(RegistryRestClient client) {
+        return new SchemaCache<String>(client) {
+            @Override
+            protected String toSchema(InputStream schemaData) {
+                return IoUtil.toString(schemaData);
+            }
+        };
+    }
+
+    private static InputStream schema(Object id) {
+        return new ByteArrayInputStream(("schema-" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTtl() throws Exception {
+        TestRegistryClient client = new TestRegistryClient().on("getArtifactByGlobalId", args -> schema(args[0]));
+        SchemaCache<String> cache = cache(client.create()).setTtl(100);
+
+        Assertions.assertEquals("schema-1", cache.getSchema(1));
+        Assertions.assertEquals("schema-1", cache.getSchema(1));
+        Assertions.assertEquals(1, client.calls("getArtifactByGlobalId"));
+
+        Thread.sleep(200);
+        Assertions.assertFalse(cache.contains(1));
+        Assertions.assertEquals("schema-1", cache.getSchema(1));
+        Assertions.assertEquals(2, client.calls("getArtifactByGlobalId"));
+    }
+
+    @Test
+    public void testMissBackoff() throws Exception {
+        TestRegistryClient client = new TestRegistryClient().on("getArtifactByGlobalId", args -> {
+            throw new ArtifactNotFoundException(new Error());
+        });
+        SchemaCache<String> cache = cache(client.create()).setMissBackoff(100).setMissMaxBackoff(1000);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.getSchema(1));
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.getSchema(1));
+        // the second lookup is answered from the negative cache
+        Assertions.assertEquals(1, client.calls("getArtifactByGlobalId"));
+
+        Thread.sleep(200);
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.getSchema(1));
+        Assertions.assertEquals(2, client.calls("getArtifactByGlobalId"));
+
+        // the backoff doubled (200ms), so it is still cached after the first period
+        Thread.sleep(120);
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.getSchema(1));
+        Assertions.assertEquals(2, client.calls("getArtifactByGlobalId"));
+
+        // without negative caching, every lookup goes to the registry
+        SchemaCache<String> noBackoff = cache(client.create());
+        Assertions.assertThrows(IllegalStateException.class, () -> noBackoff.getSchema(2));
+        Assertions.assertThrows(IllegalStateException.class, () -> noBackoff.getSchema(2));
+        Assertions.assertEquals(4, client.calls("getArtifactByGlobalId"));
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TestRegistryClient client = new TestRegistryClient().on("getArtifactByGlobalId", args -> {
+            if ((Long) args[0] == 1L) {
+                loading.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return schema(args[0]);
+        });
+        SchemaCache<String> cache = cache(client.create());
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> cache.getSchema(1)));
+            Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                futures.add(executor.submit(() -> cache.getSchema(1)));
+            }
+            // other ids are not blocked by the in-flight load
+            Assertions.assertEquals("schema-2", executor.submit(() -> cache.getSchema(2)).get(5, TimeUnit.SECONDS));
+
+            release.countDown();
+            for (Future<String> future : futures) {
+                Assertions.assertEquals("schema-1", future.get(5, TimeUnit.SECONDS));
+            }
+            // one load for id 1, one for id 2
+            Assertions.assertEquals(2, client.calls("getArtifactByGlobalId"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        TestRegistryClient client = new TestRegistryClient().on("getArtifactByGlobalId", args -> schema(args[0]));
+        SchemaCache<String> cache = cache(client.create()).setMaxSize(10);
+
+        for (long id = 0; id < 10; id++) {
+            cache.getSchema(id);
+        }
+        Thread.sleep(5);
+        cache.getSchema(0); // recently used, so kept
+        cache.getSchema(10);
+
+        Assertions.assertTrue(cache.size() <= 10);
+        Assertions.assertTrue(cache.contains(0));
+        Assertions.assertTrue(cache.contains(10));
+        Assertions.assertFalse(cache.contains(1));
+    }
+}
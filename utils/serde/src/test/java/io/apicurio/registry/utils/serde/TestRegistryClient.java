@@ -0,0 +1,53 @@
+package io.apicurio.registry.utils.serde;
+
+import io.apicurio.registry.client.RegistryRestClient;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Registry client stub -- only the methods given by name are implemented, and all the calls are counted.
+ */
+public class TestRegistryClient {
+    private final Map<String, Function<Object[], Object>> methods = new HashMap<>();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    public TestRegistryClient on(String method, Function<Object[], Object> fn) {
+        methods.put(method, fn);
+        return this;
+    }
+
+    public int calls(String method) {
+        AtomicInteger count = calls.get(method);
+        return count != null ? count.get() : 0;
+    }
+
+    public RegistryRestClient create() {
+        return (RegistryRestClient) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class[]{RegistryRestClient.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    return null;
+                }
+                calls.computeIfAbsent(method.getName(), m -> new AtomicInteger()).incrementAndGet();
+                Function<Object[], Object> fn = methods.get(method.getName());
+                if (fn == null) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                try {
+                    return fn.apply(args);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new InvocationTargetException(t);
+                }
+            }
+        );
+    }
+}
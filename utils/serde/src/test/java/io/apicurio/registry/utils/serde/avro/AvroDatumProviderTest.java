@@ -0,0 +1,42 @@
+package io.apicurio.registry.utils.serde.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AvroDatumProviderTest {
+
+    private static Schema schema(int i) {
+        return SchemaBuilder.record("Record" + i).fields().requiredString("f" + i).endRecord();
+    }
+
+    @Test
+    public void testReuse() {
+        DefaultAvroDatumProvider<GenericRecord> provider = new DefaultAvroDatumProvider<>();
+        Schema schema = schema(0);
+        GenericRecord record = new GenericData.Record(schema);
+        Assertions.assertSame(provider.createDatumWriter(record, schema), provider.createDatumWriter(record, schema));
+        Assertions.assertSame(provider.createDatumReader(schema), provider.createDatumReader(schema));
+        // an equal schema (e.g. parsed again) shares the same reader
+        Assertions.assertSame(provider.createDatumReader(schema), provider.createDatumReader(schema(0)));
+
+        ReflectAvroDatumProvider<Object> reflect = new ReflectAvroDatumProvider<>();
+        Assertions.assertSame(reflect.createDatumWriter(record, schema), reflect.createDatumWriter(record, schema));
+        Assertions.assertSame(reflect.createDatumReader(schema), reflect.createDatumReader(schema));
+    }
+
+    @Test
+    public void testBounded() {
+        DatumCache<Schema, Object> cache = new DatumCache<>(10);
+        for (int i = 0; i < 100; i++) {
+            Schema schema = schema(i);
+            Object value = cache.get(schema, s -> new Object());
+            // the value just created is always handed out
+            Assertions.assertSame(value, cache.get(schema, s -> new Object()));
+            Assertions.assertTrue(cache.size() <= 10);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.apicurio.registry.utils.serde.strategy;
+
+import io.apicurio.registry.rest.beans.ArtifactMetaData;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.utils.serde.TestRegistryClient;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CachedSchemaIdStrategyTest {
+
+    private static Schema schema() {
+        return SchemaBuilder.record("Greeting").fields().requiredString("message").endRecord();
+    }
+
+    @Test
+    public void testLookupBySchemaInstanceAndContent() {
+        TestRegistryClient client = new TestRegistryClient().on("getArtifactMetaDataByContent", args -> {
+            ArtifactMetaData amd = new ArtifactMetaData();
+            amd.setGlobalId(42L);
+            return amd;
+        });
+        CachedSchemaIdStrategy<Schema> strategy = new CachedSchemaIdStrategy<>();
+
+        Schema schema = schema();
+        Assertions.assertEquals(42L, strategy.findId(client.create(), "artifact", ArtifactType.AVRO, schema, null));
+        Assertions.assertEquals(42L, strategy.findId(client.create(), "artifact", ArtifactType.AVRO, schema, null));
+        // an equal, but different, instance is found by its content fingerprint
+        Assertions.assertEquals(42L, strategy.findId(client.create(), "artifact", ArtifactType.AVRO, schema(), null));
+        Assertions.assertEquals(1, client.calls("getArtifactMetaDataByContent"));
+    }
+
+    @Test
+    public void testWeakIdentityMap() throws Exception {
+        WeakIdentityMap<List<String>, Long> map = new WeakIdentityMap<>();
+        List<String> key = new ArrayList<>();
+        map.put(key, 1L);
+        Assertions.assertEquals(1L, map.get(key));
+        // equal, but not the same
+        Assertions.assertNull(map.get(new ArrayList<>()));
+        // mutating the key does not matter, it is not hashed by content
+        key.add("x");
+        Assertions.assertEquals(1L, map.get(key));
+
+        for (int i = 0; i < 100; i++) {
+            map.put(new ArrayList<>(), (long) i);
+        }
+        for (int i = 0; i < 50 && map.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        Assertions.assertEquals(1, map.size());
+        Assertions.assertEquals(1L, map.get(key));
+    }
+}
@@ -0,0 +1,135 @@
+package io.apicurio.registry.utils.serde.strategy;
+
+import io.apicurio.registry.client.RegistryRestClient;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.utils.serde.SchemaCache;
+import io.apicurio.registry.utils.serde.SerdeConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CheckPeriodIdStrategyTest {
+
+    static class CountingStrategy extends CheckPeriodIdStrategy<String> {
+        final AtomicLong ids = new AtomicLong();
+        final List<String> schemas = new CopyOnWriteArrayList<>();
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch block;
+        volatile String blocked; // only block this artifact, or all of them if null
+
+        @Override
+        long findIdInternal(RegistryRestClient client, String artifactId, ArtifactType artifactType, String schema, SchemaCache<String> cache) {
+            schemas.add(schema);
+            threads.add(Thread.currentThread().getName());
+            CountDownLatch latch = block;
+            if (latch != null && (blocked == null || blocked.equals(artifactId))) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return ids.incrementAndGet();
+        }
+    }
+
+    private static long find(CountingStrategy strategy, String schema) {
+        return strategy.findId(null, "artifact", ArtifactType.AVRO, schema, null);
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        CountingStrategy strategy = new CountingStrategy();
+        strategy.configure(Collections.singletonMap(SerdeConfig.CHECK_PERIOD_MS, 50L), false);
+
+        Assertions.assertEquals(1, find(strategy, "v1"));
+        Assertions.assertEquals(1, find(strategy, "v1"));
+        Assertions.assertEquals(1, strategy.ids.get());
+
+        Thread.sleep(100);
+        strategy.block = new CountDownLatch(1);
+        // expired -- the stale id is returned right away, while a single refresh runs in the background
+        Assertions.assertEquals(1, find(strategy, "v1"));
+        Assertions.assertEquals(1, find(strategy, "v2"));
+        Assertions.assertEquals(1, find(strategy, "v2"));
+
+        strategy.block.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (find(strategy, "v2") != 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(2, find(strategy, "v2"));
+        Assertions.assertEquals(2, strategy.schemas.size());
+        Assertions.assertTrue(strategy.threads.get(1).startsWith("apicurio-global-id-refresh-"), strategy.threads.get(1));
+        strategy.close();
+    }
+
+    @Test
+    public void testRefreshUsesLatestSchema() throws Exception {
+        CountingStrategy strategy = new CountingStrategy();
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(SerdeConfig.CHECK_PERIOD_MS, 50L);
+        configs.put(SerdeConfig.CHECK_PERIOD_REFRESH_THREADS, 1);
+        strategy.configure(configs, false);
+        strategy.findId(null, "other", ArtifactType.AVRO, "other", null);
+        find(strategy, "v1");
+
+        Thread.sleep(100);
+        strategy.block = new CountDownLatch(1);
+        // the refresh of the other artifact holds the (only) refresh thread
+        strategy.findId(null, "other", ArtifactType.AVRO, "other", null);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (strategy.schemas.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        find(strategy, "v1"); // queues the refresh
+        find(strategy, "v2"); // ... but the schema changes before it runs
+        strategy.block.countDown();
+
+        while (strategy.schemas.size() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(Arrays.asList("other", "v1", "other", "v2"), strategy.schemas);
+        strategy.close();
+    }
+
+    @Test
+    public void testHangingRefresh() throws Exception {
+        CountingStrategy strategy = new CountingStrategy();
+        strategy.configure(Collections.singletonMap(SerdeConfig.CHECK_PERIOD_MS, 50L), false);
+        CountingStrategy otherStrategy = new CountingStrategy();
+        otherStrategy.configure(Collections.singletonMap(SerdeConfig.CHECK_PERIOD_MS, 50L), false);
+        long hanging = strategy.findId(null, "hanging", ArtifactType.AVRO, "hanging", null);
+        long other = find(strategy, "v1");
+        long otherInstance = find(otherStrategy, "v1");
+
+        Thread.sleep(100);
+        strategy.blocked = "hanging";
+        strategy.block = new CountDownLatch(1);
+        try {
+            // the registry never answers for this artifact ...
+            Assertions.assertEquals(hanging, strategy.findId(null, "hanging", ArtifactType.AVRO, "hanging", null));
+            // ... but the other artifact, and the other serde instance, still get refreshed
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((find(strategy, "v1") == other || find(otherStrategy, "v1") == otherInstance) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertNotEquals(other, find(strategy, "v1"));
+            Assertions.assertNotEquals(otherInstance, find(otherStrategy, "v1"));
+            Assertions.assertEquals(hanging, strategy.findId(null, "hanging", ArtifactType.AVRO, "hanging", null));
+        } finally {
+            strategy.block.countDown();
+            strategy.close();
+            otherStrategy.close();
+        }
+    }
+}
@@ -756,6 +756,24 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
         });
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#getArtifactIds(java.lang.String, int)
+     */
+    @Override @Transactional
+    public List<String> getArtifactIds(String after, int limit) {
+        log.debug("Getting a page of artifact IDs after: {}", after);
+        return withHandle( handle -> {
+            String sql = sqlStatements.selectArtifactIdsAfter();
+            return handle.createQuery(sql)
+                    .bind(0, tenantContext.tenantId())
+                    // every artifactId sorts after the empty string
+                    .bind(1, after != null ? after : "")
+                    .bind(2, limit)
+                    .mapTo(String.class)
+                    .list();
+        });
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#searchArtifacts(java.lang.String, int, int, io.apicurio.registry.rest.beans.SearchOver, io.apicurio.registry.rest.beans.SortOrder)
      */
@@ -371,6 +371,14 @@ public abstract class CommonSqlStatements implements SqlStatements {
         return "SELECT artifactId FROM artifacts WHERE tenantId = ? LIMIT ?";
     }
 
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.SqlStatements#selectArtifactIdsAfter()
+     */
+    @Override
+    public String selectArtifactIdsAfter() {
+        return "SELECT artifactId FROM artifacts WHERE tenantId = ? AND artifactId > ? ORDER BY artifactId ASC LIMIT ?";
+    }
+
     /**
      * @see io.apicurio.registry.storage.impl.sql.SqlStatements#selectArtifactMetaDataByGlobalId()
      */
@@ -248,6 +248,11 @@ public interface SqlStatements {
      */
     public String selectArtifactIds();
 
+    /**
+     * A statement to get a (keyset) page of artifact IDs, in order, following a given artifactId.
+     */
+    public String selectArtifactIdsAfter();
+
     /**
      * A statement to get an artifact's meta-data by version globalId.
      */
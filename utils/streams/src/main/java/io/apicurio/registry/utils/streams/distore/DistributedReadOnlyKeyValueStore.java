@@ -12,7 +12,9 @@ import org.apache.kafka.streams.state.QueryableStoreType;
 import org.apache.kafka.streams.state.QueryableStoreTypes;
 import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
 
+import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -88,6 +90,15 @@ public class DistributedReadOnlyKeyValueStore<K, V>
         return allServicesForStoreStream().flatMap(store -> store.filter(filter, over));
     }
 
+    @Override
+    public FilterResult<K> filter(String filter, String over, boolean descending, int limit) {
+        // every store only returns its own top keys, so merging them gives the overall top
+        List<FilterResult<K>> results = allServicesForStoreStream()
+            .map(store -> store.filter(filter, over, descending, limit))
+            .collect(Collectors.toList());
+        return FilterResult.merge(results, descending, limit);
+    }
+
     // ReadOnlyKeyValueStore<K, V> implementation
 
     @Override
@@ -95,6 +106,11 @@ public class DistributedReadOnlyKeyValueStore<K, V>
         return serviceForKey(key).get(key);
     }
 
+    @Override
+    public V get(K key, K partitionKey) {
+        return serviceForKey(partitionKey).get(key);
+    }
+
     @Override
     public KeyValueIterator<K, V> range(K from, K to) {
         return new StreamToKeyValueIteratorAdapter<>(
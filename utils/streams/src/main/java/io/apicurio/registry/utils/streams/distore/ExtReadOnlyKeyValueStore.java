@@ -25,4 +25,28 @@ public interface ExtReadOnlyKeyValueStore<K, V> extends ReadOnlyKeyValueStore<K,
      * @return filtered and limited stream
      */
     Stream<KeyValue<K, V>> filter(String filter, String over);
+
+    /**
+     * Get the (sorted) top keys of the filtered values, and the count of all the matches.
+     * Only the keys and their sort keys are returned, not the values.
+     *
+     * @param filter     the string filter
+     * @param over       the search over enum name
+     * @param descending the sort order
+     * @param limit      the max number of keys to return
+     * @return the top keys, and the total count
+     */
+    FilterResult<K> filter(String filter, String over, boolean descending, int limit);
+
+    /**
+     * Get the value for a key that is stored in the same partition as the partition key,
+     * e.g. when the store's keys are derived from the key the records were partitioned by.
+     *
+     * @param key          the key
+     * @param partitionKey the key used to locate the store holding the key
+     * @return the value or null if there is no such key
+     */
+    default V get(K key, K partitionKey) {
+        return get(key);
+    }
 }
@@ -29,6 +29,20 @@ public class ExtReadOnlyKeyValueStoreImpl<K, V> implements ExtReadOnlyKeyValueSt
             .filter(kv -> filterPredicate.test(filter, over, kv.key, kv.value));
     }
 
+    @Override
+    public FilterResult<K> filter(String filter, String over, boolean descending, int limit) {
+        FilterResult.Collector<K> collector = new FilterResult.Collector<>(descending, limit);
+        try (KeyValueIterator<K, V> iterator = all()) {
+            while (iterator.hasNext()) {
+                KeyValue<K, V> kv = iterator.next();
+                if (filterPredicate.test(filter, over, kv.key, kv.value)) {
+                    collector.add(kv.key, filterPredicate.sortKey(kv.key, kv.value));
+                }
+            }
+        }
+        return collector.result();
+    }
+
     @Override
     public V get(K key) {
         return delegate.get(key);
@@ -16,4 +16,15 @@ public interface FilterPredicate<K, V> {
      * @return true of false
      */
     boolean test(String filter, String over, K key, V value);
+
+    /**
+     * The key to sort the matching values by, compared ignoring case.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the sort key, by default the key itself
+     */
+    default String sortKey(K key, V value) {
+        return String.valueOf(key);
+    }
 }
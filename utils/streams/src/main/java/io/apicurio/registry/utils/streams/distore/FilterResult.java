@@ -0,0 +1,118 @@
+package io.apicurio.registry.utils.streams.distore;
+
+import org.apache.kafka.streams.KeyValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The top (sorted) keys of a filter, with their sort keys, and the count of all the matches.
+ */
+public class FilterResult<K> {
+    private final long count;
+    private final List<KeyValue<K, String>> keys;
+
+    public FilterResult(long count, List<KeyValue<K, String>> keys) {
+        this.count = count;
+        this.keys = keys;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the keys, in order, paired with their sort keys
+     */
+    public List<KeyValue<K, String>> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Orders by the sort key, and then by the key -- a total order, so every store (and every page)
+     * agrees on where the keys with the same sort key go.
+     */
+    public static <K> Comparator<KeyValue<K, String>> comparator(boolean descending) {
+        Comparator<KeyValue<K, String>> comparator = Comparator
+            .<KeyValue<K, String>, String>comparing(kv -> kv.value, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(kv -> String.valueOf(kv.key));
+        return descending ? comparator.reversed() : comparator;
+    }
+
+    /**
+     * Collects the top keys in a single pass, only ever holding (at most) limit of them.
+     */
+    public static class Collector<K> {
+        private final Comparator<KeyValue<K, String>> comparator;
+        private final PriorityQueue<KeyValue<K, String>> top;
+        private final int limit;
+        private long count;
+
+        public Collector(boolean descending, int limit) {
+            this.comparator = comparator(descending);
+            // the head is the "worst" key, so it can be dropped once over the limit
+            this.top = new PriorityQueue<>(Math.max(1, Math.min(limit, 1024)) + 1, comparator.reversed());
+            this.limit = limit;
+        }
+
+        public void add(K key, String sortKey) {
+            count++;
+            if (limit > 0) {
+                top.add(new KeyValue<>(key, sortKey));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        public FilterResult<K> result() {
+            List<KeyValue<K, String>> keys = new ArrayList<>(top);
+            keys.sort(comparator);
+            return new FilterResult<>(count, keys);
+        }
+    }
+
+    /**
+     * K-way merge of the (sorted) results of many stores.
+     */
+    public static <K> FilterResult<K> merge(Collection<FilterResult<K>> results, boolean descending, int limit) {
+        if (results.size() == 1) {
+            return results.iterator().next();
+        }
+        Comparator<KeyValue<K, String>> comparator = comparator(descending);
+        PriorityQueue<Head<K>> heads = new PriorityQueue<>(Math.max(1, results.size()), (h1, h2) -> comparator.compare(h1.current, h2.current));
+        long count = 0;
+        for (FilterResult<K> result : results) {
+            count += result.getCount();
+            Iterator<KeyValue<K, String>> iterator = result.getKeys().iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator));
+            }
+        }
+        List<KeyValue<K, String>> keys = new ArrayList<>();
+        while (keys.size() < limit && !heads.isEmpty()) {
+            Head<K> head = heads.poll();
+            keys.add(head.current);
+            if (head.iterator.hasNext()) {
+                head.current = head.iterator.next();
+                heads.add(head);
+            }
+        }
+        return new FilterResult<>(count, keys.isEmpty() ? Collections.emptyList() : keys);
+    }
+
+    private static class Head<K> {
+        private final Iterator<KeyValue<K, String>> iterator;
+        private KeyValue<K, String> current;
+
+        Head(Iterator<KeyValue<K, String>> iterator) {
+            this.iterator = iterator;
+            this.current = iterator.next();
+        }
+    }
+}
@@ -3,11 +3,14 @@ package io.apicurio.registry.utils.streams.distore;
 import com.google.protobuf.ByteString;
 import io.apicurio.registry.utils.ProtoUtil;
 import io.apicurio.registry.utils.streams.distore.proto.FilterReq;
+import io.apicurio.registry.utils.streams.distore.proto.FilterTopReq;
+import io.apicurio.registry.utils.streams.distore.proto.FilterTopRes;
 import io.apicurio.registry.utils.streams.distore.proto.Key;
 import io.apicurio.registry.utils.streams.distore.proto.KeyFromKeyToReq;
 import io.apicurio.registry.utils.streams.distore.proto.KeyReq;
 import io.apicurio.registry.utils.streams.distore.proto.KeyValueStoreGrpc;
 import io.apicurio.registry.utils.streams.distore.proto.Size;
+import io.apicurio.registry.utils.streams.distore.proto.SortedKey;
 import io.apicurio.registry.utils.streams.distore.proto.Value;
 import io.apicurio.registry.utils.streams.distore.proto.VoidReq;
 import io.grpc.stub.StreamObserver;
@@ -95,6 +98,34 @@ public class KeyValueStoreGrpcImplLocalDispatcher extends KeyValueStoreGrpc.KeyV
         }
     }
 
+    @Override
+    public void filterTop(FilterTopReq request, StreamObserver<FilterTopRes> responseObserver) {
+        boolean ok = false;
+        try {
+            FilterResult<?> result = keyValueStore(request.getStoreName()).filter(
+                ProtoUtil.emptyAsNull(request.getFilter()),
+                request.getOver(),
+                request.getDescending(),
+                request.getLimit()
+            );
+            FilterTopRes.Builder builder = FilterTopRes.newBuilder().setCount(result.getCount());
+            for (KeyValue<?, String> kv : result.getKeys()) {
+                builder.addKeys(
+                    SortedKey.newBuilder()
+                        .setKey(ByteString.copyFrom(keyValueSerdes.serializeKey(request.getStoreName(), kv.key)))
+                        .setSortKey(kv.value)
+                );
+            }
+            responseObserver.onNext(builder.build());
+            ok = true;
+        } catch (Throwable e) {
+            responseObserver.onError(e);
+        }
+        if (ok) {
+            responseObserver.onCompleted();
+        }
+    }
+
     @Override
     public void get(KeyReq request, StreamObserver<Value> responseObserver) {
         boolean ok = false;
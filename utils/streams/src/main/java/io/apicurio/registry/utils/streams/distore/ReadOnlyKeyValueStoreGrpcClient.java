@@ -3,6 +3,8 @@ package io.apicurio.registry.utils.streams.distore;
 import com.google.protobuf.ByteString;
 import io.apicurio.registry.utils.ProtoUtil;
 import io.apicurio.registry.utils.streams.distore.proto.FilterReq;
+import io.apicurio.registry.utils.streams.distore.proto.FilterTopReq;
+import io.apicurio.registry.utils.streams.distore.proto.FilterTopRes;
 import io.apicurio.registry.utils.streams.distore.proto.KeyFromKeyToReq;
 import io.apicurio.registry.utils.streams.distore.proto.KeyReq;
 import io.apicurio.registry.utils.streams.distore.proto.KeyValueStoreGrpc;
@@ -16,6 +18,8 @@ import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.state.KeyValueIterator;
 import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
 
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -70,6 +74,28 @@ public class ReadOnlyKeyValueStoreGrpcClient<K, V> implements ExtReadOnlyKeyValu
         return keyValueStream(observer.stream());
     }
 
+    @Override
+    public FilterResult<K> filter(String filter, String over, boolean descending, int limit) {
+        StreamObserverSpliterator<FilterTopRes> observer = new StreamObserverSpliterator<>();
+        stub.filterTop(
+            FilterTopReq
+                .newBuilder()
+                .setFilter(ProtoUtil.nullAsEmpty(filter))
+                .setOver(over)
+                .setStoreName(storeName)
+                .setDescending(descending)
+                .setLimit(limit)
+                .build(),
+            observer
+        );
+        FilterTopRes res = observer.stream().findFirst().orElse(FilterTopRes.getDefaultInstance());
+        List<KeyValue<K, String>> keys = res.getKeysList()
+            .stream()
+            .map(sk -> new KeyValue<>(keyValueSerde.deserializeKey(sk.getKey().toByteArray()), sk.getSortKey()))
+            .collect(Collectors.toList());
+        return new FilterResult<>(res.getCount(), keys);
+    }
+
     // AutoCloseable
 
     @Override
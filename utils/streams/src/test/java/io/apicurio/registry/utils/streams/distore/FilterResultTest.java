@@ -0,0 +1,94 @@
+package io.apicurio.registry.utils.streams.distore;
+
+import org.apache.kafka.streams.KeyValue;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class FilterResultTest {
+
+    private static FilterResult<Integer> collect(List<Integer> keys, boolean descending, int limit) {
+        FilterResult.Collector<Integer> collector = new FilterResult.Collector<>(descending, limit);
+        keys.forEach(key -> collector.add(key, "name-" + (char) ('a' + key)));
+        return collector.result();
+    }
+
+    private static List<Integer> keys(FilterResult<Integer> result) {
+        return result.getKeys().stream().map(kv -> kv.key).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testTopAndMerge() {
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            all.add(i);
+        }
+        Collections.shuffle(all);
+
+        for (boolean descending : new boolean[]{false, true}) {
+            // three "stores", each returning its own top 5
+            List<FilterResult<Integer>> results = Arrays.asList(
+                collect(all.subList(0, 7), descending, 5),
+                collect(all.subList(7, 15), descending, 5),
+                collect(all.subList(15, 20), descending, 5)
+            );
+            FilterResult<Integer> merged = FilterResult.merge(results, descending, 5);
+
+            Assertions.assertEquals(20, merged.getCount());
+            List<Integer> expected = descending ? Arrays.asList(19, 18, 17, 16, 15) : Arrays.asList(0, 1, 2, 3, 4);
+            Assertions.assertEquals(expected, keys(merged));
+        }
+    }
+
+    @Test
+    public void testSortKeyIgnoresCase() {
+        FilterResult.Collector<String> collector = new FilterResult.Collector<>(false, 10);
+        collector.add("1", "b");
+        collector.add("2", "A");
+        collector.add("3", "C");
+        List<String> keys = collector.result().getKeys().stream().map(kv -> kv.key).collect(Collectors.toList());
+        Assertions.assertEquals(Arrays.asList("2", "1", "3"), keys);
+        Assertions.assertEquals(KeyValue.pair("2", "A"), collector.result().getKeys().get(0));
+    }
+
+    @Test
+    public void testTiesBrokenByKey() {
+        List<String> all = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            all.add("key-" + (char) ('a' + i));
+        }
+        List<String> expected = new ArrayList<>(all);
+        Collections.shuffle(all);
+
+        for (boolean descending : new boolean[]{false, true}) {
+            // every key has the same sort key, so each page only lines up if the stores agree on the key order
+            List<String> paged = new ArrayList<>();
+            for (int offset = 0; offset < all.size(); offset += 7) {
+                int top = offset + 7;
+                List<FilterResult<String>> results = Arrays.asList(
+                    collectSame(all.subList(0, 10), descending, top),
+                    collectSame(all.subList(10, 30), descending, top)
+                );
+                FilterResult.merge(results, descending, top).getKeys().stream()
+                    .skip(offset)
+                    .forEach(kv -> paged.add(kv.key));
+            }
+            List<String> sorted = new ArrayList<>(expected);
+            if (descending) {
+                Collections.reverse(sorted);
+            }
+            Assertions.assertEquals(sorted, paged);
+        }
+    }
+
+    private static FilterResult<String> collectSame(List<String> keys, boolean descending, int limit) {
+        FilterResult.Collector<String> collector = new FilterResult.Collector<>(descending, limit);
+        keys.forEach(key -> collector.add(key, "same"));
+        return collector.result();
+    }
+}